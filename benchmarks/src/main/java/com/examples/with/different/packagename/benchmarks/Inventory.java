@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class under test of the benchmarks. It is kept outside of the EvoSuite
+ * packages, as these are never instrumented.
+ */
+public class Inventory {
+
+	private final Map<String, Integer> items = new LinkedHashMap<String, Integer>();
+
+	private final int capacity;
+
+	private int size = 0;
+
+	public Inventory(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		this.capacity = capacity;
+	}
+
+	public boolean add(String item, int quantity) {
+		if (item == null || item.isEmpty())
+			return false;
+		if (quantity <= 0)
+			return false;
+		if (size + quantity > capacity)
+			return false;
+
+		Integer current = items.get(item);
+		if (current == null)
+			items.put(item, quantity);
+		else
+			items.put(item, current + quantity);
+		size += quantity;
+		return true;
+	}
+
+	public int remove(String item, int quantity) {
+		Integer current = items.get(item);
+		if (current == null)
+			return 0;
+		if (quantity >= current) {
+			items.remove(item);
+			size -= current;
+			return current;
+		}
+		items.put(item, current - quantity);
+		size -= quantity;
+		return quantity;
+	}
+
+	public int classify(int quantity) {
+		if (quantity < 0)
+			return -1;
+		else if (quantity == 0)
+			return 0;
+		else if (quantity < 10)
+			return 1;
+		else if (quantity < 100)
+			return 2;
+		else if (quantity % 2 == 0)
+			return 3;
+		else
+			return 4;
+	}
+
+	public int getQuantity(String item) {
+		Integer current = items.get(item);
+		return current == null ? 0 : current;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public boolean isFull() {
+		return size == capacity;
+	}
+}
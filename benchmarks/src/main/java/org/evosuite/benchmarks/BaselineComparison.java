@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.opencsv.CSVReader;
+
+/**
+ * Compares the results of a JMH run (in CSV format, ie, "-rf csv") with the
+ * checked-in baseline, and reports each benchmark that got slower by more
+ * than a given threshold. The process exits with status 1 if there is any
+ * regression, so that it can be used to fail a nightly job.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar org.evosuite.benchmarks.BaselineComparison \
+ *      baselines/baseline.csv target/results.csv [threshold in %]
+ * </pre>
+ */
+public class BaselineComparison {
+
+	/**
+	 * Default allowed slow down, in percent
+	 */
+	public static final double DEFAULT_THRESHOLD = 10.0;
+
+	private static final String COLUMN_BENCHMARK = "Benchmark";
+	private static final String COLUMN_MODE = "Mode";
+	private static final String COLUMN_SCORE = "Score";
+	private static final String COLUMN_ERROR = "Score Error (99.9%)";
+	private static final String COLUMN_UNIT = "Unit";
+	private static final String PARAM_PREFIX = "Param: ";
+
+	/**
+	 * Score of a single benchmark, with a given set of parameters
+	 */
+	public static class Result {
+
+		public final String name;
+		public final String mode;
+		public final double score;
+		public final double error;
+		public final String unit;
+
+		public Result(String name, String mode, double score, double error, String unit) {
+			this.name = name;
+			this.mode = mode;
+			this.score = score;
+			this.error = Double.isNaN(error) ? 0.0 : error;
+			this.unit = unit;
+		}
+
+		/**
+		 * For throughput, a higher score is better. For all other modes
+		 * (average time, sample time, single shot) a lower score is better
+		 */
+		public boolean isHigherBetter() {
+			return "thrpt".equals(mode);
+		}
+	}
+
+	private final Map<String, Result> baseline;
+
+	private final Map<String, Result> current;
+
+	private final double threshold;
+
+	public BaselineComparison(Map<String, Result> baseline, Map<String, Result> current, double threshold) {
+		this.baseline = baseline;
+		this.current = current;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Read the results of a JMH run in CSV format. Benchmarks with parameters
+	 * are identified by their name followed by the parameter values.
+	 *
+	 * @param file
+	 *            the CSV file written by JMH
+	 * @return map from benchmark identifier to result, in the order of the file
+	 * @throws IOException
+	 *             if the file cannot be read or has not the JMH format
+	 */
+	public static Map<String, Result> readResults(File file) throws IOException {
+		List<String[]> rows;
+		try (CSVReader reader = new CSVReader(new FileReader(file))) {
+			rows = reader.readAll();
+		}
+		if (rows.isEmpty())
+			throw new IOException("Empty file: " + file.getAbsolutePath());
+
+		String[] header = rows.get(0);
+		int benchmarkIndex = indexOf(header, COLUMN_BENCHMARK, file);
+		int modeIndex = indexOf(header, COLUMN_MODE, file);
+		int scoreIndex = indexOf(header, COLUMN_SCORE, file);
+		int errorIndex = indexOf(header, COLUMN_ERROR, file);
+		int unitIndex = indexOf(header, COLUMN_UNIT, file);
+
+		Map<String, Result> results = new LinkedHashMap<String, Result>();
+		for (String[] row : rows.subList(1, rows.size())) {
+			if (row.length < header.length)
+				continue;
+			StringBuilder key = new StringBuilder(row[benchmarkIndex]);
+			for (int i = 0; i < header.length; i++) {
+				if (header[i].startsWith(PARAM_PREFIX) && !row[i].isEmpty()) {
+					key.append(':').append(header[i].substring(PARAM_PREFIX.length())).append('=').append(row[i]);
+				}
+			}
+			results.put(key.toString(), new Result(row[benchmarkIndex], row[modeIndex], parse(row[scoreIndex]),
+					parse(row[errorIndex]), row[unitIndex]));
+		}
+		return results;
+	}
+
+	private static int indexOf(String[] header, String column, File file) throws IOException {
+		for (int i = 0; i < header.length; i++) {
+			if (header[i].equals(column))
+				return i;
+		}
+		throw new IOException("Column '" + column + "' missing in " + file.getAbsolutePath());
+	}
+
+	private static double parse(String value) {
+		// JMH uses the default locale, which might have a decimal comma
+		return Double.parseDouble(value.replace(',', '.'));
+	}
+
+	/**
+	 * Relative change of the score of the current run with respect to the
+	 * baseline, in percent. Positive values are slow downs.
+	 */
+	public static double getSlowDown(Result before, Result after) {
+		double change = (after.score - before.score) / before.score * 100.0;
+		return before.isHigherBetter() ? -change : change;
+	}
+
+	/**
+	 * A benchmark has regressed if it is slower than the threshold, and the
+	 * difference is larger than the measurement errors of the two runs
+	 */
+	public boolean isRegression(Result before, Result after) {
+		if (!before.unit.equals(after.unit) || !before.mode.equals(after.mode))
+			return false;
+		double difference = Math.abs(after.score - before.score);
+		return getSlowDown(before, after) > threshold && difference > before.error + after.error;
+	}
+
+	/**
+	 * Write a report of all benchmarks to the given stream
+	 *
+	 * @return the number of regressions
+	 */
+	public int report(PrintStream out) {
+		int regressions = 0;
+		out.println(String.format(Locale.ROOT, "%-70s %14s %14s %9s  %s", "Benchmark", "Baseline", "Current",
+				"Change", "Unit"));
+		for (Map.Entry<String, Result> entry : current.entrySet()) {
+			Result after = entry.getValue();
+			Result before = baseline.get(entry.getKey());
+			if (before == null) {
+				out.println(String.format(Locale.ROOT, "%-70s %14s %14.3f %9s  %s", entry.getKey(), "-",
+						after.score, "new", after.unit));
+				continue;
+			}
+			String status = "";
+			if (!before.unit.equals(after.unit) || !before.mode.equals(after.mode)) {
+				status = "  (not comparable: " + before.mode + " " + before.unit + ")";
+			} else if (isRegression(before, after)) {
+				status = "  REGRESSION";
+				regressions++;
+			}
+			out.println(String.format(Locale.ROOT, "%-70s %14.3f %14.3f %+8.1f%%  %s%s", entry.getKey(),
+					before.score, after.score, getSlowDown(before, after), after.unit, status));
+		}
+		for (String key : baseline.keySet()) {
+			if (!current.containsKey(key))
+				out.println(String.format(Locale.ROOT, "%-70s %14.3f %14s %9s  %s", key, baseline.get(key).score,
+						"-", "missing", baseline.get(key).unit));
+		}
+		out.println();
+		out.println(regressions + " regression(s) beyond " + threshold + "%");
+		return regressions;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2 || args.length > 3) {
+			System.err.println("Usage: BaselineComparison <baseline.csv> <results.csv> [threshold in %]");
+			System.exit(2);
+		}
+		double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+		BaselineComparison comparison = new BaselineComparison(readResults(new File(args[0])),
+				readResults(new File(args[1])), threshold);
+		int regressions = comparison.report(System.out);
+		System.exit(regressions > 0 ? 1 : 0);
+	}
+}
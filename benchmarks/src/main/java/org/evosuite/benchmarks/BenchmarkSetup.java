@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.variable.VariableReference;
+
+import com.examples.with.different.packagename.benchmarks.Inventory;
+
+/**
+ * Common set up of the benchmarks: the class under test is analyzed and
+ * instrumented as in a regular run of EvoSuite, and canned test cases on it
+ * are available to the benchmarks.
+ */
+public final class BenchmarkSetup {
+
+	public static final String TARGET_CLASS = Inventory.class.getCanonicalName();
+
+	private static boolean initialized = false;
+
+	private BenchmarkSetup() {
+	}
+
+	/**
+	 * Reset the properties to their defaults, and analyze the class under
+	 * test. This is done only once per JVM, ie, once per JMH fork.
+	 */
+	public static synchronized void initialize() throws ClassNotFoundException {
+		if (initialized)
+			return;
+
+		Properties.getInstance().resetToDefaults();
+		Properties.TARGET_CLASS = TARGET_CLASS;
+		Properties.CRITERION = new Criterion[] { Criterion.BRANCH };
+
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		DependencyAnalysis.analyzeClass(TARGET_CLASS, Arrays.asList(cp.split(File.pathSeparator)));
+		TestCaseExecutor.initExecutor();
+
+		initialized = true;
+	}
+
+	/**
+	 * Canned test cases on the instrumented class under test, always the same
+	 * ones to have comparable measurements among releases
+	 *
+	 * @param numTests
+	 *            number of test cases to create
+	 * @return a list of test cases
+	 */
+	public static List<TestCase> createTests(int numTests) throws ClassNotFoundException, NoSuchMethodException {
+		List<TestCase> tests = new ArrayList<TestCase>(numTests);
+		for (int i = 0; i < numTests; i++) {
+			tests.add(createTest(i, 1 + i % 4));
+		}
+		return tests;
+	}
+
+	/**
+	 * A single, longer canned test case
+	 *
+	 * @return a test case
+	 */
+	public static DefaultTestCase createLongTest() throws ClassNotFoundException, NoSuchMethodException {
+		return createTest(3, 25);
+	}
+
+	private static DefaultTestCase createTest(int seed, int numCalls)
+			throws ClassNotFoundException, NoSuchMethodException {
+		Class<?> clazz = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(TARGET_CLASS);
+		Constructor<?> constructor = clazz.getConstructor(int.class);
+		Method add = clazz.getMethod("add", String.class, int.class);
+		Method remove = clazz.getMethod("remove", String.class, int.class);
+		Method classify = clazz.getMethod("classify", int.class);
+		Method isFull = clazz.getMethod("isFull");
+
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference capacity = builder.appendIntPrimitive(10 + seed * 7);
+		VariableReference inventory = builder.appendConstructor(constructor, capacity);
+		VariableReference item = builder.appendStringPrimitive("item" + (seed % 3));
+		for (int i = 0; i < numCalls; i++) {
+			VariableReference quantity = builder.appendIntPrimitive((seed + 1) * (i + 2) - 5);
+			builder.appendMethod(inventory, add, item, quantity);
+			builder.appendMethod(inventory, classify, quantity);
+		}
+		VariableReference removed = builder.appendIntPrimitive(seed % 5);
+		builder.appendMethod(inventory, remove, item, removed);
+		builder.appendMethod(inventory, isFull);
+		return builder.getDefaultTestCase();
+	}
+}
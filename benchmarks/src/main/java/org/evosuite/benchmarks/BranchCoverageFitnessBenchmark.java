@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fitness evaluation of a test suite for branch coverage, once with all
+ * tests changed (ie, they have to be executed), and once with a single
+ * changed test, which is the common case after a mutation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class BranchCoverageFitnessBenchmark {
+
+	private static final int NUM_TESTS = 20;
+
+	@Param({ "true", "false" })
+	public boolean incremental;
+
+	private BranchCoverageSuiteFitness fitness;
+
+	private TestSuiteChromosome suite;
+
+	@Setup
+	public void setUp() throws ClassNotFoundException, NoSuchMethodException {
+		BenchmarkSetup.initialize();
+		Properties.INCREMENTAL_SUITE_FITNESS = incremental;
+		fitness = new BranchCoverageSuiteFitness();
+		suite = new TestSuiteChromosome();
+		for (TestCase test : BenchmarkSetup.createTests(NUM_TESTS)) {
+			suite.addTest(test);
+		}
+		fitness.getFitness(suite);
+	}
+
+	@State(Scope.Benchmark)
+	public static class AllChanged {
+		@Setup(Level.Invocation)
+		public void setChanged(BranchCoverageFitnessBenchmark benchmark) {
+			for (TestChromosome test : benchmark.suite.getTestChromosomes()) {
+				test.setChanged(true);
+			}
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class OneChanged {
+		private int next = 0;
+
+		@Setup(Level.Invocation)
+		public void setChanged(BranchCoverageFitnessBenchmark benchmark) {
+			benchmark.suite.getTestChromosome(next).setChanged(true);
+			next = (next + 1) % NUM_TESTS;
+		}
+	}
+
+	@Benchmark
+	public double getFitnessAllChanged(AllChanged changed) {
+		return fitness.getFitness(suite);
+	}
+
+	@Benchmark
+	public double getFitnessOneChanged(OneChanged changed) {
+		return fitness.getFitness(suite);
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the callback that the instrumented code of the class under test
+ * calls for each executed branch. Each invocation corresponds to one method
+ * call passing a fixed number of branches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Thread)
+public class ExecutionTracerBenchmark {
+
+	private static final String METHOD_NAME = "classify(I)I";
+
+	private static final int NUM_BRANCHES = 100;
+
+	private final int[] values = new int[NUM_BRANCHES];
+
+	@Setup
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.initialize();
+		ExecutionTracer.setCheckCallerThread(false);
+		ExecutionTracer.enable();
+		for (int i = 0; i < NUM_BRANCHES; i++) {
+			values[i] = i % 7 - 3;
+		}
+	}
+
+	@Benchmark
+	public void passedBranch() {
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTracer.enteredMethod(BenchmarkSetup.TARGET_CLASS, METHOD_NAME, null);
+		for (int i = 0; i < NUM_BRANCHES; i++) {
+			ExecutionTracer.passedBranch(values[i], Opcodes.IFLT, i % 10 + 1, i);
+		}
+		ExecutionTracer.leftMethod(BenchmarkSetup.TARGET_CLASS, METHOD_NAME);
+	}
+
+	@Benchmark
+	public void passedBranchTwoOperands() {
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTracer.enteredMethod(BenchmarkSetup.TARGET_CLASS, METHOD_NAME, null);
+		for (int i = 0; i < NUM_BRANCHES; i++) {
+			ExecutionTracer.passedBranch(values[i], i % 10, Opcodes.IF_ICMPGE, i % 10 + 1, i);
+		}
+		ExecutionTracer.leftMethod(BenchmarkSetup.TARGET_CLASS, METHOD_NAME);
+	}
+}
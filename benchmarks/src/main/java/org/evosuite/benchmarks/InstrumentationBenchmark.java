@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ResourceList;
+import org.evosuite.coverage.branch.BranchPool;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.BytecodeInstructionPool;
+import org.evosuite.instrumentation.BytecodeInstrumentation;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
+import org.evosuite.instrumentation.LinePool;
+import org.evosuite.runtime.util.Inputs;
+import org.objectweb.asm.ClassReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Transformation of the bytecode of the class under test, as done by the
+ * {@link InstrumentingClassLoader} for every class of the SUT. The pools
+ * filled by the transformation are cleared before each invocation, as a class
+ * is only instrumented once per class loader.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+
+	private InstrumentingClassLoader classLoader;
+
+	private byte[] bytecode;
+
+	private String resourceName;
+
+	@Setup
+	public void setUp() throws ClassNotFoundException, IOException {
+		BenchmarkSetup.initialize();
+		classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		resourceName = BenchmarkSetup.TARGET_CLASS.replace('.', '/');
+		InputStream in = ResourceList.getInstance(classLoader).getClassAsStream(BenchmarkSetup.TARGET_CLASS);
+		Inputs.checkNull(in);
+		try {
+			bytecode = new ClassReader(in).b;
+		} finally {
+			in.close();
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void clearPools() {
+		BranchPool.getInstance(classLoader).reset();
+		BytecodeInstructionPool.clearAll();
+		GraphPool.clearAll();
+		LinePool.reset();
+	}
+
+	@Benchmark
+	public byte[] transformBytes() {
+		BytecodeInstrumentation instrumentation = classLoader.getInstrumentation();
+		return instrumentation.transformBytes(classLoader, resourceName, new ClassReader(bytecode));
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Execution of canned test cases on the instrumented class under test,
+ * including thread handoff, tracing and the reset of static state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class TestCaseExecutorBenchmark {
+
+	private static final int NUM_TESTS = 10;
+
+	private List<TestCase> tests;
+
+	@Setup
+	public void setUp() throws ClassNotFoundException, NoSuchMethodException {
+		BenchmarkSetup.initialize();
+		tests = BenchmarkSetup.createTests(NUM_TESTS);
+	}
+
+	@Benchmark
+	public void execute(Blackhole blackhole) {
+		for (TestCase test : tests) {
+			blackhole.consume(TestCaseExecutor.getInstance().execute(test));
+		}
+	}
+}
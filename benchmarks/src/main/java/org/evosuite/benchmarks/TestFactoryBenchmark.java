@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestFactory;
+import org.evosuite.utils.Randomness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Insertion of random statements and change of random calls, ie, the
+ * operations the mutation of test cases is built on. The random seed is reset
+ * at each iteration, so that all releases do the same choices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class TestFactoryBenchmark {
+
+	private static final int NUM_TESTS = 10;
+
+	private List<TestCase> tests;
+
+	@Setup
+	public void setUp() throws ClassNotFoundException, NoSuchMethodException {
+		BenchmarkSetup.initialize();
+		tests = BenchmarkSetup.createTests(NUM_TESTS);
+	}
+
+	@Setup(Level.Iteration)
+	public void resetSeed() {
+		Randomness.setSeed(42);
+	}
+
+	@Benchmark
+	public int insertRandomStatement() {
+		int inserted = 0;
+		for (TestCase original : tests) {
+			TestCase test = original.clone();
+			if (TestFactory.getInstance().insertRandomStatement(test, test.size() - 1) >= 0)
+				inserted++;
+		}
+		return inserted;
+	}
+
+	@Benchmark
+	public int changeRandomCall() {
+		int changed = 0;
+		for (TestCase original : tests) {
+			TestCase test = original.clone();
+			int position = Randomness.nextInt(test.size());
+			if (TestFactory.getInstance().changeRandomCall(test, test.getStatement(position)))
+				changed++;
+		}
+		return changed;
+	}
+}
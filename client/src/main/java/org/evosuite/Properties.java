@@ -126,6 +126,9 @@ public class Properties {
 	@Parameter(key = "reset_all_classes_during_assertion_generation", group = "Test Creation", description = "Test Generation does not apply the selective method of selection of class re-initalization")
 	public static boolean RESET_ALL_CLASSES_DURING_ASSERTION_GENERATION = true;
 
+	@Parameter(key = "reset_only_dirty_classes", group = "Test Creation", description = "When all classes are re-initialized, skip those whose static fields were neither written nor read (ignoring reads of fields of primitive or immutable type) since their last re-initialization")
+	public static boolean RESET_ONLY_DIRTY_CLASSES = true;
+
 
 	@Parameter(key = "reset_standard_streams", group = "Test Creation", description = "Restore System.out, System.in and DebugGraphics.logStream after test execution")
 	public static boolean RESET_STANDARD_STREAMS = false;
@@ -400,6 +403,16 @@ public class Properties {
 	@Parameter(key = "dse_variable_resets", group = "DSE", description = "Times DSE resets the int and real variables with random values")
 	public static int DSE_VARIABLE_RESETS = 2;
 
+	@Parameter(key = "dse_solver_cache_size", group = "DSE", description = "Maximum number of solver results kept in the constraint solver cache")
+	@IntValue(min = 0)
+	public static int DSE_SOLVER_CACHE_SIZE = 10000;
+
+	@Parameter(key = "dse_solver_cache_file", group = "DSE", description = "File in which the constraint solver cache is persisted across runs. If empty, the cache is not persisted")
+	public static String DSE_SOLVER_CACHE_FILE = "";
+
+	@Parameter(key = "dse_incremental_solver", group = "DSE", description = "Keep the SMT solver process alive across queries and use push/pop to share common prefixes of successive path conditions")
+	public static boolean DSE_INCREMENTAL_SOLVER = false;
+
 	public enum DSEType {
 		/** apply DSE per statement */
 		STATEMENT,
@@ -1076,6 +1089,12 @@ public class Properties {
 
 	@Parameter(key = "new_statistics", group = "Output", description = "Use the new statistics backend on the master")
 	public static boolean NEW_STATISTICS = true;
+
+	@Parameter(key = "statistics_flush_interval", group = "Output", description = "Maximum time in milliseconds for which statistics are buffered in the client before being sent to the master")
+	public static long STATISTICS_FLUSH_INTERVAL = 200;
+
+	@Parameter(key = "statistics_batch_size", group = "Output", description = "Maximum number of statistics updates sent from the client to the master at once")
+	public static int STATISTICS_BATCH_SIZE = 100;
 	
 	@Parameter(key = "ignore_missing_statistics", group = "Output", description = "Return an empty string for missing output variables")
 	public static boolean IGNORE_MISSING_STATISTICS = false;
@@ -1096,7 +1115,7 @@ public class Properties {
 	public static boolean SERIALIZE_GA = false;
 
 	public enum StatisticsBackend {
-		NONE, CONSOLE, CSV, HTML, DEBUG;
+		NONE, CONSOLE, CSV, HTML, DEBUG, COLUMNAR;
 	}
 
 	@Parameter(key = "statistics_backend", group = "Output", description = "Which backend to use to collect data")
@@ -1198,6 +1217,9 @@ public class Properties {
 	@Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
 	public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+	@Parameter(key = "instrumentation_cache_dir", description = "Directory in which the instrumented bytecode of classes that are not analyzed for coverage (e.g., libraries) is cached across runs, together with the control dependencies of analyzed classes. If empty, no cache is used")
+	public static String INSTRUMENTATION_CACHE_DIR = "";
+
 	@Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
 	public static boolean INSTRUMENT_PARENT = false;
 
@@ -1226,11 +1248,14 @@ public class Properties {
 	@Parameter(key = "test_archive", description = "Use an archive of covered goals during test generation")
 	public static boolean TEST_ARCHIVE = true;
 
+	@Parameter(key = "incremental_suite_fitness", group = "Search Algorithm", description = "Maintain the coverage statistics of test suites incrementally, only analyzing the execution results of added or changed tests")
+	public static boolean INCREMENTAL_SUITE_FITNESS = false;
+
 	@Parameter(key = "test_factory", description = "Which factory creates tests")
 	public static TestFactory TEST_FACTORY = TestFactory.ARCHIVE;
 
 	public enum ArchiveType {
-		COVERAGE, MIO
+		COVERAGE, MIO, INDEXED
 	}
 
 	/** Constant <code>ARCHIVE_TYPE=COVERAGE</code> */
@@ -1356,6 +1381,9 @@ public class Properties {
 	@Parameter(key = "replace_gui", group = "Test Execution", description = "Replace javax.swing with a smart stub/mock")
 	public static boolean REPLACE_GUI = false;
 
+	@Parameter(key = "primitive_execution_trace", group = "Test Execution", description = "Record branch coverage and distances in primitive arrays indexed by branch id rather than in maps")
+	public static boolean PRIMITIVE_EXECUTION_TRACE = false;
+
 	
     @Parameter(key = "max_started_threads", group = "Test Execution", description = "Max number of threads allowed to be started in each test")
     public static int MAX_STARTED_THREADS = RuntimeSettings.maxNumberOfThreads;
@@ -1560,6 +1588,14 @@ public class Properties {
 	@Parameter(key = "client_on_thread", group = "Runtime", description = "Run client process on same JVM of master in separate thread. To be used only for debugging purposes")
 	public static volatile boolean CLIENT_ON_THREAD = false;
 
+	@Parameter(key = "client_max_jobs", group = "Runtime", description = "Maximum number of target classes a client process handles before it is replaced by a fresh one. With 1, a new client process is started for every target class")
+	@IntValue(min = 1)
+	public static int CLIENT_MAX_JOBS = 1;
+
+	@Parameter(key = "client_max_retained_memory", group = "Runtime", description = "Fraction of the maximum heap a client process may still use after being reset for its next target class. Clients retaining more memory are considered leaking, and are replaced by a fresh process")
+	@DoubleValue(min = 0.0, max = 1.0)
+	public static double CLIENT_MAX_RETAINED_MEMORY = 0.5;
+
 
 	@Parameter(key = "is_running_a_system_test", group = "Runtime", description = "Specify that a system test is running. To be used only for debugging purposes")
 	public static volatile boolean IS_RUNNING_A_SYSTEM_TEST = false;
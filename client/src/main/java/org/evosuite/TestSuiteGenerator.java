@@ -51,6 +51,8 @@ import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.statistics.StatisticsSender;
 import org.evosuite.strategy.*;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.symbolic.solver.SmtSolverSession;
+import org.evosuite.symbolic.solver.SolverCache;
 import org.evosuite.testcase.ConstantInliner;
 import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
@@ -494,6 +496,8 @@ public class TestSuiteGenerator {
 		DSEStats.getInstance().trackConstraintTypes();
 
 		DSEStats.getInstance().trackSolverStatistics();
+		SolverCache.getInstance().saveToFile();
+		SmtSolverSession.closeAll();
 
 		if (Properties.DSE_PROBABILITY > 0.0 && Properties.LOCAL_SEARCH_RATE > 0
 				&& Properties.LOCAL_SEARCH_PROBABILITY > 0.0) {
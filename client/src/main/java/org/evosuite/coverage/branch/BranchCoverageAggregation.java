@@ -0,0 +1,221 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.coverage.branch;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.evosuite.testcase.ExecutableChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testsuite.TestSuiteAggregation;
+
+/**
+ * Branch coverage statistics of a test suite, maintained incrementally for
+ * {@link BranchCoverageSuiteFitness}. Execution counts are summed up, branch
+ * distances are minimized. For every minimum the number of tests achieving
+ * it is kept, such that the minimum only has to be recomputed from the
+ * remaining tests once the last of them is removed.
+ */
+class BranchCoverageAggregation extends TestSuiteAggregation<BranchCoverageAggregation.TraceContribution> {
+
+	/**
+	 * The statistics of a single execution result
+	 */
+	static final class TraceContribution {
+		private final boolean hasTimeoutOrTestException;
+		private final Map<Integer, Integer> predicateCount = new LinkedHashMap<Integer, Integer>();
+		private final Map<String, Integer> callCount = new LinkedHashMap<String, Integer>();
+		private final Map<Integer, Double> trueDistance = new LinkedHashMap<Integer, Double>();
+		private final Map<Integer, Double> falseDistance = new LinkedHashMap<Integer, Double>();
+
+		private TraceContribution(BranchCoverageSuiteFitness fitness, ExecutionResult result) {
+			hasTimeoutOrTestException = fitness.analyzeTrace(result, predicateCount, callCount, trueDistance,
+			        falseDistance);
+		}
+	}
+
+	private final BranchCoverageSuiteFitness fitness;
+
+	private int numTimeoutOrTestException = 0;
+
+	private final Map<Integer, Integer> predicateCount = new LinkedHashMap<Integer, Integer>();
+
+	/** Number of tests calling a method */
+	private final Map<String, Integer> callCount = new LinkedHashMap<String, Integer>();
+
+	private final Map<Integer, Double> trueDistance = new LinkedHashMap<Integer, Double>();
+
+	/** Number of tests with the minimal true distance */
+	private final Map<Integer, Integer> trueDistanceCount = new LinkedHashMap<Integer, Integer>();
+
+	private final Map<Integer, Double> falseDistance = new LinkedHashMap<Integer, Double>();
+
+	/** Number of tests with the minimal false distance */
+	private final Map<Integer, Integer> falseDistanceCount = new LinkedHashMap<Integer, Integer>();
+
+	BranchCoverageAggregation(BranchCoverageSuiteFitness fitness) {
+		this.fitness = fitness;
+	}
+
+	/**
+	 * Whether any of the tests has timed out or thrown a test exception
+	 * 
+	 * @return
+	 */
+	boolean hasTimeoutOrTestException() {
+		return numTimeoutOrTestException > 0;
+	}
+
+	/**
+	 * Copy the aggregated statistics into the given maps
+	 * 
+	 * @param predicateCount
+	 * @param callCount
+	 * @param trueDistance
+	 * @param falseDistance
+	 */
+	void collect(Map<Integer, Integer> predicateCount, Map<String, Integer> callCount,
+	        Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
+		// Goals might have been removed since the tests were analyzed
+		for (Entry<Integer, Integer> entry : this.predicateCount.entrySet()) {
+			if (fitness.isCountedPredicate(entry.getKey()))
+				predicateCount.put(entry.getKey(), entry.getValue());
+		}
+		callCount.putAll(this.callCount);
+		for (Entry<Integer, Double> entry : this.trueDistance.entrySet()) {
+			if (fitness.isCountedTrueDistance(entry.getKey()))
+				trueDistance.put(entry.getKey(), entry.getValue());
+		}
+		for (Entry<Integer, Double> entry : this.falseDistance.entrySet()) {
+			if (fitness.isCountedFalseDistance(entry.getKey()))
+				falseDistance.put(entry.getKey(), entry.getValue());
+		}
+	}
+
+	@Override
+	protected TraceContribution analyze(ExecutableChromosome test, ExecutionResult result) {
+		return new TraceContribution(fitness, result);
+	}
+
+	@Override
+	protected void add(TraceContribution contribution) {
+		if (contribution.hasTimeoutOrTestException) {
+			numTimeoutOrTestException++;
+			return;
+		}
+		for (Entry<Integer, Integer> entry : contribution.predicateCount.entrySet()) {
+			Integer count = predicateCount.get(entry.getKey());
+			predicateCount.put(entry.getKey(), count == null ? entry.getValue() : count + entry.getValue());
+		}
+		for (String method : contribution.callCount.keySet()) {
+			Integer count = callCount.get(method);
+			callCount.put(method, count == null ? 1 : count + 1);
+		}
+		for (Entry<Integer, Double> entry : contribution.trueDistance.entrySet()) {
+			addDistance(entry.getKey(), entry.getValue(), trueDistance, trueDistanceCount);
+		}
+		for (Entry<Integer, Double> entry : contribution.falseDistance.entrySet()) {
+			addDistance(entry.getKey(), entry.getValue(), falseDistance, falseDistanceCount);
+		}
+	}
+
+	@Override
+	protected void remove(TraceContribution contribution) {
+		if (contribution.hasTimeoutOrTestException) {
+			numTimeoutOrTestException--;
+			return;
+		}
+		for (Entry<Integer, Integer> entry : contribution.predicateCount.entrySet()) {
+			int count = predicateCount.get(entry.getKey()) - entry.getValue();
+			if (count == 0)
+				predicateCount.remove(entry.getKey());
+			else
+				predicateCount.put(entry.getKey(), count);
+		}
+		for (String method : contribution.callCount.keySet()) {
+			int count = callCount.get(method) - 1;
+			if (count == 0)
+				callCount.remove(method);
+			else
+				callCount.put(method, count);
+		}
+		for (Entry<Integer, Double> entry : contribution.trueDistance.entrySet()) {
+			if (removeDistance(entry.getKey(), entry.getValue(), trueDistance, trueDistanceCount)) {
+				for (TraceContribution other : getContributions()) {
+					Double distance = other.trueDistance.get(entry.getKey());
+					if (distance != null)
+						addDistance(entry.getKey(), distance, trueDistance, trueDistanceCount);
+				}
+			}
+		}
+		for (Entry<Integer, Double> entry : contribution.falseDistance.entrySet()) {
+			if (removeDistance(entry.getKey(), entry.getValue(), falseDistance, falseDistanceCount)) {
+				for (TraceContribution other : getContributions()) {
+					Double distance = other.falseDistance.get(entry.getKey());
+					if (distance != null)
+						addDistance(entry.getKey(), distance, falseDistance, falseDistanceCount);
+				}
+			}
+		}
+	}
+
+	private static void addDistance(Integer branch, double distance, Map<Integer, Double> minimum,
+	        Map<Integer, Integer> count) {
+		Double current = minimum.get(branch);
+		if (current == null || distance < current) {
+			minimum.put(branch, distance);
+			count.put(branch, 1);
+		} else if (Double.compare(distance, current) == 0) {
+			count.put(branch, count.get(branch) + 1);
+		}
+	}
+
+	/**
+	 * @return whether the minimum needs to be recomputed from the remaining
+	 *         tests
+	 */
+	private static boolean removeDistance(Integer branch, double distance, Map<Integer, Double> minimum,
+	        Map<Integer, Integer> count) {
+		if (Double.compare(distance, minimum.get(branch)) != 0)
+			return false;
+		int remaining = count.get(branch) - 1;
+		if (remaining > 0) {
+			count.put(branch, remaining);
+			return false;
+		}
+		minimum.remove(branch);
+		count.remove(branch);
+		return true;
+	}
+
+	@Override
+	protected TestSuiteAggregation<TraceContribution> copyStatistics() {
+		BranchCoverageAggregation copy = new BranchCoverageAggregation(fitness);
+		copy.numTimeoutOrTestException = numTimeoutOrTestException;
+		copy.predicateCount.putAll(predicateCount);
+		copy.callCount.putAll(callCount);
+		copy.trueDistance.putAll(trueDistance);
+		copy.trueDistanceCount.putAll(trueDistanceCount);
+		copy.falseDistance.putAll(falseDistance);
+		copy.falseDistanceCount.putAll(falseDistanceCount);
+		return copy;
+	}
+}
@@ -22,6 +22,7 @@ package org.evosuite.coverage.branch;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -39,6 +40,7 @@ import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteAggregation;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
@@ -217,11 +219,23 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		}
 	}
 
+	boolean isCountedPredicate(Integer branch) {
+		return branchesId.contains(branch)
+				&& !(removedBranchesT.contains(branch) && removedBranchesF.contains(branch));
+	}
+
+	boolean isCountedTrueDistance(Integer branch) {
+		return branchesId.contains(branch) && !removedBranchesT.contains(branch);
+	}
+
+	boolean isCountedFalseDistance(Integer branch) {
+		return branchesId.contains(branch) && branchCoverageFalseMap.containsKey(branch)
+				&& !removedBranchesF.contains(branch);
+	}
+
 	protected void handlePredicateCount(ExecutionResult result, Map<Integer, Integer> predicateCount) {
 		for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
-			if (!branchesId.contains(entry.getKey())
-					|| (removedBranchesT.contains(entry.getKey())
-					&& removedBranchesF.contains(entry.getKey())))
+			if (!isCountedPredicate(entry.getKey()))
 				continue;
 			if (!predicateCount.containsKey(entry.getKey()))
 				predicateCount.put(entry.getKey(), entry.getValue());
@@ -235,8 +249,9 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 
 
 	protected void handleTrueDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> trueDistance) {
+		List<TestFitnessFunction> coveredGoals = new ArrayList<TestFitnessFunction>();
 		for (Entry<Integer, Double> entry : result.getTrace().getTrueDistances().entrySet()) {
-			if(!branchesId.contains(entry.getKey())||removedBranchesT.contains(entry.getKey())) continue;
+			if(!isCountedTrueDistance(entry.getKey())) continue;
 			if (!trueDistance.containsKey(entry.getKey()))
 				trueDistance.put(entry.getKey(), entry.getValue());
 			else {
@@ -249,17 +264,21 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
 				test.getTestCase().addCoveredGoal(goal);
 				toRemoveBranchesT.add(entry.getKey());
-			}
-			if(Properties.TEST_ARCHIVE) {
+				coveredGoals.add(goal);
+			} else if(Properties.TEST_ARCHIVE) {
 				Archive.getArchiveInstance().updateArchive(goal, test, entry.getValue());
 			}
 		}
+		if(Properties.TEST_ARCHIVE) {
+			Archive.getArchiveInstance().updateArchive(coveredGoals, test);
+		}
 
 	}
 
 	protected void handleFalseDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> falseDistance) {
+		List<TestFitnessFunction> coveredGoals = new ArrayList<TestFitnessFunction>();
 		for (Entry<Integer, Double> entry : result.getTrace().getFalseDistances().entrySet()) {
-			if(!branchesId.contains(entry.getKey())||!branchCoverageFalseMap.containsKey(entry.getKey())||removedBranchesF.contains(entry.getKey())) continue;
+			if(!isCountedFalseDistance(entry.getKey())) continue;
 			if (!falseDistance.containsKey(entry.getKey()))
 				falseDistance.put(entry.getKey(), entry.getValue());
 			else {
@@ -272,11 +291,14 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
 				test.getTestCase().addCoveredGoal(goal);
 				toRemoveBranchesF.add(entry.getKey());
-			}
-			if(Properties.TEST_ARCHIVE) {
+				coveredGoals.add(goal);
+			} else if(Properties.TEST_ARCHIVE) {
 				Archive.getArchiveInstance().updateArchive(goal, test, entry.getValue());
 			}
 		}
+		if(Properties.TEST_ARCHIVE) {
+			Archive.getArchiveInstance().updateArchive(coveredGoals, test);
+		}
 
 	}
 
@@ -295,25 +317,62 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	        Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
 		boolean hasTimeoutOrTestException = false;
 		for (ExecutionResult result : results) {
-			if (result.hasTimeout() || result.hasTestException()) {
+			if (analyzeTrace(result, predicateCount, callCount, trueDistance, falseDistance)) {
 				hasTimeoutOrTestException = true;
-				continue;
 			}
+		}
+		return hasTimeoutOrTestException;
+	}
 
-			TestChromosome test = new TestChromosome();
-			test.setTestCase(result.test);
-			test.setLastExecutionResult(result);
-			test.setChanged(false);
+	/**
+	 * Summarize the statistics of a single execution result
+	 * 
+	 * @param result
+	 * @param predicateCount
+	 * @param callCount
+	 * @param trueDistance
+	 * @param falseDistance
+	 * @return whether the execution has timed out or thrown a test exception,
+	 *         in which case no statistics are collected
+	 */
+	boolean analyzeTrace(ExecutionResult result, Map<Integer, Integer> predicateCount,
+	        Map<String, Integer> callCount, Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
+		if (result.hasTimeout() || result.hasTestException()) {
+			return true;
+		}
+
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(result.test);
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
+
+		handleBranchlessMethods(test, result, callCount);
+		handlePredicateCount(result, predicateCount);
+		handleTrueDistances(test, result, trueDistance);
+		handleFalseDistances(test, result, falseDistance);
 
-			handleBranchlessMethods(test, result, callCount);
-			handlePredicateCount(result, predicateCount);
-			handleTrueDistances(test, result, trueDistance);
-			handleFalseDistances(test, result, falseDistance);
+		// In case there were exceptions in a constructor
+		handleConstructorExceptions(test, result, callCount);
+		return false;
+	}
 
-			// In case there were exceptions in a constructor
-			handleConstructorExceptions(test, result, callCount);
+	/**
+	 * Statistics of the suite, updated with the results of added and changed
+	 * tests only
+	 * 
+	 * @param suite
+	 * @return
+	 */
+	private BranchCoverageAggregation getAggregation(
+	        AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite) {
+		TestSuiteAggregation<?> aggregation = suite.getAggregation(this);
+		if (!(aggregation instanceof BranchCoverageAggregation)) {
+			aggregation = new BranchCoverageAggregation(this);
+			suite.setAggregation(this, aggregation);
 		}
-		return hasTimeoutOrTestException;
+		BranchCoverageAggregation branchAggregation = (BranchCoverageAggregation) aggregation;
+		branchAggregation.update(suite.getTestChromosomes());
+		return branchAggregation;
 	}
 	
 	@Override
@@ -390,9 +449,16 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		Map<String, Integer> callCount = new LinkedHashMap<String, Integer>();
 
 		// Collect stats in the traces 
-		boolean hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
-		                                                  callCount, trueDistance,
-		                                                  falseDistance);
+		boolean hasTimeoutOrTestException;
+		if (Properties.INCREMENTAL_SUITE_FITNESS) {
+			BranchCoverageAggregation aggregation = getAggregation(suite);
+			aggregation.collect(predicateCount, callCount, trueDistance, falseDistance);
+			hasTimeoutOrTestException = aggregation.hasTimeoutOrTestException();
+		} else {
+			hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
+			                                          callCount, trueDistance,
+			                                          falseDistance);
+		}
 
 		// Collect branch distances of covered branches
 		int numCoveredBranches = 0;
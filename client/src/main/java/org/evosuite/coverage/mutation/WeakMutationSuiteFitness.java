@@ -19,6 +19,7 @@
  */
 package org.evosuite.coverage.mutation;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -104,6 +105,7 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
 			test.setLastExecutionResult(result);
 			test.setChanged(false);
 
+			List<TestFitnessFunction> coveredGoals = new ArrayList<TestFitnessFunction>();
 			Iterator<Entry<Integer, MutationTestFitness>> it = this.mutantMap.entrySet().iterator();
 			while (it.hasNext()) {
 				Entry<Integer, MutationTestFitness> entry = it.next();
@@ -127,12 +129,16 @@ public class WeakMutationSuiteFitness extends MutationSuiteFitness {
 				if (fit == 0.0) {
 					test.getTestCase().addCoveredGoal(goal); // update list of covered goals
 					this.toRemoveMutants.add(mutantID); // goal to not be considered by the next iteration of the evolutionary algorithm
-				}
-
-				if (Properties.TEST_ARCHIVE) {
+					coveredGoals.add(goal);
+				} else if (Properties.TEST_ARCHIVE) {
 					Archive.getArchiveInstance().updateArchive(goal, test, fit);
 				}
 			}
+
+			if (Properties.TEST_ARCHIVE) {
+				// covered mutants are added at once, see IndexedCoverageArchive
+				Archive.getArchiveInstance().updateArchive(coveredGoals, test);
+			}
 		}
 
 		// Second objective: touch all mutants?
@@ -153,6 +153,19 @@ public abstract class Archive<F extends TestFitnessFunction, T extends TestChrom
     }
   }
 
+  /**
+   * Updates the archive with a chromosome solution that covers all the given targets, i.e., that
+   * has a fitness value of 0.0 on each of them.
+   * 
+   * @param coveredTargets
+   * @param solution
+   */
+  public void updateArchive(Collection<? extends F> coveredTargets, T solution) {
+    for (F target : coveredTargets) {
+      this.updateArchive(target, solution, 0.0);
+    }
+  }
+
   /**
    * Checks whether a candidate solution is better than an existing one.
    * 
@@ -546,6 +559,8 @@ public abstract class Archive<F extends TestFitnessFunction, T extends TestChrom
         return CoverageArchive.instance;
       case MIO:
         return MIOArchive.instance;
+      case INDEXED:
+        return IndexedCoverageArchive.instance;
     }
   }
 }
@@ -0,0 +1,495 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.archive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.evosuite.Properties;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.runtime.util.AtMostOnceLogger;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.Randomness;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coverage archive in which every registered target is given a dense integer id. The covered state
+ * of all targets is kept in a {@link java.util.BitSet} and the best solution of each target in an
+ * array indexed by that id, so that archive maintenance does not need to hash goal objects once
+ * they have been registered. Behaves as {@link CoverageArchive} otherwise.
+ */
+public class IndexedCoverageArchive<F extends TestFitnessFunction, T extends TestChromosome>
+    extends Archive<F, T> {
+
+  private static final long serialVersionUID = 6302917164409816032L;
+
+  private static final Logger logger = LoggerFactory.getLogger(IndexedCoverageArchive.class);
+
+  /**
+   * All registered targets, the position of a target in the list is its id
+   */
+  private final List<F> targets = new ArrayList<F>();
+
+  /**
+   * Map used to assign ids to targets that are equal to an already registered one
+   */
+  private final Map<F, Integer> ids = new HashMap<F, Integer>();
+
+  /**
+   * Ids of the target instances seen so far, so that looking up the id of a known instance does not
+   * require to compute its hash code nor to compare it with other targets
+   */
+  private final Map<F, Integer> instanceIds = new IdentityHashMap<F, Integer>();
+
+  /**
+   * Ids of all covered targets
+   */
+  private final BitSet covered = new BitSet();
+
+  /**
+   * Solutions covering each target, indexed by the id of the target
+   */
+  private Object[] solutions = new Object[64];
+
+  public static final IndexedCoverageArchive<TestFitnessFunction, TestChromosome> instance =
+      new IndexedCoverageArchive<TestFitnessFunction, TestChromosome>();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void addTarget(F target) {
+    super.addTarget(target);
+
+    if (this.getId(target) < 0) {
+      logger.debug("Registering new target '" + target + "'");
+      int id = this.targets.size();
+      this.targets.add(target);
+      this.ids.put(target, id);
+      this.instanceIds.put(target, id);
+      if (id >= this.solutions.length) {
+        this.solutions = Arrays.copyOf(this.solutions, 2 * this.solutions.length);
+      }
+    }
+
+    this.registerNonCoveredTargetOfAMethod(target);
+  }
+
+  /**
+   * Returns the id of a registered target, or -1 if the target is not known to this archive.
+   * 
+   * @param target
+   * @return
+   */
+  public int getId(F target) {
+    Integer id = this.instanceIds.get(target);
+    if (id == null) {
+      id = this.ids.get(target);
+      if (id == null) {
+        return -1;
+      }
+      this.instanceIds.put(target, id);
+    }
+    return id;
+  }
+
+  /**
+   * Returns the ids of all registered targets in a collection, unknown targets are ignored.
+   * 
+   * @param targets
+   * @return
+   */
+  public BitSet getIds(Collection<? extends F> targets) {
+    BitSet result = new BitSet(this.targets.size());
+    for (F target : targets) {
+      int id = this.getId(target);
+      if (id >= 0) {
+        result.set(id);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the target with the given id.
+   * 
+   * @param id
+   * @return
+   */
+  public F getTarget(int id) {
+    return this.targets.get(id);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void updateArchive(F target, T solution, double fitnessValue) {
+    super.updateArchive(target, solution, fitnessValue);
+    int id = this.getId(target);
+    assert id >= 0 : "Unknown goal: " + target;
+
+    if (fitnessValue > 0.0) {
+      // as this type of archive only cares about covered targets, it ignores all
+      // targets with a fitness value greater than 0.0
+      return;
+    }
+
+    if (!this.covered.get(id)) {
+      logger.debug("Solution for non-covered target '" + target + "'");
+      this.addToArchive(id, solution);
+    } else if (this.isBetterThanCurrent(this.getSolution(id), solution)) {
+      this.addToArchive(id, solution);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * The targets are mapped to their ids and applied with {@link #updateArchive(TestChromosome,
+   * BitSet)}.
+   */
+  @Override
+  public void updateArchive(Collection<? extends F> coveredTargets, T solution) {
+    if (coveredTargets.isEmpty()) {
+      return;
+    }
+    for (F target : coveredTargets) {
+      super.updateArchive(target, solution, 0.0);
+      assert this.getId(target) >= 0 : "Unknown goal: " + target;
+    }
+    this.updateArchive(solution, this.getIds(coveredTargets));
+  }
+
+  /**
+   * Updates the archive with a solution that covers all targets whose ids are set in
+   * {@code coveredTargets}. Targets not covered so far are added with set operations, and a
+   * solution already in the archive is compared with the candidate only once, no matter how many
+   * targets it covers.
+   * 
+   * @param solution
+   * @param coveredTargets ids of the targets covered by {@code solution}
+   */
+  public void updateArchive(T solution, BitSet coveredTargets) {
+    assert solution != null;
+    assert coveredTargets.length() <= this.targets.size();
+
+    BitSet newlyCovered = (BitSet) coveredTargets.clone();
+    newlyCovered.andNot(this.covered);
+
+    BitSet alreadyCovered = (BitSet) coveredTargets.clone();
+    alreadyCovered.and(this.covered);
+
+    for (int id = newlyCovered.nextSetBit(0); id >= 0; id = newlyCovered.nextSetBit(id + 1)) {
+      this.addToArchive(id, solution);
+    }
+
+    Map<T, Boolean> isBetter = new IdentityHashMap<T, Boolean>();
+    for (int id = alreadyCovered.nextSetBit(0); id >= 0; id = alreadyCovered.nextSetBit(id + 1)) {
+      T currentSolution = this.getSolution(id);
+      if (currentSolution == solution) {
+        continue;
+      }
+      Boolean better = isBetter.get(currentSolution);
+      if (better == null) {
+        better = this.isBetterThanCurrent(currentSolution, solution);
+        isBetter.put(currentSolution, better);
+      }
+      if (better) {
+        this.addToArchive(id, solution);
+      }
+    }
+  }
+
+  private void addToArchive(int id, T solution) {
+    F target = this.targets.get(id);
+    this.covered.set(id);
+    this.solutions[id] = solution;
+    this.removeNonCoveredTargetOfAMethod(target);
+    this.hasBeenUpdated = true;
+
+    ExecutionResult result = solution.getLastExecutionResult();
+    if (result != null && (result.hasTimeout() || result.hasTestException())) {
+      AtMostOnceLogger.warn(logger,
+          "A solution with a timeout/exception result has been added to the archive. The covered goal was "
+              + target.toString());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T getSolution(int id) {
+    return (T) this.solutions[id];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isArchiveEmpty() {
+    return this.covered.isEmpty();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumberOfTargets() {
+    return this.targets.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumberOfCoveredTargets() {
+    return this.covered.cardinality();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumberOfCoveredTargets(Class<?> targetClass) {
+    int count = 0;
+    for (int id = this.covered.nextSetBit(0); id >= 0; id = this.covered.nextSetBit(id + 1)) {
+      if (this.targets.get(id).getClass() == targetClass) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<F> getCoveredTargets() {
+    Set<F> result = new LinkedHashSet<F>();
+    for (int id = this.covered.nextSetBit(0); id >= 0; id = this.covered.nextSetBit(id + 1)) {
+      result.add(this.targets.get(id));
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumberOfUncoveredTargets() {
+    return this.targets.size() - this.covered.cardinality();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumberOfUncoveredTargets(Class<?> targetClass) {
+    int count = 0;
+    for (int id = this.covered.nextClearBit(0); id < this.targets.size(); id =
+        this.covered.nextClearBit(id + 1)) {
+      if (this.targets.get(id).getClass() == targetClass) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<F> getUncoveredTargets() {
+    Set<F> result = new LinkedHashSet<F>();
+    for (int id = this.covered.nextClearBit(0); id < this.targets.size(); id =
+        this.covered.nextClearBit(id + 1)) {
+      result.add(this.targets.get(id));
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasTarget(F target) {
+    assert target != null;
+    return this.getId(target) >= 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getNumberOfSolutions() {
+    return this.covered.cardinality();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Set<T> getSolutions() {
+    Set<T> result = new LinkedHashSet<T>();
+    for (int id = this.covered.nextSetBit(0); id >= 0; id = this.covered.nextSetBit(id + 1)) {
+      result.add(this.getSolution(id));
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public T getSolution() {
+    return this.getRandomSolution();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public T getSolution(F target) {
+    assert target != null;
+    int id = this.getId(target);
+    assert id >= 0 && this.covered.get(id);
+    return id < 0 ? null : this.getSolution(id);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasSolution(F target) {
+    assert target != null;
+    int id = this.getId(target);
+    return id >= 0 && this.covered.get(id);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public T getRandomSolution() {
+    T randomChoice = Randomness.choice(this.getSolutions());
+    if (randomChoice == null) {
+      return null;
+    }
+    return (T) randomChoice.clone();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Override
+  protected TestSuiteChromosome createMergedSolution(TestSuiteChromosome solution) {
+    // Deactivate in case a test is executed and would access the archive as this might cause a
+    // concurrent access
+    Properties.TEST_ARCHIVE = false;
+
+    TestSuiteChromosome mergedSolution = (TestSuiteChromosome) solution.clone();
+
+    // skip solutions that have been modified as those might not have been evaluated yet, or have
+    // timeout or throw some exception and therefore they may slow down future analysis on the final
+    // test suite
+    mergedSolution.getTestChromosomes()
+        .removeIf(t -> t.isChanged()
+            || (t.getLastExecutionResult() != null && (t.getLastExecutionResult().hasTimeout()
+                || t.getLastExecutionResult().hasTestException())));
+
+    // targets already covered by the tests of the suite, according to the goals recorded by each
+    // test case
+    BitSet coveredBySuite = new BitSet(this.targets.size());
+    for (TestChromosome test : mergedSolution.getTestChromosomes()) {
+      for (TestFitnessFunction goal : test.getTestCase().getCoveredGoals()) {
+        int id = this.getId((F) goal);
+        if (id >= 0) {
+          coveredBySuite.set(id);
+        }
+      }
+    }
+
+    BitSet missing = (BitSet) this.covered.clone();
+    missing.andNot(coveredBySuite);
+
+    // to avoid adding the same solution to 'mergedSolution' suite
+    Set<T> solutionsSampledFromArchive = new LinkedHashSet<T>();
+
+    for (int id = missing.nextSetBit(0); id >= 0; id = missing.nextSetBit(id + 1)) {
+      T chromosome = this.getSolution(id);
+      if (!solutionsSampledFromArchive.contains(chromosome)) {
+        solutionsSampledFromArchive.add(chromosome);
+        mergedSolution.addTest(chromosome);
+      }
+    }
+
+    // re-evaluate merged solution
+    for (FitnessFunction fitnessFunction : solution.getFitnessValues().keySet()) {
+      fitnessFunction.getFitness(mergedSolution);
+    }
+
+    // re-active it
+    Properties.TEST_ARCHIVE = true;
+
+    return mergedSolution;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void shrinkSolutions(int size) {
+    // NO-OP
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return "NumTargets: " + this.getNumberOfTargets() + ", NumCoveredTargets: "
+        + this.getNumberOfCoveredTargets() + ", NumSolutions: " + this.getNumberOfSolutions();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void reset() {
+    super.reset();
+    this.targets.clear();
+    this.ids.clear();
+    this.instanceIds.clear();
+    this.covered.clear();
+    Arrays.fill(this.solutions, null);
+  }
+}
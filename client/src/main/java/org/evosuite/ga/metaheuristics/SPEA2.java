@@ -25,14 +25,15 @@ import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.DominanceComparator;
 import org.evosuite.ga.comparators.StrengthFitnessComparator;
+import org.evosuite.ga.operators.ranking.ObjectiveMatrix;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -59,14 +60,11 @@ public class SPEA2<T extends Chromosome> extends GeneticAlgorithm<T> {
 
   private static final Logger logger = LoggerFactory.getLogger(SPEA2.class);
 
-  private DominanceComparator<T> comparator;
-
   // TODO should we use 'archive' from GeneticAlgorithm class?
   private List<T> archive = null;
 
   public SPEA2(ChromosomeFactory<T> factory) {
     super(factory);
-    this.comparator = new DominanceComparator<T>();
   }
 
   @SuppressWarnings("unchecked")
@@ -315,15 +313,24 @@ public class SPEA2<T extends Chromosome> extends GeneticAlgorithm<T> {
    * @param solutions
    */
   protected void computeStrength(List<T> solution) {
-    // count the number of individuals each solution dominates
+    ObjectiveMatrix<T> objectives = this.getObjectiveMatrix(solution);
+
+    // count the number of individuals each solution dominates, and remember
+    // which ones these are
     int[] strength = new int[solution.size()];
+    BitSet[] dominated = new BitSet[solution.size()];
+    for (int i = 0; i < solution.size(); i++) {
+      dominated[i] = new BitSet(solution.size());
+    }
     for (int i = 0; i < solution.size() - 1; i++) {
       for (int j = i + 1; j < solution.size(); j++) {
-        int comparison = this.comparator.compare(solution.get(i), solution.get(j));
+        int comparison = objectives.compare(i, j);
         if (comparison < 0) {
           strength[i]++;
+          dominated[i].set(j);
         } else if (comparison > 0) {
           strength[j]++;
+          dominated[j].set(i);
         }
       }
     }
@@ -331,14 +338,9 @@ public class SPEA2<T extends Chromosome> extends GeneticAlgorithm<T> {
     // the raw fitness is the sum of the dominance counts (strength)
     // of all dominated solutions
     double[] rawFitness = new double[solution.size()];
-    for (int i = 0; i < solution.size() - 1; i++) {
-      for (int j = i + 1; j < solution.size(); j++) {
-        int comparison = this.comparator.compare(solution.get(i), solution.get(j));
-        if (comparison > 0) {
-          rawFitness[i] += strength[j];
-        } else if (comparison < 0) {
-          rawFitness[j] += strength[i];
-        }
+    for (int i = 0; i < solution.size(); i++) {
+      for (int j = dominated[i].nextSetBit(0); j >= 0; j = dominated[i].nextSetBit(j + 1)) {
+        rawFitness[j] += strength[i];
       }
     }
 
@@ -346,7 +348,7 @@ public class SPEA2<T extends Chromosome> extends GeneticAlgorithm<T> {
     // k = sqrt(population.size()), but a value of k = 1 is recommended. See
     // http://www.tik.ee.ethz.ch/pisa/selectors/spea2/spea2_documentation.txt
 
-    double[][] distance = this.euclideanDistanceMatrix(solution);
+    double[][] distance = this.euclideanDistanceMatrix(objectives);
     int k = 1;
     for (int i = 0; i < distance.length; i++) {
       Arrays.sort(distance[i]);
@@ -357,6 +359,19 @@ public class SPEA2<T extends Chromosome> extends GeneticAlgorithm<T> {
     }
   }
 
+  /**
+   * Returns the fitness values of the given solutions for all objectives
+   * 
+   * @param solution
+   * @return
+   */
+  private ObjectiveMatrix<T> getObjectiveMatrix(List<T> solution) {
+    if (solution.isEmpty()) {
+      return new ObjectiveMatrix<T>(solution, Collections.<FitnessFunction<?>> emptySet());
+    }
+    return new ObjectiveMatrix<T>(solution, solution.get(0).getFitnessValues().keySet());
+  }
+
   /**
    * Returns a matrix with the euclidean distance between each pair of solutions in the population.
    * 
@@ -364,12 +379,21 @@ public class SPEA2<T extends Chromosome> extends GeneticAlgorithm<T> {
    * @return
    */
   protected double[][] euclideanDistanceMatrix(List<T> solution) {
-    double[][] distance = new double[solution.size()][solution.size()];
+    return this.euclideanDistanceMatrix(this.getObjectiveMatrix(solution));
+  }
 
-    for (int i = 0; i < solution.size(); i++) {
+  private double[][] euclideanDistanceMatrix(ObjectiveMatrix<T> objectives) {
+    double[][] distance = new double[objectives.size()][objectives.size()];
+
+    for (int i = 0; i < objectives.size(); i++) {
       distance[i][i] = 0.0;
-      for (int j = i + 1; j < solution.size(); j++) {
-        distance[i][j] = this.distanceBetweenObjectives(solution.get(i), solution.get(j));
+      for (int j = i + 1; j < objectives.size(); j++) {
+        double sum = 0.0;
+        for (int k = 0; k < objectives.getNumObjectives(); k++) {
+          double diff = objectives.getValue(i, k) - objectives.getValue(j, k);
+          sum += diff * diff;
+        }
+        distance[i][j] = Math.sqrt(sum);
         distance[j][i] = distance[i][j];
       }
     }
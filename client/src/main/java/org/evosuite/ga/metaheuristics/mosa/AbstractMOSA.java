@@ -39,9 +39,9 @@ import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.archive.Archive;
-import org.evosuite.ga.comparators.DominanceComparator;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.metaheuristics.SearchListener;
+import org.evosuite.ga.operators.ranking.ObjectiveMatrix;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
@@ -293,29 +293,8 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	 * @return the non-dominated set of test cases
 	 */
 	private List<T> getNonDominatedSolutions(List<T> solutions) {
-		DominanceComparator<T> comparator = new DominanceComparator<T>(this.getCoveredGoals());
-		List<T> next_front = new ArrayList<T>(solutions.size());
-		boolean isDominated;
-		for (T p : solutions) {
-			isDominated = false;
-			List<T> dominatedSolutions = new ArrayList<T>(solutions.size());
-			for (T best : next_front) {
-				int flag = comparator.compare(p, best);
-				if (flag == -1) {
-					dominatedSolutions.add(best);
-				}
-				if (flag == +1) {
-					isDominated = true;
-				}
-			}
-			if (isDominated) {
-				continue;
-			}
-
-			next_front.add(p);
-			next_front.removeAll(dominatedSolutions);
-		}
-		return next_front;
+		ObjectiveMatrix<T> objectives = new ObjectiveMatrix<T>(solutions, this.getCoveredGoals());
+		return objectives.getSolutions(objectives.getNonDominatedSolutions());
 	}
 
 	/** 
@@ -19,13 +19,13 @@ package org.evosuite.ga.operators.ranking;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.SortByFitness;
 
 /**
  * This class implements different variants of Crowding Distance for many-objective problems
@@ -57,31 +57,59 @@ public class CrowdingDistance<T extends Chromosome> implements Serializable {
 			return;
 		}
 
+		ObjectiveMatrix<T> objectives = new ObjectiveMatrix<T>(front, set);
+		double[] distances = new double[size];
+
+		// Each objective sorts the front, starting from the order of the
+		// previous objective, as a stable sort of the front list would
+		Integer[] order = new Integer[size];
 		for (int i = 0; i < size; i++)
-			front.get(i).setDistance(0.0);
+			order[i] = i;
 
 		double objetiveMaxn;
 		double objetiveMinn;
 		double distance;
 
-		for (final FitnessFunction<?> ff : set) {
+		for (int k = 0; k < objectives.getNumObjectives(); k++) {
 			// Sort the population by Fit n
-			Collections.sort(front, new SortByFitness(ff, false));
+			final int objective = k;
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer i, Integer j) {
+					double objetive1 = objectives.getValue(i, objective);
+					double objetive2 = objectives.getValue(j, objective);
+					if (objetive1 < objetive2)
+						return -1;
+					else if (objetive1 > objetive2)
+						return 1;
+					else
+						return 0;
+				}
+			});
 
-			objetiveMinn = front.get(0).getFitness(ff);
-			objetiveMaxn = front.get(front.size() - 1).getFitness(ff);
+			objetiveMinn = objectives.getValue(order[0], k);
+			objetiveMaxn = objectives.getValue(order[size - 1], k);
 
 			// set crowding distance
-			front.get(0).setDistance(Double.POSITIVE_INFINITY);
-			front.get(size - 1).setDistance(Double.POSITIVE_INFINITY);
+			distances[order[0]] = Double.POSITIVE_INFINITY;
+			distances[order[size - 1]] = Double.POSITIVE_INFINITY;
 
 			for (int j = 1; j < size - 1; j++) {
-				distance = front.get(j + 1).getFitness(ff) - front.get(j - 1).getFitness(ff);
+				distance = objectives.getValue(order[j + 1], k) - objectives.getValue(order[j - 1], k);
 				distance = distance / (objetiveMaxn - objetiveMinn);
-				distance += front.get(j).getDistance();
-				front.get(j).setDistance(distance);
+				distance += distances[order[j]];
+				distances[order[j]] = distance;
 			}
 		}
+
+		List<T> sorted = new ArrayList<T>(size);
+		for (int i = 0; i < size; i++) {
+			T solution = objectives.getSolution(order[i]);
+			solution.setDistance(distances[order[i]]);
+			sorted.add(solution);
+		}
+		for (int i = 0; i < size; i++)
+			front.set(i, sorted.get(i));
 	}
 
 	/**
@@ -101,28 +129,30 @@ public class CrowdingDistance<T extends Chromosome> implements Serializable {
 			return;
 		}
 
-		for (int i = 0; i < size; i++)
-			front.get(i).setDistance(Double.MAX_VALUE);
+		ObjectiveMatrix<T> objectives = new ObjectiveMatrix<T>(front, set);
+		double[] distances = new double[size];
+		Arrays.fill(distances, Double.MAX_VALUE);
 
 		int dominate1, dominate2;
-		for (int i = 0; i<front.size()-1; i++){
-			T p1 = front.get(i);
-			for (int j = i+1; j<front.size(); j++){
-				T p2 = front.get(j);
+		for (int i = 0; i<size-1; i++){
+			for (int j = i+1; j<size; j++){
 				dominate1 = 0;
 				dominate2 = 0;
-				for (final FitnessFunction<T> ff : set) {
-					double value1 = p1.getFitness(ff);
-					double value2 = p2.getFitness(ff);
+				for (int k = 0; k < objectives.getNumObjectives(); k++) {
+					double value1 = objectives.getValue(i, k);
+					double value2 = objectives.getValue(j, k);
 					if (value1 < value2)
 						dominate1++;
 					else if (value1 > value2)
 						dominate2++;
 				}
-				p1.setDistance(Math.min(dominate1, p1.getDistance()));
-				p2.setDistance(Math.min(dominate2, p2.getDistance()));
+				distances[i] = Math.min(dominate1, distances[i]);
+				distances[j] = Math.min(dominate2, distances[j]);
 			}
 		}
+
+		for (int i = 0; i < size; i++)
+			front.get(i).setDistance(distances[i]);
 	}
 
 	/**
@@ -136,23 +166,24 @@ public class CrowdingDistance<T extends Chromosome> implements Serializable {
 	 * @param set set of goals/targets (e.g., branches) to consider
 	 */
 	public void fastEpsilonDominanceAssignment(List<T> front, Set<FitnessFunction<T>> set) {
-		double value;
-		for (T test : front){
-			test.setDistance(0);
-		}
+		int size = front.size();
+		ObjectiveMatrix<T> objectives = new ObjectiveMatrix<T>(front, set);
+		double[] distances = new double[size];
+		int[] minSet = new int[size];
 
-		for (final FitnessFunction<T> ff : set) {
+		double value;
+		for (int k = 0; k < objectives.getNumObjectives(); k++) {
 			double min = Double.POSITIVE_INFINITY;
-			List<T> minSet = new ArrayList<T>(front.size());
+			int minSetSize = 0;
 			double max = 0;
-			for (T test : front){
-				value = test.getFitness(ff);
+			for (int i = 0; i < size; i++){
+				value = objectives.getValue(i, k);
 				if (value < min){
 					min = value;
-					minSet.clear();
-					minSet.add(test);
+					minSetSize = 0;
+					minSet[minSetSize++] = i;
 				} else if (value == min)
-					minSet.add(test);
+					minSet[minSetSize++] = i;
 				
 				if (value > max){
 					max = value;
@@ -162,12 +193,15 @@ public class CrowdingDistance<T extends Chromosome> implements Serializable {
 			if (max == min)
 				continue;
 			
-			for (T test : minSet){
-				double numer = (front.size() - minSet.size());
-				double demon = front.size();
-				test.setDistance(Math.max(test.getDistance(), numer/demon));
+			for (int m = 0; m < minSetSize; m++){
+				double numer = (size - minSetSize);
+				double demon = size;
+				distances[minSet[m]] = Math.max(distances[minSet[m]], numer/demon);
 			}
 		}
+
+		for (int i = 0; i < size; i++)
+			front.get(i).setDistance(distances[i]);
 	}
 
 }
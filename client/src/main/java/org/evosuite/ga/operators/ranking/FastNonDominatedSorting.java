@@ -18,16 +18,13 @@
 package org.evosuite.ga.operators.ranking;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.DominanceComparator;
 
 /**
  * This class ranks the test cases according to the 
@@ -69,85 +66,19 @@ public class FastNonDominatedSorting<T extends Chromosome> implements RankingFun
 	@SuppressWarnings("unchecked")
 	private List<T>[] getNextNonDominatedFronts(List<T> solutionSet, Set<FitnessFunction<T>> uncovered_goals) {
 
-		DominanceComparator<T> criterion_ = new DominanceComparator<T>(uncovered_goals);
-		List<T> solutionSet_ = solutionSet;
-
-		// dominateMe[i] contains the number of solutions dominating i
-		int[] dominateMe = new int[solutionSet_.size()];
-
-		// iDominate[k] contains the list of solutions dominated by k
-		List<Integer>[] iDominate = new List[solutionSet_.size()];
-
-		// front[i] contains the list of individuals belonging to the front i
-		List<Integer>[] front = new List[solutionSet_.size() + 1];
-
-		// flagDominate is an auxiliary encodings.variable
-		int flagDominate;
-
-		// Initialize the fronts
-		for (int i = 0; i < front.length; i++)
-			front[i] = new LinkedList<Integer>();
-
 		// Initialize distance
-		for (int p = 0; p < (solutionSet_.size()); p++) {
+		for (int p = 0; p < (solutionSet.size()); p++) {
 			solutionSet.get(p).setDistance(Double.MAX_VALUE);
 		}
 
-		// -> Fast non dominated sorting algorithm
-		for (int p = 0; p < solutionSet_.size(); p++) {
-			// Initialize the list of individuals that i dominate and the number
-			// of individuals that dominate me
-			iDominate[p] = new LinkedList<Integer>();
-			dominateMe[p] = 0;
-		}
-
-		for (int p = 0; p < (solutionSet_.size() - 1); p++) {
-			// For all q individuals , calculate if p dominates q or vice versa
-			for (int q = p + 1; q < solutionSet_.size(); q++) {
-				flagDominate = criterion_.compare(solutionSet.get(p), solutionSet.get(q));
-
-				if (flagDominate == -1) {
-					iDominate[p].add(q);
-					dominateMe[q]++;
-				} else if (flagDominate == 1) {
-					iDominate[q].add(p);
-					dominateMe[p]++;
-				}
-			}
-			// If nobody dominates p, p belongs to the first front
-		}
-		for (int p = 0; p < solutionSet_.size(); p++) {
-			if (dominateMe[p] == 0) {
-				front[0].add(p);
-				solutionSet.get(p).setRank(1);
-			}
-		}
+		ObjectiveMatrix<T> objectives = new ObjectiveMatrix<T>(solutionSet, uncovered_goals);
+		List<int[]> front = objectives.getNonDominatedFronts();
 
-		// Obtain the rest of fronts
-		int i = 0;
-		Iterator<Integer> it1, it2; // Iterators
-		while (front[i].size() != 0) {
-			i++;
-			it1 = front[i - 1].iterator();
-			while (it1.hasNext()) {
-				it2 = iDominate[it1.next()].iterator();
-				while (it2.hasNext()) {
-					int index = it2.next();
-					dominateMe[index]--;
-					if (dominateMe[index] == 0) {
-						front[i].add(index);
-						solutionSet_.get(index).setRank(i+1);
-					}
-				}
-			}
-		}
-		List<T>[] fronts = new ArrayList[i];
-		// 0,1,2,....,i-1 are front, then i fronts
-		for (int j = 0; j < i; j++) {
-			fronts[j] = new ArrayList<T>();
-			it1 = front[j].iterator();
-			while (it1.hasNext()) {
-				fronts[j].add(solutionSet.get(it1.next()));
+		List<T>[] fronts = new ArrayList[front.size()];
+		for (int j = 0; j < front.size(); j++) {
+			fronts[j] = objectives.getSolutions(front.get(j));
+			for (T solution : fronts[j]) {
+				solution.setRank(j + 1);
 			}
 		}
 		return fronts;
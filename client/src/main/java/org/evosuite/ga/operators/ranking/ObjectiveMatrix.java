@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+
+/**
+ * The fitness values of a list of solutions for a fixed list of objectives,
+ * stored as a primitive matrix such that ranking and distance assignment do
+ * not need to look up fitness values in the maps of the chromosomes.
+ * 
+ * Dominance follows the same rules as
+ * {@link org.evosuite.ga.comparators.DominanceComparator}.
+ */
+public class ObjectiveMatrix<T extends Chromosome> {
+
+	private final List<T> solutions;
+
+	/** values[i][k] is the fitness of solution i for objective k */
+	private final double[][] values;
+
+	private final int numObjectives;
+
+	/**
+	 * Read the fitness values of all solutions for the given objectives
+	 * 
+	 * @param solutions
+	 *            a list of solutions
+	 * @param objectives
+	 *            the objectives (e.g., uncovered goals) to consider
+	 */
+	public ObjectiveMatrix(List<T> solutions, Collection<? extends FitnessFunction<?>> objectives) {
+		this.solutions = solutions;
+		this.numObjectives = objectives.size();
+		this.values = new double[solutions.size()][numObjectives];
+		for (int i = 0; i < solutions.size(); i++) {
+			T solution = solutions.get(i);
+			double[] row = values[i];
+			int k = 0;
+			for (FitnessFunction<?> ff : objectives) {
+				row[k++] = solution.getFitness(ff);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of solutions
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * @return the number of objectives
+	 */
+	public int getNumObjectives() {
+		return numObjectives;
+	}
+
+	/**
+	 * @param i
+	 *            index of a solution
+	 * @return the solution at the given index
+	 */
+	public T getSolution(int i) {
+		return solutions.get(i);
+	}
+
+	/**
+	 * @param i
+	 *            index of a solution
+	 * @param k
+	 *            index of an objective
+	 * @return the fitness value of solution i for objective k
+	 */
+	public double getValue(int i, int k) {
+		return values[i][k];
+	}
+
+	/**
+	 * Compares two solutions in terms of dominance
+	 * 
+	 * @param i
+	 *            index of a solution
+	 * @param j
+	 *            index of a solution
+	 * @return -1 if i dominates j, +1 if j dominates i, 0 if both are
+	 *         non-dominated
+	 */
+	public int compare(int i, int j) {
+		double[] row1 = values[i];
+		double[] row2 = values[j];
+		boolean dominate1 = false;
+		boolean dominate2 = false;
+
+		for (int k = 0; k < numObjectives; k++) {
+			int flag = Double.compare(row1[k], row2[k]);
+			if (flag < 0) {
+				if (dominate2)
+					return 0;
+				dominate1 = true;
+			} else if (flag > 0) {
+				if (dominate1)
+					return 0;
+				dominate2 = true;
+			}
+		}
+
+		if (dominate1 == dominate2)
+			return 0;
+		return dominate1 ? -1 : 1;
+	}
+
+	/**
+	 * Sorts the solutions into fronts of non-dominated solutions, following
+	 * the sequential search strategy of the Efficient Non-domination Level
+	 * Update (ENS-SS) approach by Zhang et al.: after sorting the solutions
+	 * lexicographically, a solution can only be dominated by solutions before
+	 * it, and it belongs to the first front none of whose members dominates
+	 * it.
+	 * 
+	 * @return the indices of the solutions of each front, in ascending order
+	 */
+	public List<int[]> getNonDominatedFronts() {
+		Integer[] order = getLexicographicOrder();
+
+		List<int[]> fronts = new ArrayList<int[]>();
+		List<Integer> sizes = new ArrayList<Integer>();
+		for (int s : order) {
+			int front = 0;
+			while (front < fronts.size() && isDominatedByFront(s, fronts.get(front), sizes.get(front)))
+				front++;
+
+			if (front == fronts.size()) {
+				fronts.add(new int[4]);
+				sizes.add(0);
+			}
+			int[] members = fronts.get(front);
+			int size = sizes.get(front);
+			if (size == members.length) {
+				members = Arrays.copyOf(members, 2 * size);
+				fronts.set(front, members);
+			}
+			members[size] = s;
+			sizes.set(front, size + 1);
+		}
+
+		for (int front = 0; front < fronts.size(); front++) {
+			int[] members = Arrays.copyOf(fronts.get(front), sizes.get(front));
+			Arrays.sort(members);
+			fronts.set(front, members);
+		}
+		return fronts;
+	}
+
+	/**
+	 * The solutions that are not dominated by any other solution, i.e., the
+	 * first front of {@link #getNonDominatedFronts()}
+	 * 
+	 * @return the indices of the non-dominated solutions, in ascending order
+	 */
+	public int[] getNonDominatedSolutions() {
+		Integer[] order = getLexicographicOrder();
+		int[] members = new int[order.length];
+		int size = 0;
+		for (int s : order) {
+			if (!isDominatedByFront(s, members, size))
+				members[size++] = s;
+		}
+		members = Arrays.copyOf(members, size);
+		Arrays.sort(members);
+		return members;
+	}
+
+	/**
+	 * If solution i dominates solution j, then i comes before j in this order
+	 */
+	private Integer[] getLexicographicOrder() {
+		Integer[] order = new Integer[values.length];
+		for (int i = 0; i < values.length; i++)
+			order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				double[] row1 = values[i];
+				double[] row2 = values[j];
+				for (int k = 0; k < numObjectives; k++) {
+					int flag = Double.compare(row1[k], row2[k]);
+					if (flag != 0)
+						return flag;
+				}
+				return Integer.compare(i, j);
+			}
+		});
+		return order;
+	}
+
+	/**
+	 * Solutions that were added last are the most similar ones in the
+	 * lexicographic order, and thus the most likely to dominate s
+	 */
+	private boolean isDominatedByFront(int s, int[] members, int size) {
+		for (int m = size - 1; m >= 0; m--) {
+			if (compare(members[m], s) < 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param indices
+	 *            indices of solutions
+	 * @return the solutions at the given indices
+	 */
+	public List<T> getSolutions(int[] indices) {
+		List<T> result = new ArrayList<T>(indices.length);
+		for (int i : indices)
+			result.add(solutions.get(i));
+		return result;
+	}
+}
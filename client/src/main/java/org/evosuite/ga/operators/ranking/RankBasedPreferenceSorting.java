@@ -25,7 +25,6 @@ import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.comparators.DominanceComparator;
 import org.evosuite.ga.comparators.PreferenceSortingComparator;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
@@ -69,15 +68,19 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 
 		if (zero_front.size() < Properties.POPULATION) {
 			int rankedSolutions = zero_front.size();
-			DominanceComparator<T> comparator =  new DominanceComparator<T>(uncovered_goals);
-
 			List<T> remaining = new ArrayList<T>(solutions.size());
 			remaining.addAll(solutions);
 			remaining.removeAll(zero_front);
-			while(rankedSolutions < Properties.POPULATION && remaining.size() > 0) {
-				List<T> new_front = this.getNonDominatedSolutions(remaining, comparator, frontIndex);
+
+			ObjectiveMatrix<T> objectives = new ObjectiveMatrix<T>(remaining, uncovered_goals);
+			for (int[] front : objectives.getNonDominatedFronts()) {
+				if (rankedSolutions >= Properties.POPULATION)
+					break;
+				List<T> new_front = objectives.getSolutions(front);
+				for (T t : new_front) {
+					t.setRank(frontIndex);
+				}
 				this.fronts.add(new_front);
-				remaining.removeAll(new_front);
 				rankedSolutions += new_front.size();
 				frontIndex++;
 			}
@@ -115,32 +118,6 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 		return new ArrayList<T>(zero_front);
 	}
 
-	private List<T> getNonDominatedSolutions(List<T> solutions, DominanceComparator<T> comparator, int frontIndex) {
-		List<T> front = new ArrayList<T>(solutions.size());
-		for (T p : solutions) {
-			boolean isDominated = false;
-			List<T> dominatedSolutions = new ArrayList<T>(solutions.size());
-			for (T best : front) {
-				int flag = comparator.compare(p, best);
-				if (flag == -1) {
-					dominatedSolutions.add(best);
-				}
-				if (flag == +1) {
-					isDominated = true;
-					break;
-				}
-			}
-			if (isDominated) {
-				continue;
-			}
-
-			p.setRank(frontIndex);
-			front.add(p);
-			front.removeAll(dominatedSolutions);
-		}
-		return front;
-	}
-
 	/**
 	 * {@inheritDoc}
 	 */
@@ -25,6 +25,7 @@ import java.util.Map;
 import org.evosuite.Properties;
 import org.evosuite.graphs.ccfg.ClassControlFlowGraph;
 import org.evosuite.graphs.ccg.ClassCallGraph;
+import org.evosuite.graphs.cdg.ControlDependenceCache;
 import org.evosuite.graphs.cdg.ControlDependenceGraph;
 import org.evosuite.graphs.cfg.ActualControlFlowGraph;
 import org.evosuite.graphs.cfg.RawControlFlowGraph;
@@ -248,7 +249,7 @@ public class GraphPool {
 
 	private void createAndRegisterControlDependence(ActualControlFlowGraph cfg) {
 
-		ControlDependenceGraph cd = new ControlDependenceGraph(cfg);
+		ControlDependenceGraph cd = ControlDependenceCache.getInstance().createControlDependenceGraph(cfg);
 
 		String className = cd.getClassName();
 		String methodName = cd.getMethodName();
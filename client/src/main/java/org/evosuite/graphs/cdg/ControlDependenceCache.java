@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs.cdg;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.instrumentation.InstrumentedClassCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk snapshots of the control dependencies of analyzed classes, stored
+ * in {@link Properties#INSTRUMENTATION_CACHE_DIR} and shared by all runs
+ * (and thus all clients) that analyze the same bytecode with the same
+ * settings.
+ * 
+ * The control flow graphs themselves and the branches are registered by the
+ * instrumentation as usual, as their identities end up in the instrumented
+ * bytecode. Only the computation of the control dependence graphs, which
+ * requires a dominator tree on the reverse control flow graph of every
+ * method, is replaced by replaying the dependencies of the snapshot.
+ */
+public class ControlDependenceCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(ControlDependenceCache.class);
+
+	private static final int FILE_FORMAT_VERSION = 1;
+
+	private static final String DIRECTORY = "cdg";
+
+	private static ControlDependenceCache instance = null;
+
+	/**
+	 * The classes currently being instrumented. Instrumenting a class may
+	 * trigger the loading of other classes, thus there can be more than one.
+	 */
+	private final Map<String, ClassSnapshot> classes = new HashMap<>();
+
+	private int numberOfHits = 0;
+
+	private int numberOfMisses = 0;
+
+	private static class ClassSnapshot {
+
+		private final String key;
+
+		private final Map<String, int[]> loaded;
+
+		private final Map<String, int[]> computed = new LinkedHashMap<>();
+
+		private ClassSnapshot(String key, Map<String, int[]> loaded) {
+			this.key = key;
+			this.loaded = loaded;
+		}
+	}
+
+	private ControlDependenceCache() {
+	}
+
+	public static synchronized ControlDependenceCache getInstance() {
+		if (instance == null)
+			instance = new ControlDependenceCache();
+		return instance;
+	}
+
+	public int getNumberOfHits() {
+		return numberOfHits;
+	}
+
+	public int getNumberOfMisses() {
+		return numberOfMisses;
+	}
+
+	/**
+	 * Called by the instrumentation before the control flow of the given
+	 * class is analyzed
+	 * 
+	 * @param className
+	 *            name of the class with dots
+	 * @param originalBytes
+	 *            the bytecode of the class as read from the class path
+	 */
+	public synchronized void startClass(String className, byte[] originalBytes) {
+		if (!InstrumentedClassCache.getInstance().isEnabled())
+			return;
+
+		String key = InstrumentedClassCache.getInstance().getAnalysisKey(className, originalBytes);
+		classes.put(className, new ClassSnapshot(key, read(getFile(key))));
+	}
+
+	/**
+	 * Called by the instrumentation once the given class is transformed.
+	 * Writes a new snapshot if any control dependencies had to be computed.
+	 * 
+	 * @param className
+	 *            name of the class with dots
+	 */
+	public synchronized void finishClass(String className) {
+		ClassSnapshot snapshot = classes.remove(className);
+		if (snapshot == null || snapshot.computed.isEmpty())
+			return;
+
+		Map<String, int[]> methods = new LinkedHashMap<>(snapshot.loaded);
+		methods.putAll(snapshot.computed);
+		write(getFile(snapshot.key), methods);
+	}
+
+	/**
+	 * Creates the control dependence graph of the given CFG, using the
+	 * snapshot of its class if there is one
+	 * 
+	 * @param cfg
+	 *            a {@link org.evosuite.graphs.cfg.ActualControlFlowGraph}
+	 *            object.
+	 * @return a {@link org.evosuite.graphs.cdg.ControlDependenceGraph} object.
+	 */
+	public synchronized ControlDependenceGraph createControlDependenceGraph(ActualControlFlowGraph cfg) {
+		ClassSnapshot snapshot = classes.get(cfg.getClassName());
+		if (snapshot == null)
+			return new ControlDependenceGraph(cfg);
+
+		int[] dependencies = snapshot.loaded.get(cfg.getMethodName());
+		if (dependencies != null) {
+			numberOfHits++;
+			return new ControlDependenceGraph(cfg, dependencies);
+		}
+
+		numberOfMisses++;
+		ControlDependenceGraph cdg = new ControlDependenceGraph(cfg);
+		int[] computed = cdg.getSnapshot();
+		if (computed != null)
+			snapshot.computed.put(cfg.getMethodName(), computed);
+		return cdg;
+	}
+
+	private File getFile(String key) {
+		return new File(new File(new File(Properties.INSTRUMENTATION_CACHE_DIR, DIRECTORY), key.substring(0, 2)),
+				key);
+	}
+
+	private static Map<String, int[]> read(File file) {
+		Map<String, int[]> methods = new HashMap<>();
+		if (!file.exists())
+			return methods;
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != FILE_FORMAT_VERSION)
+				return methods;
+
+			int numMethods = buffer.getInt();
+			for (int i = 0; i < numMethods; i++) {
+				byte[] name = new byte[buffer.getInt()];
+				buffer.get(name);
+				int[] dependencies = new int[buffer.getInt()];
+				buffer.asIntBuffer().get(dependencies);
+				buffer.position(buffer.position() + 4 * dependencies.length);
+				methods.put(new String(name, StandardCharsets.UTF_8), dependencies);
+			}
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException
+				| NegativeArraySizeException e) {
+			logger.debug("Could not read control dependencies from {}: {}", file, e.getMessage());
+			methods.clear();
+		}
+		return methods;
+	}
+
+	private static void write(File file, Map<String, int[]> methods) {
+		File tmp = null;
+		try {
+			File directory = file.getParentFile();
+			if (!directory.exists() && !directory.mkdirs() && !directory.exists())
+				throw new IOException("Cannot create directory " + directory);
+			tmp = File.createTempFile(file.getName(), ".tmp", directory);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(FILE_FORMAT_VERSION);
+				out.writeInt(methods.size());
+				for (Map.Entry<String, int[]> entry : methods.entrySet()) {
+					byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+					out.writeInt(name.length);
+					out.write(name);
+					out.writeInt(entry.getValue().length);
+					for (int value : entry.getValue())
+						out.writeInt(value);
+				}
+			}
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			logger.debug("Could not store control dependencies in {}: {}", file, e.getMessage());
+			if (tmp != null)
+				tmp.delete();
+		}
+	}
+}
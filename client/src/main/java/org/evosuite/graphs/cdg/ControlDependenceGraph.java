@@ -19,8 +19,12 @@
  */
 package org.evosuite.graphs.cdg;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.evosuite.coverage.branch.Branch;
@@ -41,6 +45,20 @@ public class ControlDependenceGraph extends EvoSuiteGraph<BasicBlock, ControlFlo
 	private final String className;
 	private final String methodName;
 
+	private static final int ENTRY_KEY = -1;
+
+	private static final int EXIT_KEY = -2;
+
+	private static final int NO_EDGE_KEY = Integer.MIN_VALUE;
+
+	/**
+	 * The computed control dependencies in insertion order, as triples of
+	 * (dependency, dependent block, target of the originating CFG edge) keys
+	 */
+	private final List<Integer> snapshot = new ArrayList<>();
+
+	private boolean snapshotAvailable = true;
+
 	/**
 	 * <p>Constructor for ControlDependenceGraph.</p>
 	 *
@@ -57,6 +75,49 @@ public class ControlDependenceGraph extends EvoSuiteGraph<BasicBlock, ControlFlo
 		// TODO check sanity
 	}
 
+	/**
+	 * Creates the CDG of the given CFG by replaying control dependencies that
+	 * were previously computed for the very same method (see
+	 * {@link #getSnapshot()}), which avoids the computation of the dominator
+	 * tree. If the snapshot does not fit the CFG, the control dependencies are
+	 * computed as usual.
+	 *
+	 * @param cfg a {@link org.evosuite.graphs.cfg.ActualControlFlowGraph} object.
+	 * @param snapshot the control dependencies as returned by {@link #getSnapshot()}
+	 */
+	ControlDependenceGraph(ActualControlFlowGraph cfg, int[] snapshot) {
+		super(ControlFlowEdge.class);
+
+		this.cfg = cfg;
+		this.className = cfg.getClassName();
+		this.methodName = cfg.getMethodName();
+
+		createGraphNodes();
+		if (!replayControlDependence(snapshot)) {
+			logger.debug("Snapshot of control dependencies does not match CFG of " + methodName);
+			graph.removeAllEdges(new ArrayList<>(graph.edgeSet()));
+			this.snapshot.clear();
+			computeControlDependence();
+		}
+	}
+
+	/**
+	 * Returns the control dependencies of this graph in a form that allows to
+	 * recreate the graph from the CFG of the same method without computing
+	 * dominance frontiers again.
+	 *
+	 * @return an array of block keys, or null if the blocks of the CFG cannot
+	 *         be identified reliably
+	 */
+	int[] getSnapshot() {
+		if (!snapshotAvailable)
+			return null;
+		int[] result = new int[snapshot.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = snapshot.get(i);
+		return result;
+	}
+
 	/**
 	 * Convenience method redirecting to getControlDependentBranches(BasicBlock)
 	 * if the given instruction is known to this CDG. Otherwise an
@@ -553,12 +614,72 @@ public class ControlDependenceGraph extends EvoSuiteGraph<BasicBlock, ControlFlo
 					if (!addEdge(cd, b, new ControlFlowEdge(orig)))
 						throw new IllegalStateException(
 						        "internal error while adding CD edge");
+					recordControlDependence(cd, b, orig);
 
 					logger.debug("  " + cd.getName());
 				}
 			}
 	}
 
+	private boolean replayControlDependence(int[] dependencies) {
+		if (dependencies.length % 3 != 0)
+			return false;
+
+		Map<Integer, BasicBlock> blocks = new HashMap<>();
+		for (BasicBlock b : cfg.vertexSet()) {
+			int key = getKey(b);
+			if (key == NO_EDGE_KEY || blocks.put(key, b) != null)
+				return false;
+		}
+
+		for (int i = 0; i < dependencies.length; i += 3) {
+			BasicBlock cd = blocks.get(dependencies[i]);
+			BasicBlock b = blocks.get(dependencies[i + 1]);
+			if (cd == null || b == null || !containsVertex(cd) || !containsVertex(b))
+				return false;
+
+			ControlFlowEdge orig = null;
+			if (dependencies[i + 2] != NO_EDGE_KEY) {
+				BasicBlock origTarget = blocks.get(dependencies[i + 2]);
+				if (origTarget == null)
+					return false;
+				orig = cfg.getEdge(cd, origTarget);
+				if (orig == null)
+					return false;
+			}
+
+			if (!addEdge(cd, b, new ControlFlowEdge(orig)))
+				return false;
+			snapshot.add(dependencies[i]);
+			snapshot.add(dependencies[i + 1]);
+			snapshot.add(dependencies[i + 2]);
+		}
+		return true;
+	}
+
+	private void recordControlDependence(BasicBlock cd, BasicBlock b, ControlFlowEdge orig) {
+		int cdKey = getKey(cd);
+		int bKey = getKey(b);
+		int origKey = orig == null ? NO_EDGE_KEY : getKey(cfg.getEdgeTarget(orig));
+		if (cdKey == NO_EDGE_KEY || bKey == NO_EDGE_KEY
+		        || (orig != null && origKey == NO_EDGE_KEY))
+			snapshotAvailable = false;
+		snapshot.add(cdKey);
+		snapshot.add(bKey);
+		snapshot.add(origKey);
+	}
+
+	private static int getKey(BasicBlock block) {
+		if (block.isEntryBlock())
+			return ENTRY_KEY;
+		if (block.isExitBlock())
+			return EXIT_KEY;
+		BytecodeInstruction first = block.getFirstInstruction();
+		if (first == null)
+			return NO_EDGE_KEY;
+		return first.getInstructionId();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public String getName() {
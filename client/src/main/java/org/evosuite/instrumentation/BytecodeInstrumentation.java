@@ -26,6 +26,7 @@ import org.evosuite.PackageInfo;
 import org.evosuite.Properties;
 import org.evosuite.assertion.CheapPurityAnalyzer;
 import org.evosuite.classpath.ResourceList;
+import org.evosuite.graphs.cdg.ControlDependenceCache;
 import org.evosuite.graphs.cfg.CFGClassAdapter;
 import org.evosuite.instrumentation.error.ErrorConditionClassAdapter;
 import org.evosuite.instrumentation.testability.BooleanTestabilityTransformation;
@@ -193,6 +194,7 @@ public class BytecodeInstrumentation {
 		// Apply transformations to class under test and its owned classes
 		if (DependencyAnalysis.shouldAnalyze(classNameWithDots)) {
 			logger.debug("Applying target transformation to class " + classNameWithDots);
+			ControlDependenceCache.getInstance().startClass(classNameWithDots, reader.b);
 			if (!Properties.TEST_CARVING && Properties.MAKE_ACCESSIBLE) {
 				cv = new AccessibleClassAdapter(cv, className);
 			}
@@ -249,10 +251,7 @@ public class BytecodeInstrumentation {
 		}
 
 		// Testability Transformations
-		if (classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
-				|| (!Properties.TARGET_CLASS_PREFIX.isEmpty()
-						&& classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
-				|| shouldTransform(classNameWithDots)) {
+		if (isTestabilityTransformationScope(classNameWithDots)) {
 
 			ClassNode cn = new AnnotatedClassNode();
 			reader.accept(cn, readFlags);
@@ -287,6 +286,7 @@ public class BytecodeInstrumentation {
 			cn.accept(cv);
 
 			if (Properties.TEST_CARVING && TransformerUtil.isClassConsideredForInstrumentation(className)) {
+				ControlDependenceCache.getInstance().finishClass(classNameWithDots);
 				return handleCarving(className, writer);
 			}
 
@@ -294,9 +294,40 @@ public class BytecodeInstrumentation {
 			reader.accept(cv, readFlags);
 		}
 
+		ControlDependenceCache.getInstance().finishClass(classNameWithDots);
 		return writer.toByteArray();
 	}
 
+	private boolean isTestabilityTransformationScope(String classNameWithDots) {
+		return classNameWithDots.startsWith(Properties.PROJECT_PREFIX)
+				|| (!Properties.TARGET_CLASS_PREFIX.isEmpty()
+						&& classNameWithDots.startsWith(Properties.TARGET_CLASS_PREFIX))
+				|| shouldTransform(classNameWithDots);
+	}
+
+	/**
+	 * Check if the transformation of the given class only depends on its
+	 * bytecode and on the instrumentation properties, such that the result
+	 * can be taken from the {@link InstrumentedClassCache}. This is not the
+	 * case for classes that are analyzed (their CFGs and branches are
+	 * registered while transforming them) and for classes in the scope of
+	 * testability transformations.
+	 *
+	 * @param className
+	 *            a {@link java.lang.String} object.
+	 * @return a boolean.
+	 */
+	public boolean isCacheable(String className) {
+		String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
+		if (DependencyAnalysis.shouldAnalyze(classNameWithDots))
+			return false;
+
+		if (Properties.TT && classNameWithDots.startsWith(Properties.CLASS_PREFIX))
+			return false;
+
+		return !isTestabilityTransformationScope(classNameWithDots);
+	}
+
 	private byte[] handleCarving(String className, ClassWriter writer) {
 		ClassReader cr = new ClassReader(writer.toByteArray());
 		ClassNode cn2 = new ClassNode();
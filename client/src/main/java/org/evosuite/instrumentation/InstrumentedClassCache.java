@@ -0,0 +1,534 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.assertion.CheapPurityAnalyzer;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
+import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.evosuite.seeding.PrimitiveClassAdapter;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of instrumented bytecode, shared by all runs that use the
+ * same {@link Properties#INSTRUMENTATION_CACHE_DIR}.
+ * 
+ * Entries are addressed by a hash of the original bytecode of a class, of the
+ * properties that influence the instrumentation, of the EvoSuite binaries and
+ * of the class path (as frames are computed on the class hierarchy). Only
+ * classes for which {@link BytecodeInstrumentation#isCacheable(String)} holds
+ * are cached, ie, classes whose transformation does not register CFGs or
+ * branches. What the transformation of such classes collects besides the
+ * bytecode (constants for the value pool, purity information, final classes
+ * and modified static fields) is collected again from the bytecode when an
+ * entry is used, and the indices of the loop counters are relocated.
+ */
+public class InstrumentedClassCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(InstrumentedClassCache.class);
+
+	private static final int FILE_FORMAT_VERSION = 1;
+
+	private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+	private static final String EXECUTION_TRACER = Type.getInternalName(ExecutionTracer.class);
+
+	private static InstrumentedClassCache instance = null;
+
+	private String codeFingerprint = null;
+
+	private String classPath = null;
+
+	private String classPathFingerprint = null;
+
+	private int numberOfHits = 0;
+
+	private int numberOfMisses = 0;
+
+	private InstrumentedClassCache() {
+	}
+
+	public static synchronized InstrumentedClassCache getInstance() {
+		if (instance == null)
+			instance = new InstrumentedClassCache();
+		return instance;
+	}
+
+	/**
+	 * Whether a cache directory is configured
+	 * 
+	 * @return a boolean.
+	 */
+	public boolean isEnabled() {
+		return Properties.INSTRUMENTATION_CACHE_DIR != null && !Properties.INSTRUMENTATION_CACHE_DIR.isEmpty();
+	}
+
+	public int getNumberOfHits() {
+		return numberOfHits;
+	}
+
+	public int getNumberOfMisses() {
+		return numberOfMisses;
+	}
+
+	/**
+	 * Look up the instrumented bytecode of the given class. If found, all
+	 * information the instrumentation would have collected is registered as
+	 * well.
+	 * 
+	 * @param className
+	 *            name of the class in resource format (ie, with slashes)
+	 * @param originalBytes
+	 *            the bytecode of the class as read from the class path
+	 * @return the instrumented bytecode, or <code>null</code> if not cached
+	 */
+	public synchronized byte[] get(String className, byte[] originalBytes) {
+		File file = getFile(getKey(className, originalBytes));
+		if (!file.exists()) {
+			numberOfMisses++;
+			return null;
+		}
+
+		byte[] transformedBytes;
+		int minLoopIndex;
+		int maxLoopIndex;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FILE_FORMAT_VERSION) {
+				numberOfMisses++;
+				return null;
+			}
+			minLoopIndex = in.readInt();
+			maxLoopIndex = in.readInt();
+			transformedBytes = new byte[in.readInt()];
+			in.readFully(transformedBytes);
+		} catch (IOException e) {
+			logger.debug("Could not read cached bytecode of {} from {}: {}", className, file, e.getMessage());
+			numberOfMisses++;
+			return null;
+		}
+
+		if (minLoopIndex <= maxLoopIndex) {
+			transformedBytes = relocateLoopIndices(transformedBytes, minLoopIndex, maxLoopIndex);
+		}
+		collectInstrumentationInfo(className, originalBytes, transformedBytes);
+		numberOfHits++;
+		logger.debug("Using cached instrumentation of {}", className);
+		return transformedBytes;
+	}
+
+	/**
+	 * Store the instrumented bytecode of the given class. Entries are written
+	 * to a temporary file first, so that concurrent runs never see partial
+	 * entries.
+	 * 
+	 * @param className
+	 *            name of the class in resource format (ie, with slashes)
+	 * @param originalBytes
+	 *            the bytecode of the class as read from the class path
+	 * @param transformedBytes
+	 *            the result of the instrumentation
+	 */
+	public synchronized void put(String className, byte[] originalBytes, byte[] transformedBytes) {
+		File file = getFile(getKey(className, originalBytes));
+		if (file.exists())
+			return;
+
+		LoopIndexVisitor loopIndices = new LoopIndexVisitor(null, 0);
+		new ClassReader(transformedBytes).accept(new MethodAdapter(null, loopIndices), ClassReader.SKIP_FRAMES);
+
+		File tmp = null;
+		try {
+			File directory = file.getParentFile();
+			if (!directory.exists() && !directory.mkdirs() && !directory.exists())
+				throw new IOException("Cannot create directory " + directory);
+			tmp = File.createTempFile(file.getName(), ".tmp", directory);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(FILE_FORMAT_VERSION);
+				out.writeInt(loopIndices.minIndex);
+				out.writeInt(loopIndices.maxIndex);
+				out.writeInt(transformedBytes.length);
+				out.write(transformedBytes);
+			}
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			logger.debug("Could not cache bytecode of {} in {}: {}", className, file, e.getMessage());
+			if (tmp != null)
+				tmp.delete();
+		}
+	}
+
+	private File getFile(String key) {
+		return new File(new File(Properties.INSTRUMENTATION_CACHE_DIR, key.substring(0, 2)), key);
+	}
+
+	private String getKey(String className, byte[] originalBytes) {
+		String context = FILE_FORMAT_VERSION + "|" + className + "|" + getInstrumentationSettings() + "|"
+				+ getCodeFingerprint() + "|" + getClassPathFingerprint();
+		return hash(context, originalBytes);
+	}
+
+	/**
+	 * Key for results of the analysis of a class that depend on the bytecode
+	 * of the class as seen by the {@link BytecodeInstrumentation}, but not on
+	 * the class path (eg, its control flow graphs)
+	 * 
+	 * @param className
+	 *            name of the class
+	 * @param originalBytes
+	 *            the bytecode of the class as read from the class path
+	 * @return a hex encoded hash
+	 */
+	public synchronized String getAnalysisKey(String className, byte[] originalBytes) {
+		String context = FILE_FORMAT_VERSION + "|" + className + "|" + getInstrumentationSettings() + "|"
+				+ getAnalysisSettings() + "|" + getCodeFingerprint();
+		return hash(context, originalBytes);
+	}
+
+	private static String hash(String context, byte[] originalBytes) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new Error(e);
+		}
+		digest.update(context.getBytes(StandardCharsets.UTF_8));
+		digest.update(originalBytes);
+
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(String.format("%02x", b));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * The properties the instrumentation of classes that are not analyzed
+	 * depends on
+	 */
+	private static String getInstrumentationSettings() {
+		StringBuilder settings = new StringBuilder();
+		settings.append(Arrays.toString(Properties.CRITERION));
+		settings.append(';').append(Properties.TT).append(';').append(Properties.TT_SCOPE);
+		settings.append(';').append(Properties.INSTRUMENTATION_SKIP_DEBUG);
+		settings.append(';').append(Properties.RESET_STATIC_FIELDS);
+		settings.append(';').append(Properties.RESET_STATIC_FINAL_FIELDS);
+		settings.append(';').append(Properties.MAX_LOOP_ITERATIONS >= 0);
+		settings.append(';').append(Properties.MAKE_ACCESSIBLE);
+		settings.append(';').append(Properties.REPLACE_CALLS);
+		settings.append(';').append(Properties.VIRTUAL_FS);
+		settings.append(';').append(Properties.VIRTUAL_NET);
+		settings.append(';').append(RuntimeSettings.mockJVMNonDeterminism);
+		settings.append(';').append(RuntimeSettings.mockSystemIn);
+		settings.append(';').append(RuntimeSettings.mockGUI);
+		settings.append(';').append(RuntimeSettings.useVFS);
+		settings.append(';').append(RuntimeSettings.useVNET);
+		settings.append(';').append(RuntimeSettings.useJEE);
+		settings.append(';').append(RuntimeSettings.applyUIDTransformation);
+		return settings.toString();
+	}
+
+	/**
+	 * The properties that additionally change the bytecode of analyzed classes
+	 * before their control flow is analyzed
+	 */
+	private static String getAnalysisSettings() {
+		StringBuilder settings = new StringBuilder();
+		settings.append(Properties.ERROR_BRANCHES);
+		settings.append(';').append(Properties.EXCEPTION_BRANCHES);
+		settings.append(';').append(Properties.STRING_REPLACEMENT);
+		settings.append(';').append(Properties.TARGET_CLASS);
+		settings.append(';').append(Properties.PROJECT_PREFIX);
+		settings.append(';').append(Properties.TARGET_CLASS_PREFIX);
+		settings.append(';').append(Properties.INSTRUMENT_PARENT);
+		settings.append(';').append(Properties.INSTRUMENT_CONTEXT);
+		settings.append(';').append(Properties.INSTRUMENT_LIBRARIES);
+		return settings.toString();
+	}
+
+	/**
+	 * The EvoSuite binaries doing the instrumentation. Changes of a jar are
+	 * detected by its size and modification time, whereas directories (ie,
+	 * development builds) are only identified by their path.
+	 */
+	private String getCodeFingerprint() {
+		if (codeFingerprint == null) {
+			try {
+				URL location = BytecodeInstrumentation.class.getProtectionDomain().getCodeSource().getLocation();
+				codeFingerprint = describe(new File(location.toURI()));
+			} catch (Exception e) {
+				codeFingerprint = "unknown";
+			}
+		}
+		return codeFingerprint;
+	}
+
+	/**
+	 * Frames are computed on the class hierarchy, which might change if any
+	 * jar on the class path changes
+	 */
+	private String getClassPathFingerprint() {
+		String currentClassPath = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if (currentClassPath == null)
+			currentClassPath = "";
+		if (!currentClassPath.equals(classPath)) {
+			StringBuilder fingerprint = new StringBuilder();
+			for (String entry : currentClassPath.split(File.pathSeparator)) {
+				fingerprint.append(describe(new File(entry))).append(File.pathSeparator);
+			}
+			classPath = currentClassPath;
+			classPathFingerprint = fingerprint.toString();
+		}
+		return classPathFingerprint;
+	}
+
+	private static String describe(File file) {
+		if (file.isFile())
+			return file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+		return file.getAbsolutePath();
+	}
+
+	/**
+	 * Loop counters are identified by indices that are assigned while
+	 * instrumenting, thus the cached ones have to be replaced with fresh ones
+	 */
+	private static byte[] relocateLoopIndices(byte[] bytes, int minIndex, int maxIndex) {
+		int newMinIndex = LoopCounter.getInstance().getNewIndex();
+		for (int i = minIndex + 1; i <= maxIndex; i++) {
+			LoopCounter.getInstance().getNewIndex();
+		}
+		if (newMinIndex == minIndex)
+			return bytes;
+
+		ClassReader reader = new ClassReader(bytes);
+		ClassWriter writer = new ClassWriter(reader, 0);
+		reader.accept(new MethodAdapter(writer, new LoopIndexVisitor(null, newMinIndex - minIndex)), 0);
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Collect what {@link BytecodeInstrumentation#transformBytes} collects on
+	 * classes that are not analyzed, besides the transformed bytecode
+	 */
+	private static void collectInstrumentationInfo(String className, byte[] originalBytes, byte[] transformedBytes) {
+		int readFlags = ClassReader.SKIP_FRAMES;
+		if (Properties.INSTRUMENTATION_SKIP_DEBUG)
+			readFlags |= ClassReader.SKIP_DEBUG;
+
+		// Constants for the value pool, and final classes (NonTargetClassAdapter)
+		FinalModifierVisitor original = new FinalModifierVisitor(new PrimitiveClassAdapter(null, className));
+		new ClassReader(originalBytes).accept(original, readFlags);
+		RemoveFinalClassAdapter.finalClasses.addAll(original.finalClasses);
+
+		// Static fields whose final modifier was removed (CreateClassResetClassAdapter)
+		FinalModifierVisitor transformed = new FinalModifierVisitor(null);
+		new ClassReader(transformedBytes).accept(transformed, ClassReader.SKIP_CODE);
+		List<String> modifiedFields = new ArrayList<String>();
+		for (String field : original.finalFields) {
+			if (!transformed.finalFields.contains(field))
+				modifiedFields.add(field);
+		}
+		if (!modifiedFields.isEmpty())
+			ModifiedTargetStaticFields.getInstance().addFinalFields(modifiedFields);
+
+		// The purity analysis does not see the callbacks for static field accesses
+		if (Properties.PURE_INSPECTORS) {
+			ClassVisitor purity = new PurityAnalysisClassVisitor(null, className, CheapPurityAnalyzer.getInstance());
+			new ClassReader(transformedBytes).accept(new MethodAdapter(purity, new StaticAccessFilter(null)),
+					readFlags);
+		}
+	}
+
+	/**
+	 * Collects the names of final classes and fields
+	 */
+	private static class FinalModifierVisitor extends ClassVisitor {
+
+		private final Set<String> finalClasses = new HashSet<String>();
+
+		private final Set<String> finalFields = new HashSet<String>();
+
+		public FinalModifierVisitor(ClassVisitor cv) {
+			super(Opcodes.ASM5, cv);
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName,
+				String[] interfaces) {
+			if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL)
+				finalClasses.add(name.replace('/', '.'));
+			super.visit(version, access, name, signature, superName, interfaces);
+		}
+
+		@Override
+		public void visitInnerClass(String name, String outerName, String innerName, int access) {
+			if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL)
+				finalClasses.add(name.replace('/', '.'));
+			super.visitInnerClass(name, outerName, innerName, access);
+		}
+
+		@Override
+		public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+			if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL)
+				finalFields.add(name);
+			return super.visitField(access, name, desc, signature, value);
+		}
+	}
+
+	/**
+	 * Applies a method visitor on all methods. The given visitor is a
+	 * prototype, as a fresh copy is needed for each method.
+	 */
+	private static class MethodAdapter extends ClassVisitor {
+
+		private final MethodFilter prototype;
+
+		public MethodAdapter(ClassVisitor cv, MethodFilter prototype) {
+			super(Opcodes.ASM5, cv);
+			this.prototype = prototype;
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String desc, String signature,
+				String[] exceptions) {
+			return prototype.copy(super.visitMethod(access, name, desc, signature, exceptions));
+		}
+	}
+
+	private static abstract class MethodFilter extends MethodVisitor {
+
+		public MethodFilter(MethodVisitor mv) {
+			super(Opcodes.ASM5, mv);
+		}
+
+		public abstract MethodFilter copy(MethodVisitor mv);
+	}
+
+	/**
+	 * Finds the loop counter indices (ie, the constant following each call of
+	 * LoopCounter.getInstance()) and shifts them by a given offset
+	 */
+	private static class LoopIndexVisitor extends MethodFilter {
+
+		private final int offset;
+
+		private final LoopIndexVisitor range;
+
+		private boolean afterGetInstance = false;
+
+		private int minIndex = Integer.MAX_VALUE;
+
+		private int maxIndex = Integer.MIN_VALUE;
+
+		public LoopIndexVisitor(MethodVisitor mv, int offset) {
+			this(mv, offset, null);
+		}
+
+		private LoopIndexVisitor(MethodVisitor mv, int offset, LoopIndexVisitor range) {
+			super(mv);
+			this.offset = offset;
+			this.range = range == null ? this : range;
+		}
+
+		@Override
+		public MethodFilter copy(MethodVisitor mv) {
+			return new LoopIndexVisitor(mv, offset, range);
+		}
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+			super.visitMethodInsn(opcode, owner, name, desc, itf);
+			afterGetInstance = opcode == Opcodes.INVOKESTATIC && LOOP_COUNTER.equals(owner)
+					&& "getInstance".equals(name);
+		}
+
+		@Override
+		public void visitLdcInsn(Object cst) {
+			if (afterGetInstance && cst instanceof Integer) {
+				int index = (Integer) cst;
+				range.minIndex = Math.min(range.minIndex, index);
+				range.maxIndex = Math.max(range.maxIndex, index);
+				cst = index + offset;
+			}
+			afterGetInstance = false;
+			super.visitLdcInsn(cst);
+		}
+	}
+
+	/**
+	 * Removes the callbacks added by {@link StaticAccessMethodAdapter}
+	 */
+	private static class StaticAccessFilter extends MethodFilter {
+
+		public StaticAccessFilter(MethodVisitor mv) {
+			super(mv);
+		}
+
+		@Override
+		public MethodFilter copy(MethodVisitor mv) {
+			return new StaticAccessFilter(mv);
+		}
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+			if (opcode == Opcodes.INVOKESTATIC && EXECUTION_TRACER.equals(owner)
+					&& ("passedGetStatic".equals(name) || "passedImmutableGetStatic".equals(name)
+							|| "passedPutStatic".equals(name)))
+				return;
+			super.visitMethodInsn(opcode, owner, name, desc, itf);
+		}
+	}
+}
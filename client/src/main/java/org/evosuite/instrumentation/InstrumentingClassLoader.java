@@ -19,6 +19,7 @@
  */
 package org.evosuite.instrumentation;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.commons.io.IOUtils;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.classpath.ResourceList;
@@ -105,18 +107,44 @@ public class InstrumentingClassLoader extends ClassLoader {
 	
 	public Class<?> loadClassFromFile(String fullyQualifiedTargetClass, String fileName) throws ClassNotFoundException {
 
-		String className = fullyQualifiedTargetClass.replace('.', '/');
-
 		try(InputStream is = new FileInputStream(new File(fileName))) {
+			Class<?> result = loadClassFromStream(fullyQualifiedTargetClass, is);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
+			return result;
+		} catch (ClassNotFoundException e) {
+			throw e;
+		} catch (Throwable t) {
+			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
+			throw new ClassNotFoundException(t.getMessage(), t);
+		}
+	}
+
+	/**
+	 * Load a class from its bytecode, eg as produced by an in-memory compilation
+	 * 
+	 * @param fullyQualifiedTargetClass
+	 * @param bytecode
+	 * @return
+	 * @throws ClassNotFoundException
+	 */
+	public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytecode) throws ClassNotFoundException {
+
+		Class<?> result = loadClassFromStream(fullyQualifiedTargetClass, new ByteArrayInputStream(bytecode));
+		logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from memory");
+		return result;
+	}
+
+	private Class<?> loadClassFromStream(String fullyQualifiedTargetClass, InputStream is) throws ClassNotFoundException {
+
+		String className = fullyQualifiedTargetClass.replace('.', '/');
 
+		try {
 			byte[] byteBuffer = getTransformedBytes(className, is);
 
 			createPackageDefinition(fullyQualifiedTargetClass);
 			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
 
 			classes.put(fullyQualifiedTargetClass, result);
-
-			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
 			return result;
 		} catch (Throwable t) {
 			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
@@ -172,7 +200,18 @@ public class InstrumentingClassLoader extends ClassLoader {
 
 	//This is needed, as it is overridden in subclasses
 	protected byte[] getTransformedBytes(String className, InputStream is) throws IOException {
-		return instrumentation.transformBytes(this, className, new ClassReader(is));
+		InstrumentedClassCache cache = InstrumentedClassCache.getInstance();
+		if (!cache.isEnabled() || !instrumentation.isCacheable(className)) {
+			return instrumentation.transformBytes(this, className, new ClassReader(is));
+		}
+
+		byte[] originalBytes = IOUtils.toByteArray(is);
+		byte[] transformedBytes = cache.get(className, originalBytes);
+		if (transformedBytes == null) {
+			transformedBytes = instrumentation.transformBytes(this, className, new ClassReader(originalBytes));
+			cache.put(className, originalBytes, transformedBytes);
+		}
+		return transformedBytes;
 	}
 
 	private Class<?> instrumentClass(String fullyQualifiedTargetClass)throws ClassNotFoundException  {
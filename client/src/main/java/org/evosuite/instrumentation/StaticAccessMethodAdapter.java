@@ -24,6 +24,10 @@ package org.evosuite.instrumentation;
 
 import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.evosuite.runtime.classhandling.ClassResetter;
 import org.evosuite.runtime.instrumentation.RuntimeInstrumentation;
 import org.evosuite.testcase.execution.ExecutionTracer;
@@ -35,6 +39,9 @@ import org.objectweb.asm.Type;
  * For each PUTSTATIC or GETSTATIC we include a call to
  * <code>ExecutionTracer.passedPutStatic(String,String)</code> passing the class
  * name and the field name of the PUTSTATIC statement.
+ * Reads of fields whose type is primitive or immutable call
+ * <code>ExecutionTracer.passedImmutableGetStatic(String,String)</code>
+ * instead, as such reads cannot expose state that a test could modify.
  *
  * @author Juan Galeotti
  */
@@ -42,6 +49,20 @@ public class StaticAccessMethodAdapter extends MethodVisitor {
 
 	private static final String PASSED_PUT_STATIC = "passedPutStatic";
 	private static final String PASSED_GET_STATIC = "passedGetStatic";
+	private static final String PASSED_IMMUTABLE_GET_STATIC = "passedImmutableGetStatic";
+
+	/**
+	 * Descriptors of the reference types whose values cannot be modified
+	 * through a reference read from a static field. Loggers are included as
+	 * well: re-running a static initializer obtains the same logger instance
+	 * again, so a reset would not change them anyway
+	 */
+	private static final Set<String> IMMUTABLE_TYPES = new HashSet<String>(Arrays.asList(
+			"Ljava/lang/String;", "Ljava/lang/Boolean;", "Ljava/lang/Byte;", "Ljava/lang/Character;",
+			"Ljava/lang/Short;", "Ljava/lang/Integer;", "Ljava/lang/Long;", "Ljava/lang/Float;",
+			"Ljava/lang/Double;", "Ljava/lang/Class;", "Ljava/math/BigInteger;", "Ljava/math/BigDecimal;",
+			"Lorg/slf4j/Logger;", "Ljava/util/logging/Logger;", "Lorg/apache/log4j/Logger;",
+			"Lorg/apache/logging/log4j/Logger;", "Lorg/apache/commons/logging/Log;"));
 
 	private final String className;
 	private final String methodName;
@@ -88,6 +109,9 @@ public class StaticAccessMethodAdapter extends MethodVisitor {
 				if (opcode == Opcodes.PUTSTATIC)
 					super.visitMethodInsn(INVOKESTATIC, executionTracerClassName, PASSED_PUT_STATIC,
 							executionTracerDescriptor, false);
+				else if (isImmutableType(desc))
+					super.visitMethodInsn(INVOKESTATIC, executionTracerClassName, PASSED_IMMUTABLE_GET_STATIC,
+							executionTracerDescriptor, false);
 				else
 					super.visitMethodInsn(INVOKESTATIC, executionTracerClassName, PASSED_GET_STATIC,
 							executionTracerDescriptor, false);
@@ -95,4 +119,19 @@ public class StaticAccessMethodAdapter extends MethodVisitor {
 		}
 		super.visitFieldInsn(opcode, owner, name, desc);
 	}
+
+	/**
+	 * Returns true if a value of the given field type cannot be used to
+	 * modify static state
+	 * 
+	 * @param desc
+	 *            the type descriptor of a field
+	 * @return
+	 */
+	static boolean isImmutableType(String desc) {
+		int sort = Type.getType(desc).getSort();
+		if (sort != Type.OBJECT && sort != Type.ARRAY)
+			return true;
+		return IMMUTABLE_TYPES.contains(desc);
+	}
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+/**
+ * File manager used to compile generated test cases without writing either
+ * their source code or their bytecode to disk. Sources are read from strings,
+ * and the compiled classes are kept in memory, indexed by their binary name.
+ */
+class InMemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+	private final Map<String, ByteArrayOutputStream> classes = new LinkedHashMap<>();
+
+	public InMemoryJavaFileManager(StandardJavaFileManager fileManager) {
+		super(fileManager);
+	}
+
+	/**
+	 * Create a compilation unit for the source code of a class
+	 * 
+	 * @param className fully qualified name of the class
+	 * @param code
+	 * @return
+	 */
+	public static JavaFileObject createSource(String className, String code) {
+		return new SourceObject(className, code);
+	}
+
+	@Override
+	public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind,
+	        FileObject sibling) {
+		return new ClassObject(className, kind);
+	}
+
+	/**
+	 * Return the bytecode of all the classes compiled so far, indexed by
+	 * their binary name (eg, including anonymous classes such as Foo$1)
+	 * 
+	 * @return
+	 */
+	public Map<String, byte[]> getCompiledClasses() {
+		Map<String, byte[]> result = new LinkedHashMap<>();
+		for (Map.Entry<String, ByteArrayOutputStream> entry : classes.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().toByteArray());
+		}
+		return result;
+	}
+
+	/**
+	 * Return the simple name of the class whose source code is in a compilation unit
+	 * 
+	 * @param source
+	 * @return
+	 */
+	public static String getSimpleName(JavaFileObject source) {
+		String path = source.toUri().getPath();
+		int begin = path.lastIndexOf('/') + 1;
+		int end = path.endsWith(Kind.SOURCE.extension) ? path.length() - Kind.SOURCE.extension.length()
+		        : path.length();
+		return path.substring(begin, end);
+	}
+
+	private static URI uriOf(String className, Kind kind) {
+		return URI.create("string:///" + className.replace('.', '/') + kind.extension);
+	}
+
+	private static class SourceObject extends SimpleJavaFileObject {
+
+		private final String code;
+
+		public SourceObject(String className, String code) {
+			super(uriOf(className, Kind.SOURCE), Kind.SOURCE);
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private class ClassObject extends SimpleJavaFileObject {
+
+		private final String className;
+
+		public ClassObject(String className, Kind kind) {
+			super(uriOf(className, kind), kind);
+			this.className = className;
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			classes.put(className, out);
+			return out;
+		}
+	}
+}
@@ -63,9 +63,6 @@ public class JUnitAnalyzer {
 
 	private static int dirCounter = 0;
 
-	private static final String JAVA = ".java";
-	private static final String CLASS = ".class";
-
 	
 	private static NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
 	
@@ -73,6 +70,12 @@ public class JUnitAnalyzer {
 	 * Try to compile each test separately, and remove the ones that cannot be
 	 * compiled
 	 * 
+	 * <p>
+	 * All the tests are first compiled at once, and only the tests the
+	 * compilation errors point to are removed. Tests are compiled one at a
+	 * time only if an error cannot be traced back to a single test (eg, an
+	 * error in the scaffolding)
+	 * 
 	 * @param tests
 	 */
 	public static void removeTestsThatDoNotCompile(List<TestCase> tests) {
@@ -83,6 +86,33 @@ public class JUnitAnalyzer {
 			return;
 		}
 
+		while (!tests.isEmpty()) {
+			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				return;
+			}
+
+			CompiledTests compiled = compileTests(tests);
+			if (compiled != null && compiled.wasSuccessful()) {
+				return;
+			}
+
+			Set<Integer> failing = compiled == null ? null : compiled.getFailingTests();
+			if (failing == null || failing.isEmpty()) {
+				removeTestsThatDoNotCompileOneByOne(tests);
+				return;
+			}
+
+			for (int i = tests.size() - 1; i >= 0; i--) {
+				if (failing.contains(i)) {
+					TestCase test = tests.remove(i);
+					logger.error("Failed to compile test case:\n" + test.toCode());
+				}
+			}
+		}
+	}
+
+	private static void removeTestsThatDoNotCompileOneByOne(List<TestCase> tests) {
+
 		Iterator<TestCase> iter = tests.iterator();
 
 		while (iter.hasNext()) {
@@ -92,35 +122,15 @@ public class JUnitAnalyzer {
 
 			TestCase test = iter.next();
 
-			File dir = createNewTmpDir();
-			if (dir == null) {
-				logger.warn("Failed to create tmp dir");
-				return;
+			List<TestCase> singleList = new ArrayList<TestCase>();
+			singleList.add(test);
+			CompiledTests compiled = compileTests(singleList);
+			if (compiled == null || !compiled.wasSuccessful()) {
+				iter.remove();
+				String code = test.toCode();
+				logger.error("Failed to compile test case:\n" + code);
 			}
-			logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
-			try {
-				List<TestCase> singleList = new ArrayList<TestCase>();
-				singleList.add(test);
-				List<File> generated = compileTests(singleList, dir);
-				if (generated == null) {
-					iter.remove();
-					String code = test.toCode();
-					logger.error("Failed to compile test case:\n" + code);
-				}
-			} finally {
-				//let's be sure we clean up all what we wrote on disk
-				if (dir != null) {
-					try {
-						FileUtils.deleteDirectory(dir);
-						logger.debug("Deleted tmp folder: " + dir.getAbsolutePath());
-					} catch (Exception e) {
-						logger.error("Cannot delete tmp dir: " + dir.getAbsolutePath(), e);
-					}
-				}
-			}
-
-		} // end of while
+		}
 	}
 
 	/**
@@ -143,16 +153,9 @@ public class JUnitAnalyzer {
 			return numUnstable;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.error("Failed to create tmp dir");
-			return numUnstable;
-		}
-		logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			CompiledTests generated = compileTests(tests);
+			if (generated == null || !generated.wasSuccessful()) {
 				/*
 				 * Note: in theory this shouldn't really happen, as check for compilation
 				 * is done before calling this method
@@ -175,7 +178,7 @@ public class JUnitAnalyzer {
 				return numUnstable;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (result.wasSuccessful()) {
 				return numUnstable; //everything is OK
@@ -254,24 +257,13 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return numUnstable;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (Exception e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
-
 		}
 
 		//if we arrive here, then it means at least one test was unstable
 		return numUnstable;
 	}
 
-	private static JUnitResult runTests(Class<?>[] testClasses, File testClassDir)
+	private static JUnitResult runTests(Class<?>[] testClasses)
 	        throws JUnitExecutionException {
 		return runJUnitOnCurrentProcess(testClasses);
 	}
@@ -341,7 +333,13 @@ public class JUnitAnalyzer {
 	// EvoSuite classloader, and thus cannot easily be re-loaded
 	private static int NUM = 0;
 
-	private static List<File> compileTests(List<TestCase> tests, File dir) {
+	/**
+	 * Generate the JUnit code of the given tests, and compile it in memory
+	 * 
+	 * @param tests
+	 * @return null if the tests could not be compiled at all, eg if there is no Java compiler
+	 */
+	private static CompiledTests compileTests(List<TestCase> tests) {
 
 		TestSuiteWriter suite = new TestSuiteWriter();
 		suite.insertAllTests(tests);
@@ -351,84 +349,73 @@ public class JUnitAnalyzer {
 		String name = Properties.TARGET_CLASS.substring(beginIndex);
 		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
 
-		try {
-			//now generate the JUnit test case
-			List<File> generated = suite.writeTestSuite(name, dir.getAbsolutePath(), Collections.EMPTY_LIST);
-			for (File file : generated) {
-				if (!file.exists()) {
-					logger.error("Supposed to generate " + file
-					        + " but it does not exist");
-					return null;
-				}
-			}
-
-			//try to compile the test cases
-			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-			if (compiler == null) {
-				logger.error("No Java compiler is available");
-				return null;
-			}
+		//now generate the JUnit test case
+		Map<String, String> sources = suite.generateTestSuite(name, Collections.emptyList());
 
-			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
-			Locale locale = Locale.getDefault();
-			Charset charset = Charset.forName("UTF-8");
-			StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
-			                                                                      locale,
-			                                                                      charset);
+		//try to compile the test cases
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			logger.error("No Java compiler is available");
+			return null;
+		}
 
-			Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(generated);
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		Locale locale = Locale.getDefault();
+		Charset charset = Charset.forName("UTF-8");
+		StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(diagnostics,
+		                                                                              locale,
+		                                                                              charset);
+
+		String packagePrefix = getPackagePrefix();
+		List<JavaFileObject> compilationUnits = new ArrayList<>();
+		for (Map.Entry<String, String> source : sources.entrySet()) {
+			compilationUnits.add(InMemoryJavaFileManager.createSource(packagePrefix + source.getKey(), source.getValue()));
+		}
 
-			List<String> optionList = new ArrayList<>();
-			String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
-			if(JarPathing.containsAPathingJar(evosuiteCP)){
-				evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
-			}
+		String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+		if(JarPathing.containsAPathingJar(evosuiteCP)){
+			evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+		}
 
-			String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
-			if(JarPathing.containsAPathingJar(targetProjectCP)){
-				targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
-			}
+		String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if(JarPathing.containsAPathingJar(targetProjectCP)){
+			targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+		}
 
-			String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
+		String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
 
-			optionList.addAll(Arrays.asList("-classpath", classpath));
+		List<String> optionList = new ArrayList<>();
+		optionList.addAll(Arrays.asList("-classpath", classpath));
 
+		try (InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(standardFileManager)) {
 			CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
 			                                        optionList, null, compilationUnits);
 			boolean compiled = task.call();
-			fileManager.close();
 
 			if (!compiled) {
-				logger.error("Compilation failed on compilation units: "+ compilationUnits);
+				logger.error("Compilation failed on compilation units: "+ sources.keySet());
 				logger.error("Classpath: "+classpath);
-				//TODO remove
-				logger.error("evosuiteCP: "+evosuiteCP);
-
 
 				for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
-					if (diagnostic.getMessage(null).startsWith("error while writing")) {
-						logger.error("Error is due to file permissions, ignoring...");
-						return generated;
-					}
 					logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
 					        + diagnostic.getLineNumber());
 				}
 
-				StringBuffer buffer = new StringBuffer();
-				for (JavaFileObject sourceFile : compilationUnits) {
-					List<String> lines = FileUtils.readLines(new File(sourceFile.toUri().getPath()));
-
-					buffer.append(compilationUnits.iterator().next().toString()+"\n");
-
-					for (int i = 0; i < lines.size(); i++) {
-						buffer.append((i + 1) + ": " + lines.get(i) +"\n");
+				if (logger.isDebugEnabled()) {
+					StringBuffer buffer = new StringBuffer();
+					for (Map.Entry<String, String> source : sources.entrySet()) {
+						buffer.append(source.getKey()+"\n");
+						String[] lines = source.getValue().split("\\r?\\n");
+						for (int i = 0; i < lines.length; i++) {
+							buffer.append((i + 1) + ": " + lines[i] +"\n");
+						}
 					}
+					logger.debug(buffer.toString());
 				}
-				logger.error(buffer.toString());
-				return null;
 			}
 
-			return generated;
+			return new CompiledTests(compiled, suite, sources.keySet(), fileManager.getCompiledClasses(),
+			        diagnostics.getDiagnostics());
 
 		} catch (IOException e) {
 			logger.error("" + e, e);
@@ -436,6 +423,14 @@ public class JUnitAnalyzer {
 		}
 	}
 
+	private static String getPackagePrefix() {
+		String packagePrefix = Properties.CLASS_PREFIX;
+		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+			packagePrefix += ".";
+		}
+		return packagePrefix;
+	}
+
 	protected static File createNewTmpDir() {
 		File dir = null;
 		String dirName = FileUtils.getTempDirectoryPath() + File.separator + "EvoSuite_"
@@ -457,7 +452,7 @@ public class JUnitAnalyzer {
 		return dir;
 	}
 
-	private static Class<?>[] loadTests(List<File> tests) {
+	private static Class<?>[] loadTests(CompiledTests tests) {
 
 		/*
 		 * Ideally, when we run a generated test case, it
@@ -471,67 +466,42 @@ public class JUnitAnalyzer {
 		 * non-instrumenting classloader to re-load the CUT, and so see
 		 * if the JavaAgent works properly.
 		 */
-		Class<?>[] testClasses = getClassesFromFiles(tests);
-		List<File> otherClasses = listOnlyFiles(tests);
+		String packagePrefix = getPackagePrefix();
+		Map<String, byte[]> classes = new LinkedHashMap<>(tests.getClasses());
+
 		/*
-		 * this is important to force the loading of all files generated
-		 * in the target folder.
-		 * If we do not do that, then we will miss all the anonymous classes 
+		 * first load only the scaffolding files
 		 */
-		getClassesFromFiles(otherClasses);
-
-		return testClasses;
-	}
-
-	private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException{
-		if(tests==null || tests.isEmpty()){
-			return null;
-		}
-
-		Set<String> classNames = new LinkedHashSet<>();
-		
-		File parentFolder = tests.get(0).getParentFile();
-		for(File file : tests){
-			if(!file.getParentFile().equals(parentFolder)){
-				throw new IllegalArgumentException("Tests file are not in the same folder");
+		for (String className : tests.getSourceNames()) {
+			if (isScaffolding(className)) {
+				loadClass(packagePrefix + className, classes);
 			}
-			classNames.add(removeFileExtension(file.getName()));
 		}
-		
+
 		/*
-		 * if we already loaded a CUT due to its .java, do not want
-		 * to re-loaded it for a .class file that is in the same folder
+		 * once the scaffoldings are loaded, we can load the tests that
+		 * depend on them 
 		 */
-		
-		List<File> otherClasses = new LinkedList<>();
-		
-		for(File file : parentFolder.listFiles()){
-			String  name = removeFileExtension(file.getName());
-
-			if(classNames.contains(name)){
+		List<Class<?>> testClasses = new ArrayList<>();
+		for (String className : tests.getSourceNames()) {
+			if (isScaffolding(className)) {
 				continue;
 			}
-			
-			classNames.add(name);
-			otherClasses.add(file);
-		}
-		
-		return otherClasses;
-	}
-	
-
-	private static String removeFileExtension(String str) {
-		if (str == null) {
-			return null;
+			Class<?> clazz = loadClass(packagePrefix + className, classes);
+			if (clazz != null) {
+				testClasses.add(clazz);
+			}
 		}
 
-		int pos = str.lastIndexOf(".");
-
-		if (pos == -1) {
-			return str;
+		/*
+		 * this is important to force the loading of all the other compiled classes.
+		 * If we do not do that, then we will miss all the anonymous classes 
+		 */
+		for (String className : new ArrayList<>(classes.keySet())) {
+			loadClass(className, classes);
 		}
 
-		return str.substring(0, pos);
+		return testClasses.toArray(new Class<?>[testClasses.size()]);
 	}
 
 	/**
@@ -559,15 +529,9 @@ public class JUnitAnalyzer {
 			return true;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.warn("Failed to create tmp dir");
-			return false;
-		}
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			CompiledTests generated = compileTests(tests);
+			if (generated == null || !generated.wasSuccessful()) {
 				logger.warn("Failed to compile the test cases ");
 				return false;
 			}
@@ -581,7 +545,7 @@ public class JUnitAnalyzer {
 				return false;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runTests(testClasses);
 
 			if (!result.wasSuccessful()) {
 				logger.error("" + result.getFailureCount() + " test cases failed");
@@ -605,15 +569,6 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return false;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (IOException e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
 		}
 
 		logger.debug("Successfully compiled and run test cases generated for "
@@ -621,90 +576,97 @@ public class JUnitAnalyzer {
 		return true;
 	}
 
+	private static boolean isScaffolding(String className){
+		return className.endsWith("_"+Properties.SCAFFOLDING_SUFFIX);
+	}
+
 	/**
-	 * Given a list of files representing .java/.class classes, load them (it
-	 * assumes the classpath to be correctly set)
+	 * Load a compiled class, unless it was already loaded
 	 * 
-	 * @param files
+	 * @param className
+	 * @param classes bytecode of the compiled classes not loaded yet
 	 * @return
 	 */
-	private static Class<?>[] getClassesFromFiles(Collection<File> files) {
-		/*
-		 * first load only the scaffolding files
-		 */
-		for (File file : files) {
-			if(!isScaffolding(file)){
-				continue;
-			}
-			loadClass(file);			
+	private static Class<?> loadClass(String className, Map<String, byte[]> classes){
+		byte[] bytecode = classes.remove(className);
+		if (bytecode == null) {
+			return null;
 		}
-		
-		List<Class<?>> classes = new ArrayList<>();
-		
-		/*
-		 * once the scaffoldings are loaded, we can load the tests that
-		 * depend on them 
-		 */
-		for (File file : files) {
-			if(isScaffolding(file)){
-				continue;
-			}
-			Class<?> clazz = loadClass(file);
-			if(clazz != null){
-				classes.add(clazz);
-			}
+
+		Class<?> testClass = null;
+		try {
+			logger.info("Loading class " + className);
+			testClass = loader.loadClassFromBytes(className, bytecode);
+		} catch (ClassNotFoundException e) {
+			logger.error("Failed to load test case " + className + " , error " + e, e);
 		}
-		
-		return classes.toArray(new Class<?>[classes.size()]);
+		return testClass;
 	}
 
-	private static boolean isScaffolding(File file){
-		String name = file.getName();
-		return name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+JAVA) || 
-				name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+CLASS);
-	}
-	
-	private static Class<?> loadClass(File file){
-		if (!file.isFile()) {
-			return null;
-		}
+	/**
+	 * Outcome of the compilation of a set of test cases
+	 */
+	private static class CompiledTests {
 
-		String packagePrefix = Properties.CLASS_PREFIX;
-		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-			packagePrefix += ".";
-		}
+		private final boolean successful;
 
-		String name = file.getName();
+		private final TestSuiteWriter suite;
 
-		if (!name.endsWith(JAVA) && !name.endsWith(CLASS)) {
-			/*
-			 * this could happen when we scan a folder for all src/compiled
-			 * files
-			 */
-			return null;
+		private final Set<String> sourceNames;
+
+		private final Map<String, byte[]> classes;
+
+		private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+		public CompiledTests(boolean successful, TestSuiteWriter suite, Set<String> sourceNames,
+		        Map<String, byte[]> classes, List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+			this.successful = successful;
+			this.suite = suite;
+			this.sourceNames = sourceNames;
+			this.classes = classes;
+			this.diagnostics = diagnostics;
 		}
 
-		String fileName = file.getAbsolutePath();
+		public boolean wasSuccessful() {
+			return successful;
+		}
 
-		if (name.endsWith(JAVA)) {
-			name = name.substring(0, name.length() - JAVA.length());
-			fileName = fileName.substring(0, fileName.length() - JAVA.length()) + ".class";
-		} else {
-			assert name.endsWith(CLASS);
-			name = name.substring(0, name.length() - CLASS.length());
+		/**
+		 * Simple names of the generated classes, ie tests and scaffolding
+		 */
+		public Set<String> getSourceNames() {
+			return sourceNames;
 		}
 
-		String className = packagePrefix + name;
+		/**
+		 * Bytecode of all compiled classes, indexed by their binary name
+		 */
+		public Map<String, byte[]> getClasses() {
+			return classes;
+		}
 
-		Class<?> testClass = null;
-		try {
-			logger.info("Loading class " + className);
-			//testClass = ((InstrumentingClassLoader) TestGenerationContext.getInstance().getClassLoaderForSUT()).loadClassFromFile(className,
-			testClass = loader.loadClassFromFile(className,fileName);
-		} catch (ClassNotFoundException e) {
-			logger.error("Failed to load test case " + className + " from file "
-			        + file.getAbsolutePath() + " , error " + e, e);
+		/**
+		 * Return the positions of the tests containing a compilation error
+		 * 
+		 * @return null if any of the errors is not inside a test
+		 */
+		public Set<Integer> getFailingTests() {
+			Set<Integer> failing = new LinkedHashSet<>();
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+				if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+					continue;
+				}
+				if (diagnostic.getSource() == null || diagnostic.getLineNumber() == Diagnostic.NOPOS) {
+					return null;
+				}
+				String className = InMemoryJavaFileManager.getSimpleName(diagnostic.getSource());
+				int id = suite.getTestIdAtLine(className, diagnostic.getLineNumber());
+				if (id < 0) {
+					return null;
+				}
+				failing.add(id);
+			}
+			return failing;
 		}
-		return testClass;
 	}
 }
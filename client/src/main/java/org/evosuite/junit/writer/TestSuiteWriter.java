@@ -89,6 +89,12 @@ public class TestSuiteWriter implements Opcodes {
 
     private TestNameGenerationStrategy nameGenerator = null;
 
+    /**
+     * For each generated class, the line on which the code of each of its tests starts, mapped to the id of the test.
+     * The line following the last test is mapped to -1, so that the footer of the class is not part of any test
+     */
+    private final Map<String, TreeMap<Integer, Integer>> testStartLines = new HashMap<>();
+
     /**
      * Add test to suite. If the test is a prefix of an existing test, just keep
      * existing test. If an existing test is a prefix of the test, replace the
@@ -185,6 +191,31 @@ public class TestSuiteWriter implements Opcodes {
      */
     public List<File> writeTestSuite(String name, String directory, List<ExecutionResult> cachedResults) throws IllegalArgumentException {
 
+        List<File> generated = new ArrayList<File>();
+        String dir = TestSuiteWriterUtils.makeDirectory(directory);
+        String content = "";
+
+        for (Map.Entry<String, String> source : generateTestSuite(name, cachedResults).entrySet()) {
+            File file = new File(dir + "/" + source.getKey() + ".java"); // e.g., dir/Foo_ESTest_0.java
+            FileIOUtils.writeFile(source.getValue(), file);
+            content += source.getValue();
+            generated.add(file);
+        }
+
+        writeCoveredGoalsFile();
+
+        TestGenerationResultBuilder.getInstance().setTestSuiteCode(content);
+        return generated;
+    }
+
+    /**
+     * Create the source code of the JUnit test suite for class, without writing it to disk
+     *
+     * @param name Name of the class
+     * @return the source code of each generated class, indexed by the simple name of the class
+     */
+    public Map<String, String> generateTestSuite(String name, List<ExecutionResult> cachedResults) throws IllegalArgumentException {
+
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Empty test class name");
         }
@@ -195,9 +226,8 @@ public class TestSuiteWriter implements Opcodes {
             throw new IllegalArgumentException("Test classes should have name ending with 'Test'. Invalid input name: " + name);
         }
 
-        List<File> generated = new ArrayList<File>();
-        String dir = TestSuiteWriterUtils.makeDirectory(directory);
-        String content = "";
+        Map<String, String> generated = new LinkedHashMap<>();
+        testStartLines.clear();
 
         // Execute all tests
         executor.newObservers();
@@ -241,38 +271,52 @@ public class TestSuiteWriter implements Opcodes {
 
 
         if (Properties.OUTPUT_GRANULARITY == OutputGranularity.MERGED || testCases.size() == 0) {
-            File file = new File(dir + "/" + name + ".java");
             //executor.newObservers();
-            content = getUnitTestsAllInSameFile(name, results);
-            FileIOUtils.writeFile(content, file);
-            generated.add(file);
+            generated.put(name, getUnitTestsAllInSameFile(name, results));
         } else {
             for (int i = 0; i < testCases.size(); i++) {
-                File file = new File(dir + "/" + name + "_" + i + ".java"); // e.g., dir/Foo_ESTest_0.java
                 //executor.newObservers();
-                String testCode = getOneUnitTestInAFile(name, i, results);
-                FileIOUtils.writeFile(testCode, file);
-                content += testCode;
-                generated.add(file);
+                generated.put(name + "_" + i, getOneUnitTestInAFile(name, i, results));
             }
         }
 
         if (Properties.TEST_SCAFFOLDING && !Properties.NO_RUNTIME_DEPENDENCY) {
             String scaffoldingName = Scaffolding.getFileName(name);
-            File file = new File(dir + "/" + scaffoldingName + ".java");
             String scaffoldingContent = Scaffolding.getScaffoldingFileContent(name, results,
                     TestSuiteWriterUtils.hasAnySecurityException(results));
-            FileIOUtils.writeFile(scaffoldingContent, file);
-            generated.add(file);
-            content += scaffoldingContent;
+            generated.put(scaffoldingName, scaffoldingContent);
         }
 
-        writeCoveredGoalsFile();
-
-        TestGenerationResultBuilder.getInstance().setTestSuiteCode(content);
         return generated;
     }
 
+    /**
+     * Return the id of the test whose code contains a given line of a class created by the
+     * last call to {@link #generateTestSuite(String, List)}
+     *
+     * @param className  simple name of the generated class
+     * @param lineNumber line in the source code of the class, starting from 1
+     * @return the id of the test, or -1 if the line is not part of any test (eg, imports or scaffolding)
+     */
+    public int getTestIdAtLine(String className, long lineNumber) {
+        TreeMap<Integer, Integer> lines = testStartLines.get(className);
+        if (lines == null || lineNumber > Integer.MAX_VALUE) {
+            return -1;
+        }
+        Map.Entry<Integer, Integer> entry = lines.floorEntry((int) lineNumber);
+        return entry == null ? -1 : entry.getValue();
+    }
+
+    private static int countLines(CharSequence code) {
+        int lines = 0;
+        for (int i = 0; i < code.length(); i++) {
+            if (code.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
     /**
      * To avoid having completely empty test classes, a no-op test is created
      * 
@@ -336,9 +380,16 @@ public class TestSuiteWriter implements Opcodes {
         if(testCases.isEmpty()) {
         	builder.append(getEmptyTest());
         } else {
+        	TreeMap<Integer, Integer> lines = new TreeMap<>();
+        	int line = countLines(builder) + 1;
         	for (int i = 0; i < testCases.size(); i++) {
-        		builder.append(testToString(i, i, results.get(i)));
+        		String code = testToString(i, i, results.get(i));
+        		lines.put(line, i);
+        		line += countLines(code);
+        		builder.append(code);
         	}
+        	lines.put(line, -1);
+        	testStartLines.put(name, lines);
         }
         builder.append(getFooter());
 
@@ -364,7 +415,14 @@ public class TestSuiteWriter implements Opcodes {
             builder.append(new Scaffolding().getBeforeAndAfterMethods(name + "_" + testId, wasSecurityException, results));
         }
 
-        builder.append(testToString(testId, testId, results.get(testId)));
+        String code = testToString(testId, testId, results.get(testId));
+        TreeMap<Integer, Integer> lines = new TreeMap<>();
+        int line = countLines(builder) + 1;
+        lines.put(line, testId);
+        lines.put(line + countLines(code), -1);
+        testStartLines.put(name + "_" + testId, lines);
+
+        builder.append(code);
         builder.append(getFooter());
 
         return builder.toString();
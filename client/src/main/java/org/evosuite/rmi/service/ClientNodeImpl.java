@@ -30,6 +30,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.evosuite.Properties;
 import org.evosuite.Properties.NoSuchParameterException;
@@ -43,6 +44,7 @@ import org.evosuite.ga.stoppingconditions.RMIStoppingCondition;
 import org.evosuite.junit.CoverageAnalysis;
 import org.evosuite.result.TestGenerationResult;
 import org.evosuite.result.TestGenerationResultBuilder;
+import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.sandbox.PermissionStatistics;
 import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.setup.DependencyAnalysis;
@@ -83,15 +85,34 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	 */
 	protected volatile CountDownLatch finishedLatch;
 
+	/**
+	 * A latch used to wait till the current search is done, which differs
+	 * from {@link #doneLatch} if this client is reused for several searches
+	 */
+	protected volatile CountDownLatch searchLatch;
+
 
 	protected Registry registry;
 
 	protected final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
 
-	private final BlockingQueue<OutputVariable> outputVariableQueue = new LinkedBlockingQueue<OutputVariable>();
+	/**
+	 * Statistics updates waiting to be sent to the master in batches by {@link #statisticsThread}
+	 */
+	private final BlockingQueue<StatisticsUpdate> statisticsQueue = new LinkedBlockingQueue<StatisticsUpdate>();
+
+	/**
+	 * Number of statistics updates tracked but not sent to the master yet
+	 */
+	private final AtomicInteger pendingStatistics = new AtomicInteger(0);
 
 	private Thread statisticsThread; 
 
+	/**
+	 * Maximum time in milliseconds to wait for pending statistics before a class change or shutdown
+	 */
+	private static final long STATISTICS_SHUTDOWN_TIMEOUT = 3000;
+
 	//only for testing
 	protected ClientNodeImpl() {
 	}
@@ -105,17 +126,37 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		clientRmiIdentifier = "ClientNode";
 		doneLatch = new CountDownLatch(1);
 		finishedLatch = new CountDownLatch(1);
+		searchLatch = new CountDownLatch(1);
+	}
+
+	/**
+	 * Whether this client process is kept alive after a search, so that the
+	 * master can start further searches on it
+	 * 
+	 * @return a boolean.
+	 */
+	public static boolean isReusedForSeveralSearches() {
+		return Properties.CLIENT_MAX_JOBS > 1 && !Properties.CLIENT_ON_THREAD;
 	}
 
-	private static class OutputVariable {
+	/**
+	 * Either an output variable or a new best individual
+	 */
+	private static class StatisticsUpdate {
 		public RuntimeVariable variable;
 		public Object value;
+		public Chromosome individual;
 
-		public OutputVariable(RuntimeVariable variable, Object value) {
+		public StatisticsUpdate(RuntimeVariable variable, Object value) {
 			super();
 			this.variable = variable;
 			this.value = value;
 		}
+
+		public StatisticsUpdate(Chromosome individual) {
+			super();
+			this.individual = individual;
+		}
 	}
 
 	@Override
@@ -191,6 +232,82 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		return finishedLatch.await(timeoutInMs, TimeUnit.MILLISECONDS);
 	}
 
+	@Override
+	public boolean waitUntilSearchDone(long timeoutInMs) throws RemoteException, InterruptedException {
+		long start = System.currentTimeMillis();
+		if (!searchLatch.await(timeoutInMs, TimeUnit.MILLISECONDS)) {
+			return false;
+		}
+
+		/*
+		 * The master writes the statistics of a search as soon as it is done,
+		 * so all output variables need to be sent before
+		 */
+		long remaining = timeoutInMs - (System.currentTimeMillis() - start);
+		if (!waitForPendingStatistics(remaining)) {
+			logger.warn("Not all output variables were sent to master in time");
+		}
+		return true;
+	}
+
+	/**
+	 * Wait till all the statistics tracked so far have been sent to the master
+	 * 
+	 * @param timeoutInMs
+	 * @return false if the timeout was reached before
+	 * @throws InterruptedException
+	 */
+	private boolean waitForPendingStatistics(long timeoutInMs) throws InterruptedException {
+		long start = System.currentTimeMillis();
+		while (pendingStatistics.get() > 0) {
+			if (System.currentTimeMillis() - start > timeoutInMs) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean prepareNextSearch(String targetClass, String projectPrefix) throws RemoteException {
+		if (!state.equals(ClientState.DONE)) {
+			throw new IllegalStateException("Search is not done yet");
+		}
+
+		logger.info("Preparing client for search on " + targetClass);
+
+		/*
+		 * Prefixes are derived from the target class if the master has none
+		 */
+		Properties.PROJECT_PREFIX = projectPrefix == null ? "" : projectPrefix;
+		Properties.CLASS_PREFIX = "";
+		Properties.SUB_PREFIX = "";
+		Properties.TARGET_CLASS = targetClass;
+		RuntimeSettings.className = targetClass;
+
+		TestGenerationContext.getInstance().resetContext();
+		TimeController.resetSingleton();
+		RMIStoppingCondition.getInstance().reset();
+
+		searchLatch = new CountDownLatch(1);
+		changeState(ClientState.NOT_STARTED);
+
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		long retained = runtime.totalMemory() - runtime.freeMemory();
+		if (retained > Properties.CLIENT_MAX_RETAINED_MEMORY * runtime.maxMemory()) {
+			logger.warn("Client still uses " + (retained / 1024 / 1024)
+					+ "MB after reset, it should be replaced");
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void release() throws RemoteException {
+		doneLatch.countDown();
+	}
+
 	@Override
 	public void waitUntilDone() {
 		try {
@@ -221,7 +338,10 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		}
 
 		if (this.state.equals(ClientState.DONE)) {
-			doneLatch.countDown();
+			searchLatch.countDown();
+			if (!isReusedForSeveralSearches()) {
+				doneLatch.countDown();
+			}
 		}
 
 		if (this.state.equals(ClientState.FINISHED)) {
@@ -233,11 +353,12 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	public void updateStatistics(Chromosome individual) {
 		logger.info("Sending current best individual to master process");
 
-		try {
-			masterNode.evosuite_collectStatistics(clientRmiIdentifier, individual);
-		} catch (RemoteException e) {
-			logger.error("Cannot inform master of change of state", e);
-		}
+		/*
+		 * The individual is sent asynchronously, so the search must not be able
+		 * to modify it in the meantime
+		 */
+		pendingStatistics.incrementAndGet();
+		statisticsQueue.offer(new StatisticsUpdate(individual.clone()));
 	}
 
 	@Override
@@ -245,9 +366,14 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		logger.info("Flushing output variables to master process");
 
 		try {
+			if (!waitForPendingStatistics(STATISTICS_SHUTDOWN_TIMEOUT)) {
+				logger.warn("Not all output variables were sent to master in time");
+			}
 			masterNode.evosuite_flushStatisticsForClassChange(clientRmiIdentifier);
 		} catch (RemoteException e) {
 			logger.error("Cannot inform master of change of state", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
 	}
 
@@ -270,7 +396,8 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		 * As this code might be called from unsafe blocks, we just put the values
 		 * on a queue, and have a privileged thread doing the RMI connection to master
 		 */
-		outputVariableQueue.offer(new OutputVariable(variable, value));
+		pendingStatistics.incrementAndGet();
+		statisticsQueue.offer(new StatisticsUpdate(variable, value));
 	}
 
     @Override
@@ -318,23 +445,16 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	public void stop(){
 		if(statisticsThread!=null){
 			statisticsThread.interrupt();
-			List<OutputVariable> vars = new ArrayList<OutputVariable>();
-			outputVariableQueue.drainTo(vars);
-			for(OutputVariable ov : vars) {
-				try {
-					masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
-				} catch (RemoteException e) {
-					logger.error("Error when exporting statistics: "+ov.variable+"="+ov.value, e);
-					break;
-				}
-			}
-
 			try {
-				statisticsThread.join(3000);
+				statisticsThread.join(STATISTICS_SHUTDOWN_TIMEOUT);
 			} catch (InterruptedException e) {
 				logger.error("Failed to stop statisticsThread in time");
 			}
 			statisticsThread = null;
+
+			List<StatisticsUpdate> updates = new ArrayList<StatisticsUpdate>();
+			statisticsQueue.drainTo(updates);
+			sendStatistics(updates);
 		}
 
 		changeState(ClientState.FINISHED);
@@ -352,14 +472,27 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 				@Override
 				public void run() {
 					while (!this.isInterrupted()) {
-						OutputVariable ov = null;
+						List<StatisticsUpdate> updates = new ArrayList<StatisticsUpdate>();
+						boolean interrupted = false;
 						try {
-							ov = outputVariableQueue.take(); //this is blocking
-							masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
+							updates.add(statisticsQueue.take()); //this is blocking
+							/*
+							 * Collect further updates till the batch is full or the
+							 * flush interval is over, and send them all at once
+							 */
+							long deadline = System.currentTimeMillis() + Properties.STATISTICS_FLUSH_INTERVAL;
+							while (updates.size() < Properties.STATISTICS_BATCH_SIZE) {
+								long wait = deadline - System.currentTimeMillis();
+								StatisticsUpdate update = wait > 0 ? statisticsQueue.poll(wait, TimeUnit.MILLISECONDS) : null;
+								if (update == null) {
+									break;
+								}
+								updates.add(update);
+							}
 						} catch (InterruptedException e) {
-							break;
-						} catch (RemoteException e) {
-							logger.error("Error when exporting statistics: "+ov.variable+"="+ov.value, e);
+							interrupted = true;
+						}
+						if (!sendStatistics(updates) || interrupted) {
 							break;
 						}
 					}
@@ -376,6 +509,37 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		return true;
 	}
 
+	/**
+	 * Send a list of statistics updates to the master with a single remote call
+	 * 
+	 * @param updates
+	 * @return false if the master could not be reached
+	 */
+	private boolean sendStatistics(List<StatisticsUpdate> updates) {
+		if (updates.isEmpty()) {
+			return true;
+		}
+
+		StatisticsBatch batch = new StatisticsBatch();
+		for (StatisticsUpdate update : updates) {
+			if (update.individual != null) {
+				batch.setIndividual(update.individual);
+			} else {
+				batch.addOutputVariable(update.variable, update.value);
+			}
+		}
+
+		try {
+			masterNode.evosuite_collectStatistics(clientRmiIdentifier, batch);
+			return true;
+		} catch (RemoteException e) {
+			logger.error("Error when exporting " + updates.size() + " statistics updates", e);
+			return false;
+		} finally {
+			pendingStatistics.addAndGet(-updates.size());
+		}
+	}
+
 	public String getClientRmiIdentifier() {
 		return clientRmiIdentifier;
 	}
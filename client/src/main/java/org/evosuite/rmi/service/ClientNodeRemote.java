@@ -45,6 +45,39 @@ public interface ClientNodeRemote extends Remote {
 	public boolean waitUntilFinished(long timeoutInMs) throws RemoteException,
 	        InterruptedException;
 
+	/**
+	 * Wait for the current search to be done, and for all its output
+	 * variables to be sent to the master. Unlike
+	 * {@link #waitUntilFinished(long)}, the client process keeps running if
+	 * it is reused for several searches.
+	 * 
+	 * @param timeoutInMs  maximum amount of time we can wait for the search to be done
+	 * @return <code>true</code> if the search is done
+	 * @throws RemoteException
+	 * @throws InterruptedException
+	 */
+	public boolean waitUntilSearchDone(long timeoutInMs) throws RemoteException,
+	        InterruptedException;
+
+	/**
+	 * Reset the client after a search is done, so that a new search on the
+	 * given class can be started with {@link #startNewSearch()}
+	 * 
+	 * @param targetClass  the class to generate tests for in the next search
+	 * @param projectPrefix  the project prefix given to the master, might be <code>null</code>
+	 * @return <code>false</code> if the client should rather be replaced by a fresh process, eg,
+	 * 			because it is leaking memory
+	 * @throws RemoteException
+	 */
+	public boolean prepareNextSearch(String targetClass, String projectPrefix) throws RemoteException;
+
+	/**
+	 * Let a client that is reused for several searches terminate
+	 * 
+	 * @throws RemoteException
+	 */
+	public void release() throws RemoteException;
+
 	public void doCoverageAnalysis() throws RemoteException;
 	
 	public void doDependencyAnalysis(String fileName) throws RemoteException;
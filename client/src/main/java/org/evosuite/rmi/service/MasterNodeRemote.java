@@ -50,6 +50,8 @@ public interface MasterNodeRemote extends Remote {
 
 	public void evosuite_collectStatistics(String clientRmiIdentifier, RuntimeVariable variable, Object value) throws RemoteException;
 
+	public void evosuite_collectStatistics(String clientRmiIdentifier, StatisticsBatch batch) throws RemoteException;
+
 	public void evosuite_collectTestGenerationResult(String clientRmiIdentifier, List<TestGenerationResult> results) throws RemoteException;
 
 	public void evosuite_flushStatisticsForClassChange(String clientRmiIdentifier) throws RemoteException;
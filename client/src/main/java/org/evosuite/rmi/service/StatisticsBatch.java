@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.RuntimeVariable;
+
+/**
+ * A group of statistics updates sent from a client to the master with a
+ * single remote call. The output variables are kept in the order in which
+ * they were tracked. Of all the individuals sent by the client in the
+ * meantime only the latest one is kept, as the master only needs the
+ * current best individual.
+ */
+public class StatisticsBatch implements Serializable {
+
+	private static final long serialVersionUID = -3528937418066403384L;
+
+	private final List<RuntimeVariable> variables = new ArrayList<RuntimeVariable>();
+
+	private final List<Object> values = new ArrayList<Object>();
+
+	private Chromosome individual = null;
+
+	/**
+	 * Number of output variables tracked before {@link #individual}
+	 */
+	private int individualPosition = 0;
+
+	public void addOutputVariable(RuntimeVariable variable, Object value) {
+		variables.add(variable);
+		values.add(value);
+	}
+
+	/**
+	 * Set the current best individual, replacing any individual added before
+	 * 
+	 * @param individual
+	 */
+	public void setIndividual(Chromosome individual) {
+		this.individual = individual;
+		this.individualPosition = variables.size();
+	}
+
+	public Chromosome getIndividual() {
+		return individual;
+	}
+
+	public int getIndividualPosition() {
+		return individualPosition;
+	}
+
+	public int getNumberOfOutputVariables() {
+		return variables.size();
+	}
+
+	public RuntimeVariable getOutputVariable(int index) {
+		return variables.get(index);
+	}
+
+	public Object getOutputVariableValue(int index) {
+		return values.get(index);
+	}
+
+	public boolean isEmpty() {
+		return individual == null && variables.isEmpty();
+	}
+}
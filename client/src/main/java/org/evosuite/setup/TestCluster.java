@@ -46,6 +46,7 @@ import org.evosuite.utils.generic.GenericAccessibleObject;
 import org.evosuite.utils.generic.GenericClass;
 import org.evosuite.utils.generic.GenericConstructor;
 import org.evosuite.utils.generic.GenericMethod;
+import org.evosuite.utils.generic.GenericTypeCache;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -116,6 +117,7 @@ public class TestCluster {
 		generatorCache.clear();
 		modifiers.clear();
 		CastClassManager.getInstance().clear();
+		GenericTypeCache.clear();
 
 		instance = null;
 	}
@@ -0,0 +1,318 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.RealConstraint;
+import org.evosuite.symbolic.expr.StringConstraint;
+import org.evosuite.symbolic.solver.smt.ExprToSmtVisitor;
+import org.evosuite.symbolic.solver.smt.SmtBooleanConstant;
+import org.evosuite.symbolic.solver.smt.SmtExpr;
+import org.evosuite.symbolic.solver.smt.SmtExprPrinter;
+import org.evosuite.symbolic.solver.smt.SmtExprVisitor;
+import org.evosuite.symbolic.solver.smt.SmtIntConstant;
+import org.evosuite.symbolic.solver.smt.SmtIntVariable;
+import org.evosuite.symbolic.solver.smt.SmtOperation;
+import org.evosuite.symbolic.solver.smt.SmtRealConstant;
+import org.evosuite.symbolic.solver.smt.SmtRealVariable;
+import org.evosuite.symbolic.solver.smt.SmtStringConstant;
+import org.evosuite.symbolic.solver.smt.SmtStringVariable;
+import org.evosuite.symbolic.solver.smt.SmtVariable;
+import org.evosuite.symbolic.vm.ConstraintNormalizer;
+
+/**
+ * A constraint system in a canonical textual form, used as key by the
+ * {@link SolverCache}.
+ * 
+ * Every constraint is normalized with the {@link ConstraintNormalizer} and
+ * translated into its SMT form. Duplicated constraints are removed, the
+ * remaining ones are sorted by their shape (i.e., ignoring variable names), and
+ * variables are renamed in order of their first occurrence. Thus, two path
+ * conditions that only differ in the order of their constraints or in the
+ * names of their variables share the same key.
+ * 
+ * If a constraint cannot be translated, the query has no canonical form and
+ * the set of original constraints is used as key instead.
+ */
+final class CanonicalQuery {
+
+	private static final String CANONICAL_VARIABLE_PREFIX = "v";
+
+	private final Object key;
+
+	/**
+	 * canonical variable name -> original variable name
+	 */
+	private final Map<String, String> canonicalToOriginal;
+
+	/**
+	 * original variable name -> canonical variable name
+	 */
+	private final Map<String, String> originalToCanonical;
+
+	private CanonicalQuery(Object key, Map<String, String> originalToCanonical) {
+		this.key = key;
+		this.originalToCanonical = originalToCanonical;
+		this.canonicalToOriginal = new HashMap<String, String>();
+		for (Entry<String, String> entry : originalToCanonical.entrySet()) {
+			canonicalToOriginal.put(entry.getValue(), entry.getKey());
+		}
+	}
+
+	/**
+	 * Builds the canonical form of the given constraint system
+	 * 
+	 * @param constraints
+	 * @return
+	 */
+	public static CanonicalQuery build(Collection<Constraint<?>> constraints) {
+		// sorted by shape, ties are broken by the original text
+		TreeMap<String, SmtConstraint> sorted = new TreeMap<String, SmtConstraint>();
+		Set<String> seen = new HashSet<String>();
+		CanonicalPrinter originalPrinter = new CanonicalPrinter(false, null);
+		CanonicalPrinter shapePrinter = new CanonicalPrinter(true, null);
+		for (Constraint<?> constraint : constraints) {
+			SmtConstraint c = SmtConstraint.build(constraint);
+			if (c == null) {
+				Set<Constraint<?>> rawKey = new HashSet<Constraint<?>>(constraints);
+				return new CanonicalQuery(rawKey, Collections.<String, String> emptyMap());
+			}
+			String original = c.print(originalPrinter);
+			if (!seen.add(original)) {
+				// duplicated constraint
+				continue;
+			}
+			sorted.put(c.print(shapePrinter) + "#" + original, c);
+		}
+
+		Map<String, String> renaming = new HashMap<String, String>();
+		CanonicalPrinter printer = new CanonicalPrinter(false, renaming);
+		StringBuilder key = new StringBuilder();
+		for (SmtConstraint c : sorted.values()) {
+			key.append(c.print(printer));
+			key.append("\n");
+		}
+		return new CanonicalQuery(key.toString(), renaming);
+	}
+
+	/**
+	 * Whether the constraints could be brought into their canonical form.
+	 * Only canonical queries can be persisted.
+	 * 
+	 * @return
+	 */
+	public boolean isCanonical() {
+		return key instanceof String;
+	}
+
+	/**
+	 * The key identifying this query
+	 * 
+	 * @return
+	 */
+	public Object getKey() {
+		return key;
+	}
+
+	/**
+	 * Renames the variables of a result of the original query to their
+	 * canonical names.
+	 * 
+	 * @param result
+	 * @return
+	 */
+	public SolverResult toCanonical(SolverResult result) {
+		return rename(result, originalToCanonical);
+	}
+
+	/**
+	 * Renames the variables of a result of the canonical query to the names
+	 * used by the original query.
+	 * 
+	 * @param result
+	 * @return
+	 */
+	public SolverResult fromCanonical(SolverResult result) {
+		return rename(result, canonicalToOriginal);
+	}
+
+	private SolverResult rename(SolverResult result, Map<String, String> renaming) {
+		if (!isCanonical() || !result.isSAT()) {
+			return result;
+		}
+		Map<String, Object> model = new HashMap<String, Object>();
+		for (Entry<String, Object> entry : result.getModel().entrySet()) {
+			String name = renaming.get(entry.getKey());
+			if (name != null) {
+				model.put(name, entry.getValue());
+			}
+		}
+		return SolverResult.newSAT(model);
+	}
+
+	/**
+	 * A normalized constraint with both operands translated to SMT
+	 */
+	private static final class SmtConstraint {
+
+		private final String prefix;
+
+		private final SmtExpr left;
+
+		private final SmtExpr right;
+
+		private SmtConstraint(String prefix, SmtExpr left, SmtExpr right) {
+			this.prefix = prefix;
+			this.left = left;
+			this.right = right;
+		}
+
+		/**
+		 * Returns null if the constraint cannot be translated
+		 */
+		public static SmtConstraint build(Constraint<?> constraint) {
+			Constraint<?> c = constraint;
+			try {
+				if (c instanceof IntegerConstraint) {
+					c = ConstraintNormalizer.normalize((IntegerConstraint) c);
+				}
+				ExprToSmtVisitor visitor = new ExprToSmtVisitor();
+				SmtExpr left = c.getLeftOperand().accept(visitor, null);
+				SmtExpr right = c.getRightOperand().accept(visitor, null);
+				if (left == null || right == null) {
+					return null;
+				}
+				return new SmtConstraint(getType(c) + "(" + c.getComparator().toString(), left, right);
+			} catch (RuntimeException ex) {
+				return null;
+			}
+		}
+
+		private static String getType(Constraint<?> c) {
+			if (c instanceof StringConstraint) {
+				return "S";
+			} else if (c instanceof RealConstraint) {
+				return "R";
+			} else {
+				return "I";
+			}
+		}
+
+		public String print(CanonicalPrinter printer) {
+			return prefix + " " + left.accept(printer, null) + " " + right.accept(printer, null) + ")";
+		}
+	}
+
+	/**
+	 * Prints an SMT expression. Variables are either printed as anonymous
+	 * placeholders, renamed in order of their first occurrence, or printed
+	 * with their original names if there is no renaming.
+	 */
+	private static final class CanonicalPrinter implements SmtExprVisitor<String, Void> {
+
+		private static final SmtExprPrinter constantPrinter = new SmtExprPrinter();
+
+		private final boolean anonymous;
+
+		private final Map<String, String> renaming;
+
+		public CanonicalPrinter(boolean anonymous, Map<String, String> renaming) {
+			this.anonymous = anonymous;
+			this.renaming = renaming;
+		}
+
+		private String visitVariable(SmtVariable n, String placeholder) {
+			if (anonymous) {
+				return placeholder;
+			}
+			if (renaming == null) {
+				return n.getName();
+			}
+			String name = renaming.get(n.getName());
+			if (name == null) {
+				name = CANONICAL_VARIABLE_PREFIX + renaming.size();
+				renaming.put(n.getName(), name);
+			}
+			return name;
+		}
+
+		@Override
+		public String visit(SmtBooleanConstant n, Void arg) {
+			return constantPrinter.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtIntConstant n, Void arg) {
+			return constantPrinter.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtRealConstant n, Void arg) {
+			return constantPrinter.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtStringConstant n, Void arg) {
+			return constantPrinter.visit(n, arg);
+		}
+
+		@Override
+		public String visit(SmtIntVariable n, Void arg) {
+			return visitVariable(n, "?Int");
+		}
+
+		@Override
+		public String visit(SmtRealVariable n, Void arg) {
+			return visitVariable(n, "?Real");
+		}
+
+		@Override
+		public String visit(SmtStringVariable n, Void arg) {
+			return visitVariable(n, "?String");
+		}
+
+		@Override
+		public String visit(SmtOperation n, Void arg) {
+			SmtExpr[] arguments = n.getArguments();
+			if (arguments.length == 0) {
+				return n.getOperator().toString();
+			}
+			StringBuilder result = new StringBuilder();
+			result.append("(");
+			result.append(n.getOperator().toString());
+			for (SmtExpr argument : arguments) {
+				result.append(" ");
+				result.append(argument.accept(this, null));
+			}
+			result.append(")");
+			return result.toString();
+		}
+	}
+}
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import org.apache.commons.exec.ExecuteException;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
 import org.evosuite.utils.ProcessLauncher;
 import org.evosuite.utils.ProcessTimeoutException;
 
@@ -82,4 +83,26 @@ public abstract class SmtSolver extends Solver {
 
 	}
 
+	/**
+	 * Solves the query using the long-lived solver process launched with the
+	 * given command. The output of the solver is written to
+	 * <code>stdout</code> as if the query had been fed to a new process.
+	 * 
+	 * @param solverCmd
+	 *            a command that launches the solver in incremental mode
+	 * @param query
+	 * @param hardTimeout
+	 * @param stdout
+	 * @throws IOException
+	 * @throws SolverTimeoutException
+	 * @throws SolverErrorException
+	 */
+	protected static void launchSolvingSession(String solverCmd, SmtQuery query, int hardTimeout, OutputStream stdout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+
+		SmtSolverSession session = SmtSolverSession.getSession(solverCmd);
+		String output = session.solve(query, hardTimeout);
+		stdout.write(output.getBytes("UTF-8"));
+	}
+
 }
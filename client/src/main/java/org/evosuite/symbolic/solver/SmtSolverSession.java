@@ -0,0 +1,427 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.exec.CommandLine;
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtConstantDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDefinition;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A long-lived SMT solver process that is fed queries over its standard input.
+ * </p>
+ *
+ * <p>
+ * Every assertion of the current query lives in its own <code>(push)</code>
+ * scope. When a new query arrives, only the scopes after the longest common
+ * prefix of assertions are popped, and only the remaining assertions are
+ * asserted. Successive path conditions produced by DSE share most of their
+ * assertions, so the solver re-uses the work done on the prefix instead of
+ * starting from scratch in a new process.
+ * </p>
+ *
+ * <p>
+ * The session runs with <code>:print-success</code> enabled, so each command
+ * is answered with exactly one response, and any unexpected response
+ * terminates the process. A new process is started on the next query.
+ * </p>
+ */
+public final class SmtSolverSession {
+
+	private static final Logger logger = LoggerFactory.getLogger(SmtSolverSession.class);
+
+	private static final String SUCCESS = "success";
+
+	private static final Map<String, SmtSolverSession> sessions = new HashMap<String, SmtSolverSession>();
+
+	/**
+	 * A push scope holding (at most) one assertion and the declarations that
+	 * were needed for it
+	 */
+	private static final class Scope {
+		private final String assertion;
+		private final Set<String> declarations;
+
+		Scope(String assertion, Set<String> declarations) {
+			this.assertion = assertion;
+			this.declarations = declarations;
+		}
+	}
+
+	private final String solverCmd;
+
+	private final SmtQueryPrinter printer = new SmtQueryPrinter();
+
+	private final List<Scope> scopes = new ArrayList<Scope>();
+
+	private final Set<String> liveDeclarations = new LinkedHashSet<String>();
+
+	private Process process = null;
+
+	private Writer stdin = null;
+
+	private BufferedReader stdout = null;
+
+	private ExecutorService reader = null;
+
+	private String preamble = null;
+
+	private int numberOfQueries = 0;
+
+	private int numberOfReusedAssertions = 0;
+
+	private SmtSolverSession(String solverCmd) {
+		this.solverCmd = solverCmd;
+	}
+
+	/**
+	 * Returns the session for the given solver command, creating it if
+	 * necessary. The solver process itself is only launched on the first
+	 * query.
+	 *
+	 * @param solverCmd
+	 *            the command line used to launch the solver in incremental
+	 *            mode, reading from its standard input
+	 * @return
+	 */
+	public static synchronized SmtSolverSession getSession(String solverCmd) {
+		SmtSolverSession session = sessions.get(solverCmd);
+		if (session == null) {
+			session = new SmtSolverSession(solverCmd);
+			sessions.put(solverCmd, session);
+		}
+		return session;
+	}
+
+	/**
+	 * Terminates all running solver processes
+	 */
+	public static synchronized void closeAll() {
+		for (SmtSolverSession session : sessions.values()) {
+			session.close();
+		}
+		sessions.clear();
+	}
+
+	/**
+	 * Solves the query and returns the solver output in the same format a
+	 * solver process fed with the whole query would have produced: the outcome
+	 * of <code>(check-sat)</code> followed by the model if the query is SAT.
+	 *
+	 * @param query
+	 * @param hardTimeout
+	 *            maximum number of milliseconds to wait for each response
+	 * @return
+	 * @throws IOException
+	 * @throws SolverTimeoutException
+	 * @throws SolverErrorException
+	 */
+	public synchronized String solve(SmtQuery query, long hardTimeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		long solver_start_time_millis = System.currentTimeMillis();
+		try {
+			String queryPreamble = printPreamble(query);
+			if (process == null || !queryPreamble.equals(preamble)) {
+				close();
+				start(queryPreamble, hardTimeout);
+			}
+
+			List<String> assertions = new ArrayList<String>(query.getAssertions().size());
+			for (SmtAssertion assertion : query.getAssertions()) {
+				assertions.add(printer.print(assertion));
+			}
+
+			int commonPrefix = 0;
+			while (commonPrefix < scopes.size() && commonPrefix < assertions.size()
+					&& assertions.get(commonPrefix).equals(scopes.get(commonPrefix).assertion)) {
+				commonPrefix++;
+			}
+			popScopes(scopes.size() - commonPrefix, hardTimeout);
+			numberOfReusedAssertions += commonPrefix;
+			numberOfQueries++;
+
+			Set<String> missingDeclarations = new LinkedHashSet<String>(printDeclarations(query));
+			missingDeclarations.removeAll(liveDeclarations);
+			if (commonPrefix == assertions.size() && !missingDeclarations.isEmpty()) {
+				pushScope(null, missingDeclarations, hardTimeout);
+			}
+			for (int i = commonPrefix; i < assertions.size(); i++) {
+				pushScope(assertions.get(i), missingDeclarations, hardTimeout);
+				missingDeclarations = new LinkedHashSet<String>();
+			}
+
+			String outcome = command("(check-sat)", hardTimeout);
+			if (outcome.equals("sat")) {
+				String model = command("(get-model)", hardTimeout);
+				return outcome + "\n" + model + "\n";
+			} else if (outcome.equals("unsat") || outcome.equals("unknown")) {
+				return outcome + "\n";
+			} else {
+				close();
+				throw new SolverErrorException("Unexpected solver response to (check-sat): " + outcome);
+			}
+		} finally {
+			long solver_end_time_millis = System.currentTimeMillis();
+			logger.debug("Incremental solver execution time was {}ms", solver_end_time_millis - solver_start_time_millis);
+		}
+	}
+
+	/**
+	 * Number of queries answered by this session
+	 *
+	 * @return
+	 */
+	public synchronized int getNumberOfQueries() {
+		return numberOfQueries;
+	}
+
+	/**
+	 * Number of assertions that were not re-sent to the solver because they
+	 * were shared with the previous query
+	 *
+	 * @return
+	 */
+	public synchronized int getNumberOfReusedAssertions() {
+		return numberOfReusedAssertions;
+	}
+
+	/**
+	 * Terminates the solver process of this session (if any)
+	 */
+	public synchronized void close() {
+		if (process != null) {
+			try {
+				stdin.write("(exit)\n");
+				stdin.flush();
+			} catch (IOException e) {
+				// the process might already be dead
+			}
+			process.destroy();
+			reader.shutdownNow();
+		}
+		process = null;
+		stdin = null;
+		stdout = null;
+		reader = null;
+		preamble = null;
+		scopes.clear();
+		liveDeclarations.clear();
+	}
+
+	private void start(String queryPreamble, long hardTimeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		logger.debug("Launching incremental solver process " + solverCmd);
+		CommandLine cmdLine = CommandLine.parse(solverCmd);
+		List<String> cmd = new ArrayList<String>();
+		cmd.add(cmdLine.getExecutable());
+		for (String argument : cmdLine.getArguments()) {
+			cmd.add(argument);
+		}
+		ProcessBuilder builder = new ProcessBuilder(cmd);
+		builder.redirectErrorStream(true);
+		process = builder.start();
+		stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+		stdout = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		reader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "SMT_SOLVER_SESSION_READER");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		preamble = queryPreamble;
+
+		command("(set-option :print-success true)", hardTimeout);
+		for (String line : queryPreamble.split("\n")) {
+			expectSuccess(line, hardTimeout);
+		}
+	}
+
+	private String printPreamble(SmtQuery query) {
+		StringBuilder buff = new StringBuilder();
+		// options such as :produce-models can only be set before the logic
+		for (String optionName : query.getOptions()) {
+			buff.append(String.format("(set-option %s %s)\n", optionName, query.getOptionValue(optionName)));
+		}
+		if (query.hasLogic()) {
+			buff.append("(set-logic " + query.getLogic() + ")\n");
+		}
+		return buff.toString();
+	}
+
+	private List<String> printDeclarations(SmtQuery query) {
+		List<String> declarations = new ArrayList<String>();
+		for (SmtConstantDeclaration constantDeclaration : query.getConstantDeclarations()) {
+			declarations.add(printer.print(constantDeclaration));
+		}
+		for (SmtFunctionDeclaration functionDeclaration : query.getFunctionDeclarations()) {
+			declarations.add(printer.print(functionDeclaration));
+		}
+		for (SmtFunctionDefinition functionDefinition : query.getFunctionDefinitions()) {
+			declarations.add(printer.print(functionDefinition));
+		}
+		return declarations;
+	}
+
+	private void pushScope(String assertion, Set<String> declarations, long hardTimeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		expectSuccess("(push 1)", hardTimeout);
+		scopes.add(new Scope(assertion, declarations));
+		for (String declaration : declarations) {
+			expectSuccess(declaration, hardTimeout);
+			liveDeclarations.add(declaration);
+		}
+		if (assertion != null) {
+			expectSuccess(assertion, hardTimeout);
+		}
+	}
+
+	private void popScopes(int n, long hardTimeout) throws IOException, SolverTimeoutException, SolverErrorException {
+		if (n == 0) {
+			return;
+		}
+		expectSuccess("(pop " + n + ")", hardTimeout);
+		for (int i = 0; i < n; i++) {
+			Scope scope = scopes.remove(scopes.size() - 1);
+			liveDeclarations.removeAll(scope.declarations);
+		}
+	}
+
+	private void expectSuccess(String cmd, long hardTimeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		String response = command(cmd, hardTimeout);
+		if (!response.equals(SUCCESS)) {
+			logger.debug("Solver command " + cmd + " failed with " + response);
+			close();
+			throw new SolverErrorException("Solver command failed with response " + response);
+		}
+	}
+
+	private String command(String cmd, long hardTimeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		try {
+			stdin.write(cmd);
+			stdin.write("\n");
+			stdin.flush();
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+
+		Future<String> response = reader.submit(new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				return readResponse();
+			}
+		});
+		try {
+			String str = response.get(hardTimeout, TimeUnit.MILLISECONDS);
+			if (str == null) {
+				close();
+				throw new SolverErrorException("Solver process terminated unexpectedly");
+			}
+			return str;
+		} catch (TimeoutException e) {
+			logger.debug("Solver stopped due to solver timeout");
+			close();
+			throw new SolverTimeoutException();
+		} catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			throw new SolverErrorException("Interrupted while waiting for the solver");
+		} catch (ExecutionException e) {
+			close();
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new SolverErrorException("Solver subprocesses failed");
+		}
+	}
+
+	/**
+	 * Reads either a symbol or a complete s-expression from the output of the
+	 * solver.
+	 *
+	 * @return the response or <code>null</code> if the stream was closed
+	 * @throws IOException
+	 */
+	private String readResponse() throws IOException {
+		StringBuilder buff = new StringBuilder();
+		int depth = 0;
+		boolean inString = false;
+		int c;
+		while ((c = stdout.read()) != -1) {
+			char ch = (char) c;
+			if (buff.length() == 0 && Character.isWhitespace(ch)) {
+				continue;
+			}
+			if (inString) {
+				buff.append(ch);
+				if (ch == '"') {
+					inString = false;
+				}
+				continue;
+			}
+			if (depth == 0 && buff.length() > 0 && buff.charAt(0) != '(' && Character.isWhitespace(ch)) {
+				return buff.toString();
+			}
+			buff.append(ch);
+			if (ch == '"') {
+				inString = true;
+			} else if (ch == '(') {
+				depth++;
+			} else if (ch == ')') {
+				depth--;
+				if (depth == 0) {
+					return buff.toString();
+				}
+			}
+		}
+		return buff.length() > 0 ? buff.toString() : null;
+	}
+}
@@ -19,23 +19,104 @@
  */
 package org.evosuite.symbolic.solver;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.Constraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Caches the results of the constraint solver.
+ * 
+ * Queries are looked up by their {@link CanonicalQuery} key, so that
+ * equivalent path conditions (i.e., modulo constraint order and variable
+ * names) share one entry. The cache is bounded by
+ * {@link Properties#DSE_SOLVER_CACHE_SIZE} and evicts the least recently used
+ * entries. Queries that miss the cache are checked for subsumption: a query
+ * containing all constraints of a known UNSAT query is UNSAT, and a model of
+ * a recent SAT query that also satisfies the new query is reused.
+ * 
+ * The cache may be shared by several threads. Results of canonical queries
+ * can be persisted across runs in {@link Properties#DSE_SOLVER_CACHE_FILE}.
+ */
 public final class SolverCache {
 
+	private static final Logger logger = LoggerFactory.getLogger(SolverCache.class);
+
+	/**
+	 * Maximum number of UNSAT constraint systems checked for subsumption
+	 */
+	private static final int MAX_UNSAT_CORES = 256;
+
 	/**
+	 * Maximum number of recent SAT models tried on a new query
+	 */
+	private static final int MAX_RECENT_MODELS = 32;
+
+	private static final String FILE_FORMAT_VERSION = "evosuite-solver-cache-1";
+
+	private static final SolverCache instance = new SolverCache();
+
+	private final LinkedHashMap<Object, SolverResult> cached_solver_results = new LinkedHashMap<Object, SolverResult>(
+	        16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, SolverResult> eldest) {
+			return size() > Properties.DSE_SOLVER_CACHE_SIZE;
+		}
+	};
+
+	private final LinkedList<Set<Constraint<?>>> unsat_cores = new LinkedList<Set<Constraint<?>>>();
+
+	private final LinkedList<SolverResult> recent_models = new LinkedList<SolverResult>();
+
+	private int cached_sat_result_count = 0;
+	private int cached_unsat_result_count = 0;
+
+	private int number_of_accesses = 0;
+	private int number_of_hits = 0;
+
+	private boolean loaded = false;
+
+	private SolverCache() {
+		/* empty constructor */
+	}
+
+	public static SolverCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the cached result for the constraints, or solves them with the
+	 * given solver and caches the result. The solver is not invoked while
+	 * holding the lock of the cache.
 	 * 
 	 * @param solver
 	 * @param constraints
-	 * @return 
+	 * @return the result, or null if the solver failed
 	 */
 	public SolverResult solve(Solver solver, Collection<Constraint<?>> constraints) {
-		if (hasCachedResult(constraints)) {
-			SolverResult cached_solution = getCachedResult();
+		CanonicalQuery query = CanonicalQuery.build(constraints);
+		Object key = getKey(solver, query);
+
+		SolverResult cached_solution = getCachedResult(key, query, constraints);
+		if (cached_solution != null) {
 			return cached_solution;
 		}
 
@@ -43,9 +124,9 @@ public final class SolverCache {
 		try {
 			solverResult = solver.solve(constraints);
 			if (solverResult.isUNSAT()) {
-				addUNSAT(constraints, solverResult);
+				addUNSAT(key, constraints, solverResult);
 			} else {
-				addSAT(constraints, solverResult);
+				addSAT(key, query, solverResult);
 			}
 		} catch (SolverTimeoutException | IOException | SolverParseException | SolverEmptyQueryException
 				| SolverErrorException e) {
@@ -56,76 +137,175 @@ public final class SolverCache {
 
 	}
 
-	private static final SolverCache instance = new SolverCache();
-
-	private HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<Collection<Constraint<?>>, SolverResult>();
-	private int cached_sat_result_count = 0;
-	private int cached_unsat_result_count = 0;
+	/**
+	 * Results depend on the solver (e.g., the AVM solver may fail on
+	 * satisfiable constraints), thus canonical keys are qualified by the
+	 * solver type
+	 */
+	private static Object getKey(Solver solver, CanonicalQuery query) {
+		if (query.isCanonical()) {
+			return solver.getClass().getSimpleName() + "\n" + query.getKey();
+		} else {
+			return query.getKey();
+		}
+	}
 
-	public int getNumberOfUNSATs() {
+	public synchronized int getNumberOfUNSATs() {
 		return cached_unsat_result_count;
 	}
 
-	public int getNumberOfSATs() {
+	public synchronized int getNumberOfSATs() {
 		return cached_sat_result_count;
 	}
 
-	private int number_of_accesses = 0;
-	private int number_of_hits = 0;
-
-	private SolverCache() {
-		/* empty constructor */
-	}
-
-	public static SolverCache getInstance() {
-		return instance;
+	public synchronized int size() {
+		return cached_solver_results.size();
 	}
 
-	private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-		cached_solver_results.put(unsat_constraints, unsatResult);
+	private synchronized void addUNSAT(Object key, Collection<Constraint<?>> unsat_constraints,
+	        SolverResult unsatResult) {
+		cached_solver_results.put(key, unsatResult);
 		cached_unsat_result_count++;
+
+		unsat_cores.addFirst(new HashSet<Constraint<?>>(unsat_constraints));
+		if (unsat_cores.size() > MAX_UNSAT_CORES) {
+			unsat_cores.removeLast();
+		}
 	}
 
-	private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-		cached_solver_results.put(sat_constraints, satResult);
+	private synchronized void addSAT(Object key, CanonicalQuery query, SolverResult satResult) {
+		cached_solver_results.put(key, query.toCanonical(satResult));
 		cached_sat_result_count++;
-	}
 
-	private boolean valid_cached_solution = false;
-	private SolverResult cached_solution = null;
+		recent_models.addFirst(satResult);
+		if (recent_models.size() > MAX_RECENT_MODELS) {
+			recent_models.removeLast();
+		}
+	}
 
-	private boolean hasCachedResult(Collection<Constraint<?>> constraints) {
+	/**
+	 * Looks up the query, first by key, then by subsumption. Returns null on a
+	 * cache miss.
+	 */
+	private synchronized SolverResult getCachedResult(Object key, CanonicalQuery query,
+	        Collection<Constraint<?>> constraints) {
+		loadFromFileIfNeeded();
 		number_of_accesses++;
 
-		if (this.cached_solver_results.containsKey(constraints)) {
-			valid_cached_solution = true;
-			cached_solution = this.cached_solver_results.get(constraints);
+		SolverResult result = cached_solver_results.get(key);
+		if (result != null) {
 			number_of_hits++;
-			return true;
-		} else {
-			valid_cached_solution = false;
+			return query.fromCanonical(result);
+		}
+
+		Set<Constraint<?>> constraintSet = new HashSet<Constraint<?>>(constraints);
+		for (Set<Constraint<?>> core : unsat_cores) {
+			if (constraintSet.containsAll(core)) {
+				number_of_hits++;
+				return SolverResult.newUNSAT();
+			}
+		}
+
+		Iterator<SolverResult> it = recent_models.iterator();
+		while (it.hasNext()) {
+			SolverResult model = it.next();
+			if (satisfies(constraints, model)) {
+				number_of_hits++;
+				// keep the model that was useful
+				it.remove();
+				recent_models.addFirst(model);
+				return model;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean satisfies(Collection<Constraint<?>> constraints, SolverResult model) {
+		try {
+			return Solver.checkSAT(constraints, model);
+		} catch (RuntimeException ex) {
+			// the constraint evaluator does not support all expressions
 			return false;
 		}
 	}
 
-	public double getHitRate() {
+	public synchronized double getHitRate() {
 		return (double) this.number_of_hits / (double) this.number_of_accesses;
 	}
 
 	/**
-	 * If not in cache returns IllegalArgumentException()
-	 * 
-	 * @param constraints
-	 * @return
+	 * Removes all cached results. Persisted results are loaded again on the
+	 * next access.
 	 */
-	public SolverResult getCachedResult() {
+	public synchronized void clear() {
+		loaded = false;
+		cached_solver_results.clear();
+		unsat_cores.clear();
+		recent_models.clear();
+		cached_sat_result_count = 0;
+		cached_unsat_result_count = 0;
+		number_of_accesses = 0;
+		number_of_hits = 0;
+	}
 
-		if (valid_cached_solution == false) {
-			throw new IllegalArgumentException("The constraint is not cached!");
+	private void loadFromFileIfNeeded() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (Properties.DSE_SOLVER_CACHE_FILE == null || Properties.DSE_SOLVER_CACHE_FILE.isEmpty()) {
+			return;
 		}
+		File file = new File(Properties.DSE_SOLVER_CACHE_FILE);
+		if (!file.exists()) {
+			return;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+			String version = (String) in.readObject();
+			if (!FILE_FORMAT_VERSION.equals(version)) {
+				logger.info("Ignoring solver cache file with unknown format " + version);
+				return;
+			}
+			@SuppressWarnings("unchecked")
+			Map<String, SolverResult> persisted = (Map<String, SolverResult>) in.readObject();
+			cached_solver_results.putAll(persisted);
+			logger.debug("Loaded {} solver results from {}", persisted.size(), file);
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			logger.warn("Could not load solver cache from " + file + ": " + e.getMessage());
+		}
+	}
 
-		valid_cached_solution = false;
-		return this.cached_solution;
+	/**
+	 * Writes the results of all canonical queries to
+	 * {@link Properties#DSE_SOLVER_CACHE_FILE}, if set
+	 */
+	public synchronized void saveToFile() {
+		if (Properties.DSE_SOLVER_CACHE_FILE == null || Properties.DSE_SOLVER_CACHE_FILE.isEmpty()) {
+			return;
+		}
+		loadFromFileIfNeeded();
+		HashMap<String, SolverResult> persisted = new HashMap<String, SolverResult>();
+		for (Entry<Object, SolverResult> entry : cached_solver_results.entrySet()) {
+			if (entry.getKey() instanceof String) {
+				persisted.put((String) entry.getKey(), entry.getValue());
+			}
+		}
+		File file = new File(Properties.DSE_SOLVER_CACHE_FILE);
+		File tmp = new File(file.getPath() + ".tmp");
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(tmp))) {
+			out.writeObject(FILE_FORMAT_VERSION);
+			out.writeObject(persisted);
+		} catch (IOException e) {
+			logger.warn("Could not write solver cache to " + file + ": " + e.getMessage());
+			return;
+		}
+		if (!tmp.renameTo(file)) {
+			file.delete();
+			if (!tmp.renameTo(file)) {
+				logger.warn("Could not write solver cache to " + file);
+			}
+		}
 	}
 
 }
@@ -131,11 +131,15 @@ public final class CVC4Solver extends SmtSolver {
 		logger.debug("CVC4 Query:");
 		logger.debug(smtQueryStr);
 
-		String cmd = buildCVC4cmd(cvcTimeout);
-
 		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 		try {
-			launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+			if (Properties.DSE_INCREMENTAL_SOLVER) {
+				String cmd = buildIncrementalCVC4cmd(cvcTimeout);
+				launchSolvingSession(cmd, query, (int) cvcTimeout, stdout);
+			} else {
+				String cmd = buildCVC4cmd(cvcTimeout);
+				launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+			}
 			String output = stdout.toString("UTF-8");
 
 			if (output.startsWith("unknown")) {
@@ -280,6 +284,21 @@ public final class CVC4Solver extends SmtSolver {
 		return cmd;
 	}
 
+	/**
+	 * The same options as {@link #buildCVC4cmd(long)}, but the time limit is
+	 * enforced on each query instead of the whole process, and push/pop is
+	 * enabled
+	 */
+	private static String buildIncrementalCVC4cmd(long cvcTimeout) {
+		String cmd = Properties.CVC4_PATH;
+		cmd += " --rewrite-divk";
+		cmd += " --lang smt";
+		cmd += " --finite-model-find";
+		cmd += " --incremental";
+		cmd += " --tlimit-per=" + cvcTimeout;
+		return cmd;
+	}
+
 	private static boolean hasNonLinearConstraints(Collection<Constraint<?>> constraints) {
 		NonLinearConstraintVisitor v = new NonLinearConstraintVisitor();
 		for (Constraint<?> constraint : constraints) {
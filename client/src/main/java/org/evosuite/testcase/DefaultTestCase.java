@@ -361,12 +361,20 @@ public class DefaultTestCase implements TestCase, Serializable {
 		}
 		*/
 
+		/*
+		 * Copying a statement looks up the positions of all variables it uses.
+		 * Knowing them upfront makes cloning linear in the size of the test,
+		 * rather than quadratic.
+		 */
+		cacheVariablePositions();
+
 		for (Statement s : statements) {
 			Statement copy = s.clone(t);
 			t.statements.add(copy);
 			copy.setRetval(s.getReturnValue().clone(t));
 			copy.setAssertions(s.copyAssertions(t, 0));
 		}
+		t.cacheVariablePositions();
 		t.coveredGoals.addAll(coveredGoals);
 		t.accessedEnvironment.copyFrom(accessedEnvironment);
 		t.isFailing = isFailing;
@@ -376,6 +384,15 @@ public class DefaultTestCase implements TestCase, Serializable {
 		return t;
 	}
 
+	private void cacheVariablePositions() {
+		// Backwards, as a variable is defined by the first statement returning it
+		for (int i = statements.size() - 1; i >= 0; i--) {
+			VariableReference var = statements.get(i).getReturnValue();
+			if (var instanceof VariableReferenceImpl && var.getTestCase() == this)
+				((VariableReferenceImpl) var).setStPosition(i);
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void deleteListener(Listener<Void> listener) {
@@ -434,9 +434,9 @@ public class ExecutionResult implements Cloneable {
 		copy.regressionObjectDistance = regressionObjectDistance;
 		copy.inputGoals = new LinkedHashMap<>(inputGoals);
 		copy.outputGoals = new LinkedHashMap<>(outputGoals);
-		for (Class<?> clazz : traces.keySet()) {
-			copy.traces.put(clazz, traces.get(clazz).clone());
-		}
+		// Output traces are copies taken from the observers once execution
+		// has finished and are never modified afterwards, so they are shared
+		copy.traces.putAll(traces);
 		if(readProperties!=null){
 			copy.readProperties = new LinkedHashSet<String>();
 			copy.readProperties.addAll(readProperties);
@@ -294,7 +294,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	 * addProxy
 	 * </p>
 	 */
-	public void addProxy() {
+	public synchronized void addProxy() {
 		proxyCount++;
 	}
 
@@ -303,10 +303,36 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	 * removeProxy
 	 * </p>
 	 */
-	public void removeProxy() {
+	public synchronized void removeProxy() {
 		proxyCount--;
 	}
 
+	/**
+	 * Detach one proxy from this trace before it writes to it. If the trace is
+	 * shared by other proxies, a private copy is returned and this trace keeps
+	 * serving the remaining proxies unchanged; otherwise the trace itself is
+	 * returned.
+	 * 
+	 * @return the trace the detaching proxy may modify
+	 */
+	public synchronized ExecutionTraceImpl detachProxy() {
+		if (proxyCount <= 1)
+			return this;
+		ExecutionTraceImpl copy = clone();
+		proxyCount--;
+		return copy;
+	}
+
+	/**
+	 * Whether method calls are still open on the call stack, i.e., whether
+	 * {@link #finishCalls()} would change this trace.
+	 * 
+	 * @return a boolean.
+	 */
+	public synchronized boolean hasUnfinishedCalls() {
+		return !stack.isEmpty();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * 
@@ -326,32 +352,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		}
 
 		if (traceCoverage) {
-			if (!coveredPredicates.containsKey(branch))
-				coveredPredicates.put(branch, 1);
-			else
-				coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
-
-			if (true_distance == 0.0) {
-				if (!coveredTrue.containsKey(branch))
-					coveredTrue.put(branch, 1);
-				else
-					coveredTrue.put(branch, coveredTrue.get(branch) + 1);
-
-			}
-
-			if (false_distance == 0.0) {
-				if (!coveredFalse.containsKey(branch))
-					coveredFalse.put(branch, 1);
-				else
-					coveredFalse.put(branch, coveredFalse.get(branch) + 1);
-			}
+			updateBranchCoverage(branch, true_distance, false_distance);
 		}
 
 		if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
 			if (gradientBranches.contains(branch)) {
-				if ((coveredTrue.containsKey(branch)))
+				if (isCoveredTrue(branch))
 					gradientBranchesCoveredTrue.add(branch);
-				if ((coveredFalse.containsKey(branch)))
+				if (isCoveredFalse(branch))
 					gradientBranchesCoveredFalse.add(branch);
 			}
 		}
@@ -364,8 +372,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 					.getInstruction().getASMNode().getPrevious() != null)
 				previousOpcode = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
 						.getBranch(branch).getInstruction().getASMNode().getPrevious().getOpcode();
-			boolean cTrue = coveredTrue.containsKey(branch);
-			boolean cFalse = coveredFalse.containsKey(branch);
+			boolean cTrue = isCoveredTrue(branch);
+			boolean cFalse = isCoveredFalse(branch);
 			switch (previousOpcode) {
 			case Opcodes.LCMP:
 				trackBranchOpcode(bytecodeInstructionReached, RuntimeVariable.Reached_lcmp, branch);
@@ -452,6 +460,58 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			}
 		}
 
+		updateBranchDistances(branch, true_distance, false_distance);
+
+		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
+				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH))) {
+			updateBranchContextMaps(branch, true_distance, false_distance);
+		}
+
+		// This requires a lot of memory and should not really be used
+		if (Properties.BRANCH_EVAL) {
+			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
+		}
+	}
+
+	/**
+	 * Count how often the predicate was executed, and how often each of its
+	 * outcomes was taken
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		if (!coveredPredicates.containsKey(branch))
+			coveredPredicates.put(branch, 1);
+		else
+			coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
+
+		if (true_distance == 0.0) {
+			if (!coveredTrue.containsKey(branch))
+				coveredTrue.put(branch, 1);
+			else
+				coveredTrue.put(branch, coveredTrue.get(branch) + 1);
+
+		}
+
+		if (false_distance == 0.0) {
+			if (!coveredFalse.containsKey(branch))
+				coveredFalse.put(branch, 1);
+			else
+				coveredFalse.put(branch, coveredFalse.get(branch) + 1);
+		}
+	}
+
+	/**
+	 * Keep the minimum and the sum of the branch distances of the predicate
+	 * 
+	 * @param branch
+	 * @param true_distance
+	 * @param false_distance
+	 */
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
 		if (!trueDistances.containsKey(branch))
 			trueDistances.put(branch, true_distance);
 		else
@@ -471,17 +531,26 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			falseDistancesSum.put(branch, false_distance);
 		else
 			falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+	}
 
-		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
-				|| ArrayUtil.contains(Properties.CRITERION, Criterion.CBRANCH))) {
-			updateBranchContextMaps(branch, true_distance, false_distance);
-		}
+	/**
+	 * Whether the true outcome of the predicate was taken at least once
+	 * 
+	 * @param branch
+	 * @return
+	 */
+	protected boolean isCoveredTrue(int branch) {
+		return coveredTrue.containsKey(branch);
+	}
 
-		// This requires a lot of memory and should not really be used
-		if (Properties.BRANCH_EVAL) {
-			branchesTrace.add(new BranchEval(branch, true_distance, false_distance));
-		}
+	/**
+	 * Whether the false outcome of the predicate was taken at least once
+	 * 
+	 * @param branch
+	 * @return
+	 */
+	protected boolean isCoveredFalse(int branch) {
+		return coveredFalse.containsKey(branch);
 	}
 
 	/**
@@ -580,6 +649,17 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	public ExecutionTraceImpl clone() {
 
 		ExecutionTraceImpl copy = new ExecutionTraceImpl();
+		copyTo(copy);
+		return copy;
+	}
+
+	/**
+	 * Copy the state of this trace into the given freshly created trace
+	 * 
+	 * @param copy
+	 *            an empty trace
+	 */
+	protected void copyTo(ExecutionTraceImpl copy) {
 		for (MethodCall call : finishedCalls) {
 			copy.finishedCalls.add(call.clone());
 		}
@@ -620,7 +700,6 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		copy.objectCounter = objectCounter;
 		copy.knownCallerObjects.putAll(knownCallerObjects);
 		copy.proxyCount = 1;
-		return copy;
 	}
 
 	/**
@@ -853,7 +932,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public Set<Integer> getCoveredFalseBranches() {
 		Set<Integer> covered = new HashSet<Integer>();
-		for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
 			if (entry.getValue() == 0.0)
 				covered.add(entry.getKey());
 		}
@@ -922,7 +1001,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public Set<Integer> getCoveredPredicates() {
-		return coveredPredicates.keySet();
+		return getPredicateExecutionCount().keySet();
 	}
 
 	/*
@@ -934,7 +1013,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public Set<Integer> getCoveredTrueBranches() {
 		Set<Integer> covered = new HashSet<Integer>();
-		for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
 			if (entry.getValue() == 0.0)
 				covered.add(entry.getKey());
 		}
@@ -991,7 +1070,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public double getFalseDistance(int branchId) {
-		return falseDistances.get(branchId);
+		return getFalseDistances().get(branchId);
 	}
 
 	/*
@@ -1090,7 +1169,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	 * 
 	 * @return a int.
 	 */
-	public int getProxyCount() {
+	public synchronized int getProxyCount() {
 		return proxyCount;
 	}
 
@@ -1259,7 +1338,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public double getTrueDistance(int branchId) {
-		return trueDistances.get(branchId);
+		return getTrueDistances().get(branchId);
 	}
 
 	/*
@@ -1296,7 +1375,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public boolean hasFalseDistance(int predicateId) {
-		return falseDistances.containsKey(predicateId);
+		return getFalseDistances().containsKey(predicateId);
 	}
 
 	/** {@inheritDoc} */
@@ -1319,7 +1398,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public boolean hasTrueDistance(int predicateId) {
-		return trueDistances.containsKey(predicateId);
+		return getTrueDistances().containsKey(predicateId);
 	}
 
 	/*
@@ -1330,8 +1409,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public ExecutionTrace lazyClone() {
-		// TODO Auto-generated method stub
-		return null;
+		addProxy();
+		return new ExecutionTraceProxy(this);
 	}
 
 	private boolean stackHasMethod(String methodName) {
@@ -1572,15 +1651,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nCovered predicates: ");
-		for (Entry<Integer, Integer> entry : coveredPredicates.entrySet()) {
+		for (Entry<Integer, Integer> entry : getPredicateExecutionCount().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nTrue distances: ");
-		for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nFalse distances: ");
-		for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		return ret.toString();
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.dataflow.DefUse;
 import org.evosuite.setup.CallContext;
 import org.evosuite.testcase.execution.ExecutionTraceImpl.BranchEval;
@@ -48,7 +49,10 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 	 * </p>
 	 */
 	public ExecutionTraceProxy() {
-		this.trace = new ExecutionTraceImpl();
+		if (Properties.PRIMITIVE_EXECUTION_TRACE)
+			this.trace = new PrimitiveExecutionTraceImpl();
+		else
+			this.trace = new ExecutionTraceImpl();
 	}
 
 	/**
@@ -91,14 +95,13 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 
 	/**
 	 * <p>
-	 * copyOnWrite
+	 * Make sure this proxy owns its trace before modifying it. Traces of
+	 * finished executions are shared between all lazy clones of a result, and
+	 * only a proxy that actually writes gets its own copy.
 	 * </p>
 	 */
 	public void copyOnWrite() {
-		if (trace.getProxyCount() > 1) {
-			trace.removeProxy();
-			trace = trace.clone();
-		}
+		trace = trace.detachProxy();
 	}
 
 	/*
@@ -150,6 +153,9 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public void finishCalls() {
+		// Finished traces are shared snapshots; finishing them again is a no-op
+		if (!trace.hasUnfinishedCalls())
+			return;
 		copyOnWrite();
 		trace.finishCalls();
 	}
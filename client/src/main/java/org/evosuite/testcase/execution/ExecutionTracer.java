@@ -26,6 +26,7 @@ import org.evosuite.coverage.dataflow.Definition;
 import org.evosuite.coverage.dataflow.Use;
 import org.evosuite.instrumentation.testability.BooleanHelper;
 import org.evosuite.seeding.ConstantPoolManager;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.objectweb.asm.Opcodes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -519,6 +520,9 @@ public class ExecutionTracer {
 	}
 
 	public static void passedPutStatic(String classNameWithDots, String fieldName) {
+		// static state is shared by all threads, whether traced or not
+		ClassReInitializer.markDirty(classNameWithDots);
+
 		ExecutionTracer tracer = getExecutionTracer();
 		if (tracer.disabled)
 			return;
@@ -560,6 +564,30 @@ public class ExecutionTracer {
 	 * @param fieldName
 	 */
 	public static void passedGetStatic(String classNameWithDots, String fieldName) {
+		// static state is shared by all threads, whether traced or not
+		ClassReInitializer.markDirty(classNameWithDots);
+
+		ExecutionTracer tracer = getExecutionTracer();
+		if (tracer.disabled)
+			return;
+
+		if (isThreadNeqCurrentThread())
+			return;
+
+		checkTimeout();
+
+		tracer.trace.getStaticPassed(classNameWithDots, fieldName);
+	}
+
+	/**
+	 * Like {@link #passedGetStatic(String, String)}, for fields of primitive
+	 * or immutable type. The class is not marked as dirty, as the value read
+	 * cannot be used to change its static state
+	 * 
+	 * @param classNameWithDots
+	 * @param fieldName
+	 */
+	public static void passedImmutableGetStatic(String classNameWithDots, String fieldName) {
 		ExecutionTracer tracer = getExecutionTracer();
 		if (tracer.disabled)
 			return;
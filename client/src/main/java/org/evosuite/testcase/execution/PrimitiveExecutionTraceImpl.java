@@ -0,0 +1,324 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.branch.BranchPool;
+
+/**
+ * <p>
+ * Execution trace that keeps the branch coverage information in primitive
+ * arrays indexed by the branch id, rather than in maps of boxed values. Branch
+ * ids handed out by the {@link BranchPool} are dense, so the arrays are sized
+ * with the current number of branches and grown if needed. Ids outside of the
+ * supported range fall back to the maps of {@link ExecutionTraceImpl}.
+ * </p>
+ * 
+ * <p>
+ * The map views required by {@link ExecutionTrace} are only created when they
+ * are requested, once the test has been executed.
+ * </p>
+ */
+public class PrimitiveExecutionTraceImpl extends ExecutionTraceImpl {
+
+	/** Branch ids beyond this limit are stored in the maps of the parent */
+	private static final int MAX_DENSE_BRANCH_ID = 1 << 20;
+
+	private int[] predicateCount;
+
+	private int[] trueCount;
+
+	private int[] falseCount;
+
+	private double[] trueDistance;
+
+	private double[] falseDistance;
+
+	private double[] trueDistanceSum;
+
+	private double[] falseDistanceSum;
+
+	private boolean[] passed;
+
+	/** Ids of all dense branches that were passed, in order of first passing */
+	private int[] passedBranches;
+
+	private int numPassedBranches = 0;
+
+	private Map<Integer, Integer> predicateCountView = null;
+
+	private Map<Integer, Double> trueDistanceView = null;
+
+	private Map<Integer, Double> falseDistanceView = null;
+
+	private Map<Integer, Double> trueDistanceSumView = null;
+
+	private Map<Integer, Double> falseDistanceSumView = null;
+
+	/**
+	 * Create a trace with room for all branches currently known to the
+	 * {@link BranchPool} of the SUT
+	 */
+	public PrimitiveExecutionTraceImpl() {
+		this(BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
+		        .getBranchCounter() + 1);
+	}
+
+	/**
+	 * Create a trace with room for the given number of branch ids
+	 * 
+	 * @param capacity
+	 *            a int.
+	 */
+	public PrimitiveExecutionTraceImpl(int capacity) {
+		super();
+		allocate(Math.max(capacity, 1));
+	}
+
+	private void allocate(int capacity) {
+		predicateCount = new int[capacity];
+		trueCount = new int[capacity];
+		falseCount = new int[capacity];
+		trueDistance = new double[capacity];
+		falseDistance = new double[capacity];
+		trueDistanceSum = new double[capacity];
+		falseDistanceSum = new double[capacity];
+		passed = new boolean[capacity];
+		passedBranches = new int[Math.min(capacity, 64)];
+		numPassedBranches = 0;
+	}
+
+	private boolean isDense(int branch) {
+		return branch >= 0 && branch < MAX_DENSE_BRANCH_ID;
+	}
+
+	private void ensureCapacity(int branch) {
+		if (branch < predicateCount.length)
+			return;
+
+		int capacity = Math.min(Math.max(branch + 1, predicateCount.length * 2), MAX_DENSE_BRANCH_ID);
+		predicateCount = Arrays.copyOf(predicateCount, capacity);
+		trueCount = Arrays.copyOf(trueCount, capacity);
+		falseCount = Arrays.copyOf(falseCount, capacity);
+		trueDistance = Arrays.copyOf(trueDistance, capacity);
+		falseDistance = Arrays.copyOf(falseDistance, capacity);
+		trueDistanceSum = Arrays.copyOf(trueDistanceSum, capacity);
+		falseDistanceSum = Arrays.copyOf(falseDistanceSum, capacity);
+		passed = Arrays.copyOf(passed, capacity);
+	}
+
+	private void invalidateViews() {
+		predicateCountView = null;
+		trueDistanceView = null;
+		falseDistanceView = null;
+		trueDistanceSumView = null;
+		falseDistanceSumView = null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		if (!isDense(branch)) {
+			super.updateBranchCoverage(branch, true_distance, false_distance);
+			return;
+		}
+		ensureCapacity(branch);
+		predicateCount[branch]++;
+		if (true_distance == 0.0)
+			trueCount[branch]++;
+		if (false_distance == 0.0)
+			falseCount[branch]++;
+		predicateCountView = null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
+		if (!isDense(branch)) {
+			super.updateBranchDistances(branch, true_distance, false_distance);
+			return;
+		}
+		ensureCapacity(branch);
+		if (!passed[branch]) {
+			passed[branch] = true;
+			if (numPassedBranches == passedBranches.length)
+				passedBranches = Arrays.copyOf(passedBranches, passedBranches.length * 2);
+			passedBranches[numPassedBranches++] = branch;
+			trueDistance[branch] = true_distance;
+			falseDistance[branch] = false_distance;
+		} else {
+			if (true_distance < trueDistance[branch])
+				trueDistance[branch] = true_distance;
+			if (false_distance < falseDistance[branch])
+				falseDistance[branch] = false_distance;
+		}
+		trueDistanceSum[branch] += true_distance;
+		falseDistanceSum[branch] += false_distance;
+		invalidateViews();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isCoveredTrue(int branch) {
+		if (!isDense(branch))
+			return super.isCoveredTrue(branch);
+		return branch < trueCount.length && trueCount[branch] > 0;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isCoveredFalse(int branch) {
+		if (!isDense(branch))
+			return super.isCoveredFalse(branch);
+		return branch < falseCount.length && falseCount[branch] > 0;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getPredicateExecutionCount() {
+		if (predicateCountView == null) {
+			Map<Integer, Integer> view = new HashMap<Integer, Integer>(super.getPredicateExecutionCount());
+			for (int i = 0; i < numPassedBranches; i++) {
+				int branch = passedBranches[i];
+				if (predicateCount[branch] > 0)
+					view.put(branch, predicateCount[branch]);
+			}
+			predicateCountView = view;
+		}
+		return predicateCountView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistances() {
+		if (trueDistanceView == null)
+			trueDistanceView = createView(super.getTrueDistances(), trueDistance);
+		return trueDistanceView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistances() {
+		if (falseDistanceView == null)
+			falseDistanceView = createView(super.getFalseDistances(), falseDistance);
+		return falseDistanceView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistancesSum() {
+		if (trueDistanceSumView == null)
+			trueDistanceSumView = createView(super.getTrueDistancesSum(), trueDistanceSum);
+		return trueDistanceSumView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistancesSum() {
+		if (falseDistanceSumView == null)
+			falseDistanceSumView = createView(super.getFalseDistancesSum(), falseDistanceSum);
+		return falseDistanceSumView;
+	}
+
+	private Map<Integer, Double> createView(Map<Integer, Double> sparse, double[] values) {
+		Map<Integer, Double> view = new HashMap<Integer, Double>(sparse);
+		for (int i = 0; i < numPassedBranches; i++) {
+			int branch = passedBranches[i];
+			view.put(branch, values[branch]);
+		}
+		return view;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getTrueDistance(int branchId) {
+		if (!hasDenseDistance(branchId))
+			return super.getTrueDistance(branchId);
+		return trueDistance[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getFalseDistance(int branchId) {
+		if (!hasDenseDistance(branchId))
+			return super.getFalseDistance(branchId);
+		return falseDistance[branchId];
+	}
+
+	/**
+	 * A branch that was not passed has no distance in the arrays, so it has to
+	 * be looked up (and fail) like in {@link ExecutionTraceImpl}
+	 */
+	private boolean hasDenseDistance(int branchId) {
+		return isDense(branchId) && branchId < passed.length && passed[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasTrueDistance(int predicateId) {
+		if (!isDense(predicateId))
+			return super.hasTrueDistance(predicateId);
+		return predicateId < passed.length && passed[predicateId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasFalseDistance(int predicateId) {
+		return hasTrueDistance(predicateId);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Reset to 0
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		allocate(predicateCount.length);
+		invalidateViews();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Create a deep copy
+	 */
+	@Override
+	public PrimitiveExecutionTraceImpl clone() {
+		PrimitiveExecutionTraceImpl copy = new PrimitiveExecutionTraceImpl(predicateCount.length);
+		copyTo(copy);
+		copy.predicateCount = predicateCount.clone();
+		copy.trueCount = trueCount.clone();
+		copy.falseCount = falseCount.clone();
+		copy.trueDistance = trueDistance.clone();
+		copy.falseDistance = falseDistance.clone();
+		copy.trueDistanceSum = trueDistanceSum.clone();
+		copy.falseDistanceSum = falseDistanceSum.clone();
+		copy.passed = passed.clone();
+		copy.passedBranches = passedBranches.clone();
+		copy.numPassedBranches = numPassedBranches;
+		return copy;
+	}
+}
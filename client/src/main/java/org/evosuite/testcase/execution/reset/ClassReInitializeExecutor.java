@@ -19,7 +19,7 @@
  */
 package org.evosuite.testcase.execution.reset;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 
 import org.evosuite.Properties;
@@ -92,6 +92,12 @@ class ClassReInitializeExecutor {
 
 	private void resetClass(String className) {
 
+		MethodHandle resetMethod = ClassResetter.getInstance().getResetMethodHandle(className);
+		if (resetMethod == null) {
+			// no __STATIC_RESET(), so no need to prepare the execution of SUT code
+			return;
+		}
+
 		// className.__STATIC_RESET() exists
 		logger.debug("Resetting class " + className);
 
@@ -107,15 +113,12 @@ class ClassReInitializeExecutor {
 		boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
 
 		try {
-			Method resetMethod = ClassResetter.getInstance().getResetMethod(className);
-			if (resetMethod != null) {
-				LoopCounter.getInstance().setActive(false);
-				resetMethod.invoke(null, (Object[]) null);
-			}
+			LoopCounter.getInstance().setActive(false);
+			resetMethod.invokeExact();
 		} catch (Throwable e) {
 			ClassResetter.getInstance().logWarn(className,
 					e.getClass() + " thrown during execution of method  __STATIC_RESET() for class " + className + ", "
-							+ e.getCause());
+							+ e.getMessage());
 		} finally {
 			Sandbox.doneWithExecutingSUTCode();
 			TestGenerationContext.getInstance().doneWithExecutingSUTCode();
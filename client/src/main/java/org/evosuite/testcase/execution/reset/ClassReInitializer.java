@@ -23,6 +23,8 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.evosuite.Properties;
 import org.evosuite.assertion.CheapPurityAnalyzer;
@@ -51,10 +53,19 @@ public class ClassReInitializer {
 
 	private final List<String> initializedClasses = new LinkedList<String>();
 
+	/**
+	 * Classes whose static fields were read or written (by any thread) since
+	 * they were last re-initialized. Reads are included as well, as a static
+	 * collection or object can be modified without any PUTSTATIC, except for
+	 * reads of fields of primitive or immutable type
+	 */
+	private static final Set<String> dirtyClasses = ConcurrentHashMap.newKeySet();
+
 	private static ClassReInitializer instance = null;
 
 	public static void resetSingleton() {
 		instance = null;
+		dirtyClasses.clear();
 	}
 
 	public static ClassReInitializer getInstance() {
@@ -153,7 +164,14 @@ public class ClassReInitializer {
 
 			// second, re-initialize classes
 			if (reset_all_observed_classes) {
-				ClassReInitializeExecutor.getInstance().resetClasses(initializedClasses);
+				if (Properties.RESET_ONLY_DIRTY_CLASSES) {
+					// static state changed by reflection or through a static
+					// field read by the test does not go through the callbacks
+					HashSet<String> moreClassesForReset = getMoreClassesToReset(executedTestCase, testCaseResult);
+					resetDirtyClasses(classesInitializedDuringTestExecution, moreClassesForReset);
+				} else {
+					ClassReInitializeExecutor.getInstance().resetClasses(initializedClasses);
+				}
 			} else {
 				// reset only classes that were "observed" to have some
 				// GETSTATIC/PUTSTATIC updating their state during test
@@ -185,6 +203,44 @@ public class ClassReInitializer {
 		}
 	}
 
+	/**
+	 * Re-initialize, in initialization order, the initialized classes that are
+	 * dirty, that were initialized during the last test execution, or whose
+	 * static state was accessed by the test itself. Once re-initialized, the
+	 * classes are no longer considered dirty, also if __STATIC_RESET()
+	 * accessed their static fields again.
+	 * 
+	 * @param classesInitializedDuringTestExecution
+	 * @param classesAccessedByTest
+	 * @return the re-initialized classes
+	 */
+	List<String> resetDirtyClasses(List<String> classesInitializedDuringTestExecution,
+			Set<String> classesAccessedByTest) {
+		Set<String> initializedNow = new HashSet<String>(classesInitializedDuringTestExecution);
+		List<String> classesToReset = new LinkedList<String>();
+		for (String className : initializedClasses) {
+			if (dirtyClasses.contains(className) || initializedNow.contains(className)
+					|| classesAccessedByTest.contains(className)) {
+				classesToReset.add(className);
+			}
+		}
+		ClassReInitializeExecutor.getInstance().resetClasses(classesToReset);
+		dirtyClasses.removeAll(classesToReset);
+		return classesToReset;
+	}
+
+	/**
+	 * Called by the instrumented code each time a static field of the given
+	 * class is written, or read without being of primitive or immutable type
+	 * 
+	 * @param classNameWithDots
+	 */
+	public static void markDirty(String classNameWithDots) {
+		if (!dirtyClasses.contains(classNameWithDots)) {
+			dirtyClasses.add(classNameWithDots);
+		}
+	}
+
 	private boolean reset_all_observed_classes = false;
 
 	/**
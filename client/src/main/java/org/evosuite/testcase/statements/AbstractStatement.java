@@ -259,6 +259,11 @@ public abstract class AbstractStatement implements Statement, Serializable {
 		if(newRetVal==null){
 			throw new IllegalArgumentException("newRetVal cannot be null");
 		}
+		// Variables cache the position of the statement defining them
+		if (retval instanceof VariableReferenceImpl)
+			((VariableReferenceImpl) retval).invalidateStPosition();
+		if (newRetVal instanceof VariableReferenceImpl)
+			((VariableReferenceImpl) newRetVal).invalidateStPosition();
 		this.retval = newRetVal;
 	}
 
@@ -385,7 +385,7 @@ public class AssignmentStatement extends AbstractStatement {
 					// Need to check array status because commons lang
 					// is sometimes confused about what is assignable
 					if(parameter.isArray() == newRetVal.isArray()) {
-						retval = newRetVal;
+						setRetval(newRetVal);
 						assert (isValid());
 						return true;
 					}
@@ -88,39 +88,59 @@ public class VariableReferenceImpl implements VariableReference {
 	 * The position of the statement, defining this VariableReference, in the
 	 * testcase.
 	 *
-	 * TODO: Notify change listener also when return value changes
+	 * The position is cached until the list of statements or the return value
+	 * of a statement changes (see {@link #invalidateStPosition()}).
 	 *
 	 */
 	@Override
 	public synchronized int getStPosition() {
 		if (stPosition == null || changeListener.hasChanged()) {
-			stPosition = null;
-			for (int i = 0; i < testCase.size(); i++) {
-				Statement stmt = testCase.getStatement(i);
-				if (stmt.getReturnValue().equals(this)) {
-					stPosition = i;
-					break;
-				}
-			}
-			if (stPosition == null) {
-				String msg = "Bloody annoying bug \n";
-				msg += "Test case has " + testCase.size() + " function calls \n";
-				for (int i = 0; i < testCase.size(); i++) {
-					msg += testCase.getStatement(i).getCode(null) + "\n";
-				}
-				msg += "failed to find type " + this.type.getTypeName() + "\n";
-
-				throw new AssertionError(
-				        msg + "A VariableReferences position is only defined if the VariableReference is defined by a statement in the testCase");
-			}
+			stPosition = findStPosition();
 		} else {
-			int position = stPosition; //somehow this could be null, leading to NPE. Synchronization issue?
-			stPosition = null;
-			stPosition = getStPosition();
-			assert (stPosition == position);
+			assert (stPosition == findStPosition()) : "Cached position of variable is out of date";
 		}
 		return stPosition;
 	}
+
+	private int findStPosition() {
+		for (int i = 0; i < testCase.size(); i++) {
+			Statement stmt = testCase.getStatement(i);
+			if (stmt.getReturnValue().equals(this)) {
+				return i;
+			}
+		}
+
+		String msg = "Bloody annoying bug \n";
+		msg += "Test case has " + testCase.size() + " function calls \n";
+		for (int i = 0; i < testCase.size(); i++) {
+			msg += testCase.getStatement(i).getCode(null) + "\n";
+		}
+		msg += "failed to find type " + this.type.getTypeName() + "\n";
+
+		throw new AssertionError(
+		        msg + "A VariableReferences position is only defined if the VariableReference is defined by a statement in the testCase");
+	}
+
+	/**
+	 * Set the position of the statement defining this variable, if it is
+	 * already known (eg, when iterating over all statements of a test), to
+	 * avoid searching the test case for it.
+	 * 
+	 * @param position
+	 *            a int.
+	 */
+	public synchronized void setStPosition(int position) {
+		changeListener.hasChanged();
+		stPosition = position;
+	}
+
+	/**
+	 * Forget the cached position, as the statement defining this variable
+	 * might have changed
+	 */
+	public synchronized void invalidateStPosition() {
+		stPosition = null;
+	}
 	
 	@Override
 	public TestCase getTestCase() {
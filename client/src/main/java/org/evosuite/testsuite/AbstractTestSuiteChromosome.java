@@ -21,8 +21,10 @@ package org.evosuite.testsuite;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.evosuite.Properties;
@@ -49,6 +51,9 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
 	protected List<T> tests = new ArrayList<T>();
 	protected ChromosomeFactory<T> testChromosomeFactory;
 
+	/** Statistics over the test results maintained by fitness functions */
+	private transient Map<Object, TestSuiteAggregation<?>> aggregations = null;
+
 	/**
 	 * only used for testing/debugging
 	 */
@@ -88,6 +93,13 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
 			addTest((T) test.clone());
 		}
 
+		if (source.aggregations != null) {
+			aggregations = new IdentityHashMap<Object, TestSuiteAggregation<?>>();
+			for (Map.Entry<Object, TestSuiteAggregation<?>> entry : source.aggregations.entrySet()) {
+				aggregations.put(entry.getKey(), entry.getValue().copy(source.tests, tests));
+			}
+		}
+
 		//this.setFitness(source.getFitness());
 		this.setFitnessValues(source.getFitnessValues());
 		this.setPreviousFitnessValues(source.getPreviousFitnessValues());
@@ -101,6 +113,31 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
         this.setNumCollisions(source.getNumCollisions());
 	}
 
+	/**
+	 * Get the statistics over the test results that are maintained by the
+	 * given owner, usually a fitness function
+	 *
+	 * @param owner
+	 * @return the aggregation, or <code>null</code> if there is none yet
+	 */
+	public TestSuiteAggregation<?> getAggregation(Object owner) {
+		if (aggregations == null)
+			return null;
+		return aggregations.get(owner);
+	}
+
+	/**
+	 * Keep statistics over the test results on behalf of the given owner
+	 *
+	 * @param owner
+	 * @param aggregation
+	 */
+	public void setAggregation(Object owner, TestSuiteAggregation<?> aggregation) {
+		if (aggregations == null)
+			aggregations = new IdentityHashMap<Object, TestSuiteAggregation<?>>();
+		aggregations.put(owner, aggregation);
+	}
+
 	/**
 	 * <p>addTest</p>
 	 *
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.evosuite.testcase.ExecutableChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+
+/**
+ * <p>
+ * Statistics over the execution results of the tests of a suite that are
+ * maintained incrementally. The aggregation remembers the contribution of
+ * every test together with the execution result it was derived from. When
+ * the suite is updated, only the contributions of tests that were removed or
+ * whose execution result has changed are subtracted, and only the new
+ * results are analyzed and added.
+ * </p>
+ * 
+ * <p>
+ * Aggregations are kept on the {@link AbstractTestSuiteChromosome} by the
+ * fitness function that uses them, and copied when the suite is cloned.
+ * </p>
+ * 
+ * @param <C>
+ *            the type of the contribution of a single test
+ */
+public abstract class TestSuiteAggregation<C> {
+
+	private static class Record<C> {
+		private final ExecutionResult result;
+		private final C contribution;
+		private int occurrences = 0;
+
+		Record(ExecutionResult result, C contribution) {
+			this.result = result;
+			this.contribution = contribution;
+		}
+	}
+
+	private final Map<ExecutableChromosome, Record<C>> records = new IdentityHashMap<ExecutableChromosome, Record<C>>();
+
+	/**
+	 * Analyze the execution result of a test
+	 * 
+	 * @param test
+	 *            the test that was executed
+	 * @param result
+	 *            its last execution result
+	 * @return the contribution of the test to the aggregation
+	 */
+	protected abstract C analyze(ExecutableChromosome test, ExecutionResult result);
+
+	/**
+	 * Add the contribution of a test
+	 * 
+	 * @param contribution
+	 */
+	protected abstract void add(C contribution);
+
+	/**
+	 * Subtract the contribution of a test that was previously added
+	 * 
+	 * @param contribution
+	 */
+	protected abstract void remove(C contribution);
+
+	/**
+	 * Create a copy of the aggregated statistics, without any records
+	 * 
+	 * @return
+	 */
+	protected abstract TestSuiteAggregation<C> copyStatistics();
+
+	/**
+	 * Bring the aggregation up to date with the last execution results of the
+	 * tests in the suite
+	 * 
+	 * @param tests
+	 *            the tests of the suite
+	 */
+	public void update(List<? extends ExecutableChromosome> tests) {
+		Map<ExecutableChromosome, Integer> occurrences = new IdentityHashMap<ExecutableChromosome, Integer>();
+		for (ExecutableChromosome test : tests) {
+			if (test.getLastExecutionResult() == null)
+				continue;
+			Integer n = occurrences.get(test);
+			occurrences.put(test, n == null ? 1 : n + 1);
+		}
+
+		Iterator<Entry<ExecutableChromosome, Record<C>>> iterator = records.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<ExecutableChromosome, Record<C>> entry = iterator.next();
+			Record<C> record = entry.getValue();
+			Integer n = occurrences.get(entry.getKey());
+			if (n == null || entry.getKey().getLastExecutionResult() != record.result) {
+				while (record.occurrences > 0) {
+					record.occurrences--;
+					remove(record.contribution);
+				}
+				iterator.remove();
+			}
+		}
+
+		for (ExecutableChromosome test : tests) {
+			Integer n = occurrences.get(test);
+			if (n == null)
+				continue;
+			Record<C> record = records.get(test);
+			if (record == null) {
+				ExecutionResult result = test.getLastExecutionResult();
+				record = new Record<C>(result, analyze(test, result));
+				records.put(test, record);
+			}
+			while (record.occurrences < n) {
+				record.occurrences++;
+				add(record.contribution);
+			}
+			while (record.occurrences > n) {
+				record.occurrences--;
+				remove(record.contribution);
+			}
+		}
+	}
+
+	/**
+	 * The contributions of all tests currently in the aggregation, once per
+	 * occurrence of the test
+	 * 
+	 * @return
+	 */
+	protected List<C> getContributions() {
+		List<C> contributions = new ArrayList<C>(records.size());
+		for (Record<C> record : records.values()) {
+			for (int i = 0; i < record.occurrences; i++) {
+				contributions.add(record.contribution);
+			}
+		}
+		return contributions;
+	}
+
+	/**
+	 * Copy this aggregation for a cloned suite. The tests of the clone are
+	 * expected to be copies of the tests of the original suite, in the same
+	 * order.
+	 * 
+	 * @param originalTests
+	 *            the tests of the original suite
+	 * @param copiedTests
+	 *            the tests of the cloned suite
+	 * @return
+	 */
+	public TestSuiteAggregation<C> copy(List<? extends ExecutableChromosome> originalTests,
+	        List<? extends ExecutableChromosome> copiedTests) {
+		TestSuiteAggregation<C> copy = copyStatistics();
+		Map<ExecutableChromosome, Record<C>> copiedRecords = new IdentityHashMap<ExecutableChromosome, Record<C>>();
+		for (int i = 0; i < originalTests.size() && i < copiedTests.size(); i++) {
+			ExecutableChromosome original = originalTests.get(i);
+			ExecutableChromosome copied = copiedTests.get(i);
+			Record<C> record = records.get(original);
+			if (record == null)
+				continue;
+			Record<C> copiedRecord = copiedRecords.get(original);
+			if (copiedRecord == null) {
+				// The execution result of the copy is a copy of the result
+				// of the original, unless the aggregation is out of date
+				ExecutionResult result = record.result;
+				if (original.getLastExecutionResult() == record.result)
+					result = copied.getLastExecutionResult();
+				copiedRecord = new Record<C>(result, record.contribution);
+				copiedRecord.occurrences = record.occurrences;
+				copiedRecords.put(original, copiedRecord);
+				copy.records.put(copied, copiedRecord);
+			}
+		}
+		// Contributions of tests that are not part of the copy anymore
+		for (Entry<ExecutableChromosome, Record<C>> entry : records.entrySet()) {
+			if (!copiedRecords.containsKey(entry.getKey())) {
+				for (int i = 0; i < entry.getValue().occurrences; i++) {
+					copy.remove(entry.getValue().contribution);
+				}
+			}
+		}
+		return copy;
+	}
+}
@@ -46,6 +46,18 @@ public class Randomness implements Serializable {
 
 	private static Randomness instance = new Randomness();
 
+	/**
+	 * Streams bound to threads with {@link #bindStream(Random)}. Only
+	 * consulted while {@link #streamsActive} is set, so that the sequential
+	 * search does not pay for the thread local lookup.
+	 */
+	private static final ThreadLocal<Random> boundStream = new ThreadLocal<Random>();
+
+	private static volatile boolean streamsActive = false;
+
+	/** Increment of the SplitMix64 generator, used to spread stream ids */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
 	private Randomness() {
 		Long seed_parameter = Properties.RANDOM_SEED;
 		if (seed_parameter != null) {
@@ -72,6 +84,95 @@ public class Randomness implements Serializable {
 		return instance;
 	}
 
+	/**
+	 * The stream bound to the current thread, or the global stream
+	 */
+	private static Random getRandom() {
+		if (streamsActive) {
+			Random stream = boundStream.get();
+			if (stream != null)
+				return stream;
+		}
+		return random;
+	}
+
+	/**
+	 * <p>
+	 * Create an independent stream that only depends on the seed and on the
+	 * given id, but not on how many random numbers have been drawn so far.
+	 * The same id thus always yields the same stream for a given seed, no
+	 * matter which thread asks for it and when.
+	 * </p>
+	 * 
+	 * @param streamId
+	 *            a long, e.g. the index of a worker or of a task.
+	 * @return a {@link java.util.Random} object.
+	 */
+	public static Random newStream(long streamId) {
+		return newMersenneTwister(mix(seed + GOLDEN_GAMMA * (streamId + 1)));
+	}
+
+	/**
+	 * <p>
+	 * Create an independent stream seeded by the current stream, which
+	 * advances the current stream by one number. Splitting is deterministic
+	 * as long as the current stream is used deterministically.
+	 * </p>
+	 * 
+	 * @return a {@link java.util.Random} object.
+	 */
+	public static Random split() {
+		return newMersenneTwister(mix(getRandom().nextLong()));
+	}
+
+	/**
+	 * <p>
+	 * Switch on the lookup of thread-bound streams. Has to be called before
+	 * any stream is bound.
+	 * </p>
+	 * 
+	 * @param active
+	 *            a boolean.
+	 */
+	public static void setStreamsActive(boolean active) {
+		streamsActive = active;
+	}
+
+	/**
+	 * Make all static methods of this class called by the current thread draw
+	 * from the given stream rather than from the global one
+	 * 
+	 * @param stream
+	 *            a {@link java.util.Random} object, e.g. created by
+	 *            {@link #newStream(long)} or {@link #split()}.
+	 */
+	public static void bindStream(Random stream) {
+		boundStream.set(stream);
+	}
+
+	/**
+	 * Draw from the global stream again in the current thread
+	 */
+	public static void unbindStream() {
+		boundStream.remove();
+	}
+
+	/**
+	 * Finalizer of SplitMix64, such that close seeds give unrelated streams
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * MersenneTwister only uses the lower 32 bits of a long seed
+	 */
+	private static Random newMersenneTwister(long seed) {
+		return new MersenneTwister(new int[] { (int) seed, (int) (seed >>> 32) });
+	}
+
 	/**
 	 * <p>
 	 * nextBoolean
@@ -80,7 +181,7 @@ public class Randomness implements Serializable {
 	 * @return a boolean.
 	 */
 	public static boolean nextBoolean() {
-		return random.nextBoolean();
+		return getRandom().nextBoolean();
 	}
 
 	/**
@@ -93,11 +194,11 @@ public class Randomness implements Serializable {
 	 * @return a int.
 	 */
 	public static int nextInt(int max) {
-		return random.nextInt(max);
+		return getRandom().nextInt(max);
 	}
 
 	public static double nextGaussian() {
-		return random.nextGaussian();
+		return getRandom().nextGaussian();
 	}
 	
 	/**
@@ -112,7 +213,7 @@ public class Randomness implements Serializable {
 	 * @return a int.
 	 */
 	public static int nextInt(int min, int max) {
-		return random.nextInt(max - min) + min;
+		return getRandom().nextInt(max - min) + min;
 	}
 
 	/**
@@ -123,7 +224,7 @@ public class Randomness implements Serializable {
 	 * @return a int.
 	 */
 	public static int nextInt() {
-		return random.nextInt();
+		return getRandom().nextInt();
 	}
 
 	/**
@@ -146,7 +247,7 @@ public class Randomness implements Serializable {
 	 * @return a short.
 	 */
 	public static short nextShort() {
-		return (short) (random.nextInt(2 * 32767) - 32767);
+		return (short) (getRandom().nextInt(2 * 32767) - 32767);
 	}
 
 	/**
@@ -157,7 +258,7 @@ public class Randomness implements Serializable {
 	 * @return a long.
 	 */
 	public static long nextLong() {
-		return random.nextLong();
+		return getRandom().nextLong();
 	}
 
 	/**
@@ -168,7 +269,7 @@ public class Randomness implements Serializable {
 	 * @return a byte.
 	 */
 	public static byte nextByte() {
-		return (byte) (random.nextInt(256) - 128);
+		return (byte) (getRandom().nextInt(256) - 128);
 	}
 
 	/**
@@ -179,7 +280,7 @@ public class Randomness implements Serializable {
 	 * @return a double between 0.0 and 1.0
 	 */
 	public static double nextDouble() {
-		return random.nextDouble();
+		return getRandom().nextDouble();
 	}
 
 	/**
@@ -194,7 +295,7 @@ public class Randomness implements Serializable {
 	 * @return a double.
 	 */
 	public static double nextDouble(double min, double max) {
-		return min + (random.nextDouble() * (max - min));
+		return min + (getRandom().nextDouble() * (max - min));
 	}
 
 	/**
@@ -205,7 +306,7 @@ public class Randomness implements Serializable {
 	 * @return a float.
 	 */
 	public static float nextFloat() {
-		return random.nextFloat();
+		return getRandom().nextFloat();
 	}
 
 	/**
@@ -247,7 +348,7 @@ public class Randomness implements Serializable {
 		if (list.isEmpty())
 			return null;
 
-		int position = random.nextInt(list.size());
+		int position = getRandom().nextInt(list.size());
 		return list.get(position);
 	}
 
@@ -267,7 +368,7 @@ public class Randomness implements Serializable {
 		if (set.isEmpty())
 			return null;
 
-		int position = random.nextInt(set.size());
+		int position = getRandom().nextInt(set.size());
 		return (T) set.toArray()[position];
 	}
 
@@ -286,7 +387,7 @@ public class Randomness implements Serializable {
 		if (elements.length == 0)
 			return null;
 
-		int position = random.nextInt(elements.length);
+		int position = getRandom().nextInt(elements.length);
 		return elements[position];
 	}
 
@@ -299,7 +400,7 @@ public class Randomness implements Serializable {
 	 *            a {@link java.util.List} object.
 	 */
 	public static void shuffle(List<?> list) {
-		Collections.shuffle(list, random);
+		Collections.shuffle(list, getRandom());
 	}
 
 	/**
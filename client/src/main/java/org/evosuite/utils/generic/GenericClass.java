@@ -66,6 +66,15 @@ public class GenericClass implements Serializable {
 	                      Void.class));
 
 	protected static Type addTypeParameters(Class<?> clazz) {
+		Type type = GenericTypeCache.getGenericType(clazz);
+		if (type == null) {
+			type = computeTypeParameters(clazz);
+			GenericTypeCache.putGenericType(clazz, type);
+		}
+		return type;
+	}
+
+	private static Type computeTypeParameters(Class<?> clazz) {
 		if (clazz.isArray()) {
 			return GenericArrayTypeImpl.createArrayType(addTypeParameters(clazz.getComponentType()));
 		} else if (isMissingTypeParameters(clazz)) {
@@ -162,12 +171,19 @@ public class GenericClass implements Serializable {
 		if (rhsType == null || lhsType == null)
 			return false;
 
+		Boolean cached = GenericTypeCache.getAssignable(lhsType, rhsType);
+		if (cached != null)
+			return cached;
+
+		boolean isAssignable;
 		try {
-			return TypeUtils.isAssignable(rhsType, lhsType);
+			isAssignable = TypeUtils.isAssignable(rhsType, lhsType);
 		} catch (Throwable e) {
 			logger.debug("Found unassignable type: " + e);
-			return false;
+			isAssignable = false;
 		}
+		GenericTypeCache.putAssignable(lhsType, rhsType, isAssignable);
+		return isAssignable;
 	}
 
 	public static boolean isMissingTypeParameters(Type type) {
@@ -337,6 +353,7 @@ public class GenericClass implements Serializable {
 	 *            a {@link java.lang.ClassLoader} object.
 	 */
 	public void changeClassLoader(ClassLoader loader) {
+		typeVariableMap = null;
 		try {
 			if (rawClass != null)
 				rawClass = getClass(rawClass.getName(), loader);
@@ -903,6 +920,11 @@ public class GenericClass implements Serializable {
 	public Map<TypeVariable<?>, Type> getTypeVariableMap() {
 		if(typeVariableMap != null)
 			return typeVariableMap;
+		Map<TypeVariable<?>, Type> cachedMap = GenericTypeCache.getTypeVariableMap(type, rawClass);
+		if (cachedMap != null) {
+			typeVariableMap = cachedMap;
+			return cachedMap;
+		}
 		//logger.debug("Getting type variable map for " + type);
 		List<TypeVariable<?>> typeVariables = getTypeVariables();
 		List<Type> types = getParameterTypes();
@@ -942,6 +964,7 @@ public class GenericClass implements Serializable {
 		}
 
 		//logger.debug("Type map: " + typeMap);
+		GenericTypeCache.putTypeVariableMap(type, rawClass, typeMap);
 		typeVariableMap = typeMap;
 		return typeMap;
 	}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memo tables for the reflective type computations of {@link GenericClass},
+ * which are repeated for the same types over and over while building the test
+ * cluster and generating tests.
+ * 
+ * Types are compared with equals, so entries of classes loaded by different
+ * class loaders never mix. The tables keep these classes alive, thus they are
+ * cleared whenever the test cluster is reset.
+ */
+public class GenericTypeCache {
+
+	/**
+	 * Upper bound on the size of each table, in case a search produces an
+	 * unusually large number of distinct types
+	 */
+	private static final int MAX_ENTRIES = 1 << 16;
+
+	private static final Map<TypePair, Boolean> assignable = new ConcurrentHashMap<TypePair, Boolean>();
+
+	private static final Map<TypePair, Map<TypeVariable<?>, Type>> typeVariableMaps = new ConcurrentHashMap<TypePair, Map<TypeVariable<?>, Type>>();
+
+	private static final Map<Class<?>, Type> genericTypes = new ConcurrentHashMap<Class<?>, Type>();
+
+	private GenericTypeCache() {
+	}
+
+	/**
+	 * Remove all entries, e.g. because the classes of the SUT are loaded by a
+	 * new class loader
+	 */
+	public static void clear() {
+		assignable.clear();
+		typeVariableMaps.clear();
+		genericTypes.clear();
+	}
+
+	/**
+	 * Whether a type can be used as a key. Capture types are created on the
+	 * fly, compared by identity and may still change, so caching them is
+	 * neither useful nor safe.
+	 */
+	static boolean isCacheable(Type type) {
+		if (type == null || type instanceof Class || type instanceof TypeVariable) {
+			return true;
+		} else if (type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			for (Type argument : parameterizedType.getActualTypeArguments()) {
+				if (!isCacheable(argument))
+					return false;
+			}
+			return isCacheable(parameterizedType.getOwnerType());
+		} else if (type instanceof GenericArrayType) {
+			return isCacheable(((GenericArrayType) type).getGenericComponentType());
+		} else if (type instanceof WildcardType) {
+			WildcardType wildcardType = (WildcardType) type;
+			for (Type bound : wildcardType.getUpperBounds()) {
+				if (!isCacheable(bound))
+					return false;
+			}
+			for (Type bound : wildcardType.getLowerBounds()) {
+				if (!isCacheable(bound))
+					return false;
+			}
+			return true;
+		} else {
+			// CaptureType or an unknown implementation
+			return false;
+		}
+	}
+
+	static Boolean getAssignable(Type lhsType, Type rhsType) {
+		return assignable.get(new TypePair(lhsType, rhsType));
+	}
+
+	static void putAssignable(Type lhsType, Type rhsType, boolean isAssignable) {
+		if (!isCacheable(lhsType) || !isCacheable(rhsType))
+			return;
+		if (assignable.size() >= MAX_ENTRIES)
+			assignable.clear();
+		assignable.put(new TypePair(lhsType, rhsType), isAssignable);
+	}
+
+	/**
+	 * @return a copy of the cached type variable map, or null
+	 */
+	static Map<TypeVariable<?>, Type> getTypeVariableMap(Type type, Class<?> rawClass) {
+		Map<TypeVariable<?>, Type> typeMap = typeVariableMaps.get(new TypePair(type, rawClass));
+		if (typeMap == null)
+			return null;
+		return new LinkedHashMap<TypeVariable<?>, Type>(typeMap);
+	}
+
+	static void putTypeVariableMap(Type type, Class<?> rawClass,
+	        Map<TypeVariable<?>, Type> typeMap) {
+		if (type == null || rawClass == null || !isCacheable(type))
+			return;
+		if (typeVariableMaps.size() >= MAX_ENTRIES)
+			typeVariableMaps.clear();
+		// Callers may modify the maps they get, so keep a private copy
+		typeVariableMaps.put(new TypePair(type, rawClass),
+		                     new LinkedHashMap<TypeVariable<?>, Type>(typeMap));
+	}
+
+	static Type getGenericType(Class<?> clazz) {
+		return genericTypes.get(clazz);
+	}
+
+	static void putGenericType(Class<?> clazz, Type type) {
+		if (genericTypes.size() >= MAX_ENTRIES)
+			genericTypes.clear();
+		genericTypes.put(clazz, type);
+	}
+
+	/**
+	 * Key of the tables with two types, compared with equals
+	 */
+	private static final class TypePair {
+
+		private final Type first;
+
+		private final Type second;
+
+		private final int hashCode;
+
+		TypePair(Type first, Type second) {
+			this.first = first;
+			this.second = second;
+			this.hashCode = 31 * first.hashCode() + second.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof TypePair))
+				return false;
+			TypePair other = (TypePair) obj;
+			return first.equals(other.first) && second.equals(other.second);
+		}
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.archive;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
+import org.evosuite.coverage.method.MethodCoverageTestFitness;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IndexedCoverageArchiveTest {
+
+	private Criterion[] criterion;
+
+	private final IndexedCoverageArchive<TestFitnessFunction, TestChromosome> archive = new IndexedCoverageArchive<>();
+
+	@Before
+	public void setUp() {
+		criterion = Properties.CRITERION;
+		Properties.CRITERION = new Criterion[] { Criterion.METHOD };
+	}
+
+	@After
+	public void tearDown() {
+		Properties.CRITERION = criterion;
+	}
+
+	private static TestChromosome newSolution() {
+		TestChromosome solution = new TestChromosome();
+		solution.setTestCase(new DefaultTestCase());
+		return solution;
+	}
+
+	@Test
+	public void testEqualTargetsShareTheirId() {
+		MethodCoverageTestFitness foo = new MethodCoverageTestFitness("Foo", "foo()V");
+		MethodCoverageTestFitness bar = new MethodCoverageTestFitness("Foo", "bar()V");
+		archive.addTargets(Arrays.asList(foo, bar, new MethodCoverageTestFitness("Foo", "foo()V")));
+
+		Assert.assertEquals(2, archive.getNumberOfTargets());
+		Assert.assertEquals(0, archive.getId(foo));
+		Assert.assertEquals(1, archive.getId(bar));
+		Assert.assertEquals(0, archive.getId(new MethodCoverageTestFitness("Foo", "foo()V")));
+		Assert.assertEquals(-1, archive.getId(new MethodCoverageTestFitness("Foo", "baz()V")));
+		Assert.assertSame(bar, archive.getTarget(1));
+	}
+
+	@Test
+	public void testUpdateWithSingleTarget() {
+		MethodCoverageTestFitness foo = new MethodCoverageTestFitness("Foo", "foo()V");
+		MethodCoverageTestFitness bar = new MethodCoverageTestFitness("Foo", "bar()V");
+		archive.addTargets(Arrays.asList(foo, bar));
+		Assert.assertTrue(archive.isArchiveEmpty());
+
+		TestChromosome solution = newSolution();
+		archive.updateArchive(foo, solution, 1.0);
+		Assert.assertFalse(archive.hasSolution(foo));
+
+		archive.updateArchive(foo, solution, 0.0);
+		Assert.assertTrue(archive.hasSolution(foo));
+		Assert.assertSame(solution, archive.getSolution(foo));
+		Assert.assertEquals(1, archive.getNumberOfCoveredTargets());
+		Assert.assertEquals(1, archive.getNumberOfUncoveredTargets());
+		Assert.assertEquals(1, archive.getNumberOfUncoveredTargets(MethodCoverageTestFitness.class));
+		Assert.assertTrue(archive.getCoveredTargets().contains(foo));
+		Assert.assertTrue(archive.getUncoveredTargets().contains(bar));
+	}
+
+	@Test
+	public void testUpdateWithCoveredIds() {
+		MethodCoverageTestFitness foo = new MethodCoverageTestFitness("Foo", "foo()V");
+		MethodCoverageTestFitness bar = new MethodCoverageTestFitness("Foo", "bar()V");
+		MethodCoverageTestFitness baz = new MethodCoverageTestFitness("Foo", "baz()V");
+		archive.addTargets(Arrays.asList(foo, bar, baz));
+
+		TestChromosome first = newSolution();
+		archive.updateArchive(first, archive.getIds(Arrays.asList(foo, bar)));
+		Assert.assertSame(first, archive.getSolution(foo));
+		Assert.assertSame(first, archive.getSolution(bar));
+		Assert.assertFalse(archive.hasSolution(baz));
+
+		// an equally good solution does not replace the current one
+		TestChromosome second = newSolution();
+		BitSet ids = archive.getIds(Arrays.asList(bar, baz));
+		archive.updateArchive(second, ids);
+		Assert.assertSame(first, archive.getSolution(bar));
+		Assert.assertSame(second, archive.getSolution(baz));
+		Assert.assertEquals(3, archive.getNumberOfCoveredTargets());
+		Assert.assertEquals(3, archive.getNumberOfSolutions());
+
+		archive.reset();
+		Assert.assertEquals(0, archive.getNumberOfTargets());
+		Assert.assertTrue(archive.isArchiveEmpty());
+	}
+
+	@Test
+	public void testUpdateWithCoveredTargetsAgreesWithCoverageArchive() {
+		MethodCoverageTestFitness foo = new MethodCoverageTestFitness("Foo", "foo()V");
+		MethodCoverageTestFitness bar = new MethodCoverageTestFitness("Foo", "bar()V");
+		MethodCoverageTestFitness baz = new MethodCoverageTestFitness("Foo", "baz()V");
+		CoverageArchive<TestFitnessFunction, TestChromosome> reference = new CoverageArchive<>();
+		archive.addTargets(Arrays.asList(foo, bar, baz));
+		reference.addTargets(Arrays.asList(foo, bar, baz));
+
+		TestChromosome first = newSolution();
+		TestChromosome second = newSolution();
+		for (Archive<TestFitnessFunction, TestChromosome> a : Arrays.<Archive<TestFitnessFunction, TestChromosome>> asList(archive, reference)) {
+			a.updateArchive(Arrays.<TestFitnessFunction> asList(foo, bar), first);
+			a.updateArchive(Arrays.<TestFitnessFunction> asList(bar, baz), second);
+			a.updateArchive(Arrays.<TestFitnessFunction> asList(), second);
+		}
+
+		Assert.assertEquals(reference.getCoveredTargets(), archive.getCoveredTargets());
+		for (TestFitnessFunction target : Arrays.<TestFitnessFunction> asList(foo, bar, baz)) {
+			Assert.assertSame(reference.getSolution(target), archive.getSolution(target));
+		}
+		Assert.assertSame(first, archive.getSolution(bar));
+		Assert.assertSame(second, archive.getSolution(baz));
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.operators.ranking;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.comparators.DominanceComparator;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ObjectiveMatrixTest {
+
+	private static class DummyFitness extends FitnessFunction<DummyChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double getFitness(DummyChromosome individual) {
+			return 0.0;
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+	}
+
+	private static Set<FitnessFunction<DummyChromosome>> createGoals(int numGoals) {
+		Set<FitnessFunction<DummyChromosome>> goals = new LinkedHashSet<FitnessFunction<DummyChromosome>>();
+		for (int i = 0; i < numGoals; i++) {
+			goals.add(new DummyFitness());
+		}
+		return goals;
+	}
+
+	private static List<DummyChromosome> createSolutions(int numSolutions,
+	        Set<FitnessFunction<DummyChromosome>> goals, long seed) {
+		Random random = new Random(seed);
+		List<DummyChromosome> solutions = new ArrayList<DummyChromosome>();
+		for (int i = 0; i < numSolutions; i++) {
+			DummyChromosome solution = new DummyChromosome(i);
+			for (FitnessFunction<DummyChromosome> goal : goals) {
+				// Few distinct values, such that there are ties and duplicates
+				solution.setFitness(goal, random.nextInt(4));
+			}
+			solutions.add(solution);
+		}
+		return solutions;
+	}
+
+	@Test
+	public void testCompareMatchesDominanceComparator() {
+		Set<FitnessFunction<DummyChromosome>> goals = createGoals(4);
+		List<DummyChromosome> solutions = createSolutions(30, goals, 42);
+		DominanceComparator<DummyChromosome> comparator = new DominanceComparator<DummyChromosome>(goals);
+		ObjectiveMatrix<DummyChromosome> matrix = new ObjectiveMatrix<DummyChromosome>(solutions, goals);
+
+		for (int i = 0; i < solutions.size(); i++) {
+			for (int j = 0; j < solutions.size(); j++) {
+				Assert.assertEquals(comparator.compare(solutions.get(i), solutions.get(j)), matrix.compare(i, j));
+			}
+		}
+	}
+
+	@Test
+	public void testFronts() {
+		Set<FitnessFunction<DummyChromosome>> goals = createGoals(5);
+		List<DummyChromosome> solutions = createSolutions(60, goals, 7);
+		ObjectiveMatrix<DummyChromosome> matrix = new ObjectiveMatrix<DummyChromosome>(solutions, goals);
+
+		List<int[]> fronts = matrix.getNonDominatedFronts();
+		int[] rank = new int[solutions.size()];
+		Arrays.fill(rank, -1);
+		for (int f = 0; f < fronts.size(); f++) {
+			for (int i : fronts.get(f)) {
+				Assert.assertEquals(-1, rank[i]);
+				rank[i] = f;
+			}
+		}
+
+		for (int i = 0; i < solutions.size(); i++) {
+			Assert.assertTrue(rank[i] >= 0);
+			boolean dominatedByPreviousFront = false;
+			for (int j = 0; j < solutions.size(); j++) {
+				int flag = matrix.compare(j, i);
+				// Nobody in the same or a later front dominates i
+				if (flag < 0)
+					Assert.assertTrue(rank[j] < rank[i]);
+				if (flag < 0 && rank[j] == rank[i] - 1)
+					dominatedByPreviousFront = true;
+			}
+			Assert.assertEquals(rank[i] > 0, dominatedByPreviousFront);
+		}
+
+		Assert.assertArrayEquals(fronts.get(0), matrix.getNonDominatedSolutions());
+	}
+
+	@Test
+	public void testFastNonDominatedSortingRanks() {
+		Set<FitnessFunction<DummyChromosome>> goals = createGoals(2);
+		List<DummyChromosome> solutions = new ArrayList<DummyChromosome>();
+		double[][] values = { { 1, 1 }, { 0, 2 }, { 2, 2 }, { 2, 0 }, { 3, 3 } };
+		for (int i = 0; i < values.length; i++) {
+			DummyChromosome solution = new DummyChromosome(i);
+			int k = 0;
+			for (FitnessFunction<DummyChromosome> goal : goals) {
+				solution.setFitness(goal, values[i][k++]);
+			}
+			solutions.add(solution);
+		}
+
+		FastNonDominatedSorting<DummyChromosome> sorting = new FastNonDominatedSorting<DummyChromosome>();
+		sorting.computeRankingAssignment(solutions, goals);
+
+		Assert.assertEquals(3, sorting.getNumberOfSubfronts());
+		Assert.assertEquals(Arrays.asList(solutions.get(0), solutions.get(1), solutions.get(3)),
+		        sorting.getSubfront(0));
+		Assert.assertEquals(Arrays.asList(solutions.get(2)), sorting.getSubfront(1));
+		Assert.assertEquals(Arrays.asList(solutions.get(4)), sorting.getSubfront(2));
+		Assert.assertEquals(1, solutions.get(0).getRank());
+		Assert.assertEquals(3, solutions.get(4).getRank());
+	}
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs.cdg;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.graphs.GraphPool;
+import org.evosuite.graphs.cfg.BasicBlock;
+import org.evosuite.graphs.cfg.ControlFlowEdge;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.ArrayStack;
+
+public class ControlDependenceCacheTest {
+
+	private static final String CLASS_NAME = ArrayStack.class.getName();
+
+	private File cacheDir;
+
+	@Before
+	public void setUp() throws IOException {
+		Properties.getInstance().resetToDefaults();
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		cacheDir = Files.createTempDirectory("instrumentation-cache").toFile();
+		Properties.TARGET_CLASS = CLASS_NAME;
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+		FileUtils.deleteDirectory(cacheDir);
+	}
+
+	private static Set<String> getControlDependencies(ClassLoader loader) {
+		GraphPool pool = GraphPool.getInstance(loader);
+		Set<String> dependencies = new LinkedHashSet<>();
+		for (String methodName : pool.getRawCFGs(CLASS_NAME).keySet()) {
+			ControlDependenceGraph cdg = pool.getCDG(CLASS_NAME, methodName);
+			if (cdg == null)
+				continue;
+			for (ControlFlowEdge e : cdg.edgeSet()) {
+				dependencies.add(methodName + ": " + describe(cdg.getEdgeSource(e)) + " -> "
+						+ describe(cdg.getEdgeTarget(e)) + " " + e);
+			}
+		}
+		return dependencies;
+	}
+
+	private static String describe(BasicBlock block) {
+		if (block.isEntryBlock())
+			return "entry";
+		return "" + block.getFirstInstruction().getInstructionId();
+	}
+
+	@Test
+	public void testReplayedControlDependencies() throws Exception {
+		InstrumentingClassLoader computing = new InstrumentingClassLoader();
+		computing.loadClass(CLASS_NAME);
+		Set<String> computed = getControlDependencies(computing);
+		Assert.assertFalse(computed.isEmpty());
+
+		Properties.INSTRUMENTATION_CACHE_DIR = cacheDir.getAbsolutePath();
+		ControlDependenceCache cache = ControlDependenceCache.getInstance();
+
+		int hits = cache.getNumberOfHits();
+		InstrumentingClassLoader recording = new InstrumentingClassLoader();
+		recording.loadClass(CLASS_NAME);
+		Assert.assertEquals(hits, cache.getNumberOfHits());
+		Assert.assertEquals(computed, getControlDependencies(recording));
+
+		InstrumentingClassLoader replaying = new InstrumentingClassLoader();
+		replaying.loadClass(CLASS_NAME);
+		Assert.assertTrue(cache.getNumberOfHits() > hits);
+		Assert.assertEquals(computed, getControlDependencies(replaying));
+	}
+
+	@Test
+	public void testChangedBytecodeIsNotReplayed() throws Exception {
+		Properties.INSTRUMENTATION_CACHE_DIR = cacheDir.getAbsolutePath();
+		ControlDependenceCache cache = ControlDependenceCache.getInstance();
+
+		new InstrumentingClassLoader().loadClass(CLASS_NAME);
+		int hits = cache.getNumberOfHits();
+
+		Properties.ERROR_BRANCHES = !Properties.ERROR_BRANCHES;
+		new InstrumentingClassLoader().loadClass(CLASS_NAME);
+		Assert.assertEquals(hits, cache.getNumberOfHits());
+	}
+}
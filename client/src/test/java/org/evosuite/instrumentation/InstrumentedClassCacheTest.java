@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.classpath.ResourceList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+
+import com.examples.with.different.packagename.ArrayStack;
+import com.examples.with.different.packagename.Dummy;
+
+public class InstrumentedClassCacheTest {
+
+	private static final String CLASS_NAME = ArrayStack.class.getName();
+
+	private static final String RESOURCE_NAME = CLASS_NAME.replace('.', '/');
+
+	private File cacheDir;
+
+	@Before
+	public void setUp() throws IOException {
+		Properties.getInstance().resetToDefaults();
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		cacheDir = Files.createTempDirectory("instrumentation-cache").toFile();
+		Properties.INSTRUMENTATION_CACHE_DIR = cacheDir.getAbsolutePath();
+		// the cached class must not be the target class, nor in its project
+		Properties.TARGET_CLASS = Dummy.class.getName();
+		Properties.PROJECT_PREFIX = "org.example.project";
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+		FileUtils.deleteDirectory(cacheDir);
+	}
+
+	private static byte[] readOriginalBytes() throws IOException {
+		try (InputStream in = ResourceList
+				.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
+				.getClassAsStream(CLASS_NAME)) {
+			return IOUtils.toByteArray(in);
+		}
+	}
+
+	@Test
+	public void testSecondClassLoaderUsesCachedBytecode() throws Exception {
+		InstrumentedClassCache cache = InstrumentedClassCache.getInstance();
+		int hits = cache.getNumberOfHits();
+
+		new InstrumentingClassLoader().loadClass(CLASS_NAME);
+		Assert.assertEquals(hits, cache.getNumberOfHits());
+
+		Class<?> clazz = new InstrumentingClassLoader().loadClass(CLASS_NAME);
+		Assert.assertTrue(cache.getNumberOfHits() > hits);
+
+		Object stack = clazz.newInstance();
+		Method push = clazz.getMethod("push", Object.class);
+		Method search = clazz.getMethod("search", Object.class);
+		push.invoke(stack, "foo");
+		push.invoke(stack, "bar");
+		Assert.assertEquals(2, search.invoke(stack, "foo"));
+	}
+
+	@Test
+	public void testChangedPropertiesAreNotServedFromCache() throws Exception {
+		InstrumentedClassCache cache = InstrumentedClassCache.getInstance();
+
+		new InstrumentingClassLoader().loadClass(CLASS_NAME);
+		int hits = cache.getNumberOfHits();
+
+		Properties.RESET_STATIC_FIELDS = !Properties.RESET_STATIC_FIELDS;
+		new InstrumentingClassLoader().loadClass(CLASS_NAME);
+		Assert.assertEquals(hits, cache.getNumberOfHits());
+	}
+
+	@Test
+	public void testTargetClassIsNotCacheable() {
+		BytecodeInstrumentation instrumentation = new BytecodeInstrumentation();
+		Assert.assertTrue(instrumentation.isCacheable(RESOURCE_NAME));
+
+		Properties.TARGET_CLASS = CLASS_NAME;
+		Assert.assertFalse(instrumentation.isCacheable(RESOURCE_NAME));
+	}
+
+	@Test
+	public void testLoopCounterIndicesAreRelocated() throws Exception {
+		InstrumentedClassCache cache = InstrumentedClassCache.getInstance();
+		byte[] originalBytes = readOriginalBytes();
+
+		InstrumentingClassLoader loader = new InstrumentingClassLoader();
+		byte[] transformedBytes = loader.getInstrumentation().transformBytes(loader, RESOURCE_NAME,
+				new ClassReader(originalBytes));
+		cache.put(RESOURCE_NAME, originalBytes, transformedBytes);
+
+		byte[] cachedBytes = cache.get(RESOURCE_NAME, originalBytes);
+		Assert.assertNotNull(cachedBytes);
+		// ArrayStack has a loop, and its index is already in use
+		Assert.assertFalse(Arrays.equals(transformedBytes, cachedBytes));
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StaticAccessMethodAdapterTest {
+
+	@Test
+	public void testPrimitiveAndImmutableTypes() {
+		Assert.assertTrue(StaticAccessMethodAdapter.isImmutableType("I"));
+		Assert.assertTrue(StaticAccessMethodAdapter.isImmutableType("J"));
+		Assert.assertTrue(StaticAccessMethodAdapter.isImmutableType("Z"));
+		Assert.assertTrue(StaticAccessMethodAdapter.isImmutableType("Ljava/lang/String;"));
+		Assert.assertTrue(StaticAccessMethodAdapter.isImmutableType("Ljava/lang/Integer;"));
+		Assert.assertTrue(StaticAccessMethodAdapter.isImmutableType("Lorg/slf4j/Logger;"));
+	}
+
+	@Test
+	public void testMutableTypes() {
+		Assert.assertFalse(StaticAccessMethodAdapter.isImmutableType("Ljava/util/List;"));
+		Assert.assertFalse(StaticAccessMethodAdapter.isImmutableType("Ljava/lang/Object;"));
+		Assert.assertFalse(StaticAccessMethodAdapter.isImmutableType("Ljava/lang/StringBuilder;"));
+		// the elements of an array can always be changed
+		Assert.assertFalse(StaticAccessMethodAdapter.isImmutableType("[I"));
+		Assert.assertFalse(StaticAccessMethodAdapter.isImmutableType("[Ljava/lang/String;"));
+	}
+}
@@ -21,22 +21,31 @@ package org.evosuite.junit;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.evosuite.Properties;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.factories.JUnitTestCarvedChromosomeFactory;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.examples.with.different.packagename.AccessExamples;
 import com.examples.with.different.packagename.sandbox.OpenStream;
 
 public class JUnitAnalyzerTest {
@@ -51,6 +60,7 @@ public class JUnitAnalyzerTest {
 	private static final boolean DEFAULT_SANDBOX = Properties.SANDBOX; 
 	private static final boolean DEFAULT_ASSERTS_FOR_EVO = Properties.ENABLE_ASSERTS_FOR_EVOSUITE;
 	private static final boolean DEFAULT_SCAFFOLDING = Properties.TEST_SCAFFOLDING;
+	private static final String DEFAULT_TARGET_CLASS = Properties.TARGET_CLASS;
 	
 	private File file = new File(OpenStream.FILE_NAME);
 
@@ -76,6 +86,7 @@ public class JUnitAnalyzerTest {
 		Properties.SANDBOX = DEFAULT_SANDBOX;
 		Properties.ENABLE_ASSERTS_FOR_EVOSUITE = DEFAULT_ASSERTS_FOR_EVO;
 		Properties.TEST_SCAFFOLDING = DEFAULT_SCAFFOLDING;
+		Properties.TARGET_CLASS = DEFAULT_TARGET_CLASS;
 	}
 	
 	@Test 
@@ -161,6 +172,54 @@ public class JUnitAnalyzerTest {
 		FileUtils.deleteDirectory(dir);
 		Assert.assertFalse(dir.exists());
 	}
-	
-	
+
+	@Test
+	public void testRemoveOnlyTheTestThatDoesNotCompile() throws Exception{
+
+		Properties.TARGET_CLASS = AccessExamples.class.getCanonicalName();
+
+		TestCase first = createAccessTest("publicMethod");
+		//a private method cannot be called directly, so this test does not compile
+		TestCase failing = createAccessTest("privateMethod");
+		TestCase last = createAccessTest("publicMethod");
+
+		List<TestCase> list = new ArrayList<TestCase>();
+		list.add(first);
+		list.add(failing);
+		list.add(last);
+
+		JUnitAnalyzer.removeTestsThatDoNotCompile(list);
+
+		Assert.assertEquals(2, list.size());
+		Assert.assertSame(first, list.get(0));
+		Assert.assertSame(last, list.get(1));
+	}
+
+	@Test
+	public void testAllTestsCompile() throws Exception{
+
+		Properties.TARGET_CLASS = AccessExamples.class.getCanonicalName();
+
+		List<TestCase> list = new ArrayList<TestCase>();
+		list.add(createAccessTest("publicMethod"));
+		list.add(createAccessTest("publicMethod"));
+
+		JUnitAnalyzer.removeTestsThatDoNotCompile(list);
+
+		Assert.assertEquals(2, list.size());
+	}
+
+	/**
+	 * Create a test that instantiates {@link AccessExamples} and calls the given method on it
+	 */
+	static TestCase createAccessTest(String methodName) throws NoSuchMethodException{
+		TestCase test = new DefaultTestCase();
+		VariableReference callee = test.addStatement(new ConstructorStatement(test,
+				new GenericConstructor(AccessExamples.class.getConstructor(), AccessExamples.class),
+				Collections.<VariableReference> emptyList()));
+		Method method = AccessExamples.class.getDeclaredMethod(methodName);
+		test.addStatement(new MethodStatement(test, new GenericMethod(method, AccessExamples.class), callee,
+				Collections.<VariableReference> emptyList()));
+		return test;
+	}
 }
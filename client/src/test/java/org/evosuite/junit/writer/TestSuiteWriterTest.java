@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit.writer;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.AccessExamples;
+
+public class TestSuiteWriterTest {
+
+	private static final String DEFAULT_TARGET_CLASS = Properties.TARGET_CLASS;
+	private static final Properties.TestNamingStrategy DEFAULT_NAMING = Properties.TEST_NAMING_STRATEGY;
+
+	@Before
+	public void init() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.TARGET_CLASS = AccessExamples.class.getCanonicalName();
+		Properties.TEST_NAMING_STRATEGY = Properties.TestNamingStrategy.NUMBERED;
+	}
+
+	@After
+	public void reset() {
+		Properties.TARGET_CLASS = DEFAULT_TARGET_CLASS;
+		Properties.TEST_NAMING_STRATEGY = DEFAULT_NAMING;
+	}
+
+	@Test
+	public void testTestIdAtLine() throws Exception {
+		TestSuiteWriter writer = new TestSuiteWriter();
+		writer.insertTest(createTest("publicMethod"));
+		writer.insertTest(createTest("protectedMethod"));
+
+		String name = "AccessExamples_ESTest";
+		Map<String, String> sources = writer.generateTestSuite(name, Collections.emptyList());
+		String[] lines = sources.get(name).split("\n", -1);
+
+		int firstTest = -1;
+		int secondTest = -1;
+		int firstTestLine = -1;
+		int lastTestLine = -1;
+		for (int i = 0; i < lines.length; i++) {
+			if (lines[i].contains("void test0()"))
+				firstTest = i + 1;
+			if (lines[i].contains("void test1()"))
+				secondTest = i + 1;
+			if (lines[i].contains(".publicMethod()"))
+				firstTestLine = i + 1;
+			if (lines[i].contains(".protectedMethod()"))
+				lastTestLine = i + 1;
+		}
+		Assert.assertTrue(firstTest > 0);
+		Assert.assertTrue(secondTest > firstTest);
+
+		Assert.assertEquals(-1, writer.getTestIdAtLine(name, 1));
+		Assert.assertEquals(0, writer.getTestIdAtLine(name, firstTest));
+		Assert.assertEquals(0, writer.getTestIdAtLine(name, firstTestLine));
+		Assert.assertEquals(1, writer.getTestIdAtLine(name, secondTest));
+		Assert.assertEquals(1, writer.getTestIdAtLine(name, lastTestLine));
+
+		// the closing brace of the class follows the last test, but is not part of it
+		int classEnd = lines.length;
+		while (!lines[classEnd - 1].trim().equals("}"))
+			classEnd--;
+		Assert.assertEquals(-1, writer.getTestIdAtLine(name, classEnd));
+		Assert.assertEquals(-1, writer.getTestIdAtLine("NoSuchClass_ESTest", firstTest));
+	}
+
+	private static TestCase createTest(String methodName) throws NoSuchMethodException {
+		TestCase test = new DefaultTestCase();
+		VariableReference callee = test.addStatement(new ConstructorStatement(test,
+				new GenericConstructor(AccessExamples.class.getConstructor(), AccessExamples.class),
+				Collections.<VariableReference> emptyList()));
+		Method method = AccessExamples.class.getDeclaredMethod(methodName);
+		test.addStatement(new MethodStatement(test, new GenericMethod(method, AccessExamples.class), callee,
+				Collections.<VariableReference> emptyList()));
+		return test;
+	}
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.statistics.RuntimeVariable;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StatisticsBatchTest {
+
+	@Test
+	public void testEmptyBatch() {
+		StatisticsBatch batch = new StatisticsBatch();
+		Assert.assertTrue(batch.isEmpty());
+		Assert.assertNull(batch.getIndividual());
+		Assert.assertEquals(0, batch.getNumberOfOutputVariables());
+	}
+
+	@Test
+	public void testOnlyLatestIndividualIsKept() {
+		DummyChromosome first = new DummyChromosome(1);
+		DummyChromosome second = new DummyChromosome(2);
+
+		StatisticsBatch batch = new StatisticsBatch();
+		batch.addOutputVariable(RuntimeVariable.Size, 1);
+		batch.setIndividual(first);
+		batch.addOutputVariable(RuntimeVariable.Length, 2);
+		batch.setIndividual(second);
+		batch.addOutputVariable(RuntimeVariable.Size, 3);
+
+		Assert.assertFalse(batch.isEmpty());
+		Assert.assertSame(second, batch.getIndividual());
+		Assert.assertEquals(2, batch.getIndividualPosition());
+		Assert.assertEquals(3, batch.getNumberOfOutputVariables());
+		Assert.assertEquals(RuntimeVariable.Length, batch.getOutputVariable(1));
+		Assert.assertEquals(3, batch.getOutputVariableValue(2));
+	}
+}
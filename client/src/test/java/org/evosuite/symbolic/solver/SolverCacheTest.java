@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolverCacheTest {
+
+	/**
+	 * Returns a fixed result and counts how often it was invoked
+	 */
+	private static class CountingSolver extends Solver {
+
+		private final SolverResult result;
+
+		private int calls = 0;
+
+		public CountingSolver(SolverResult result) {
+			this.result = result;
+		}
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			calls++;
+			return result;
+		}
+	}
+
+	private static IntegerVariable var(String name) {
+		return new IntegerVariable(name, 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	private static SolverResult sat(String name, long value) {
+		Map<String, Object> model = new HashMap<String, Object>();
+		model.put(name, value);
+		return SolverResult.newSAT(model);
+	}
+
+	private int cacheSize;
+
+	private String cacheFile;
+
+	@Before
+	public void setUp() {
+		cacheSize = Properties.DSE_SOLVER_CACHE_SIZE;
+		cacheFile = Properties.DSE_SOLVER_CACHE_FILE;
+		SolverCache.getInstance().clear();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.DSE_SOLVER_CACHE_SIZE = cacheSize;
+		Properties.DSE_SOLVER_CACHE_FILE = cacheFile;
+		SolverCache.getInstance().clear();
+	}
+
+	@Test
+	public void testRenamedQueryHitsCache() {
+		CountingSolver solver = new CountingSolver(sat("x", 5L));
+
+		List<Constraint<?>> first = new LinkedList<Constraint<?>>();
+		first.add(ConstraintFactory.eq(var("x"), new IntegerConstant(5)));
+		SolverResult result = SolverCache.getInstance().solve(solver, first);
+		assertTrue(result.isSAT());
+
+		List<Constraint<?>> second = new LinkedList<Constraint<?>>();
+		second.add(ConstraintFactory.eq(var("y"), new IntegerConstant(5)));
+		result = SolverCache.getInstance().solve(solver, second);
+
+		assertEquals(1, solver.calls);
+		assertTrue(result.isSAT());
+		assertEquals(5L, result.getValue("y"));
+	}
+
+	@Test
+	public void testConstraintOrderDoesNotMatter() {
+		CountingSolver solver = new CountingSolver(SolverResult.newUNSAT());
+		IntegerVariable x = var("x");
+
+		List<Constraint<?>> first = new LinkedList<Constraint<?>>();
+		first.add(ConstraintFactory.lt(x, new IntegerConstant(3)));
+		first.add(ConstraintFactory.gte(x, new IntegerConstant(7)));
+		SolverCache.getInstance().solve(solver, first);
+
+		List<Constraint<?>> second = new LinkedList<Constraint<?>>();
+		second.add(ConstraintFactory.gte(x, new IntegerConstant(7)));
+		second.add(ConstraintFactory.lt(x, new IntegerConstant(3)));
+		SolverResult result = SolverCache.getInstance().solve(solver, second);
+
+		assertEquals(1, solver.calls);
+		assertTrue(result.isUNSAT());
+	}
+
+	@Test
+	public void testSupersetOfUnsatIsUnsat() {
+		CountingSolver solver = new CountingSolver(SolverResult.newUNSAT());
+		IntegerVariable x = var("x");
+
+		List<Constraint<?>> unsat = new LinkedList<Constraint<?>>();
+		unsat.add(ConstraintFactory.neq(x, x));
+		SolverCache.getInstance().solve(solver, unsat);
+
+		List<Constraint<?>> superset = new LinkedList<Constraint<?>>(unsat);
+		superset.add(ConstraintFactory.lt(var("z"), new IntegerConstant(3)));
+		SolverResult result = SolverCache.getInstance().solve(solver, superset);
+
+		assertEquals(1, solver.calls);
+		assertTrue(result.isUNSAT());
+	}
+
+	@Test
+	public void testModelOfPreviousQueryIsReused() {
+		CountingSolver solver = new CountingSolver(sat("x", 5L));
+		IntegerVariable x = var("x");
+
+		List<Constraint<?>> first = new LinkedList<Constraint<?>>();
+		first.add(ConstraintFactory.eq(x, new IntegerConstant(5)));
+		SolverCache.getInstance().solve(solver, first);
+
+		List<Constraint<?>> second = new LinkedList<Constraint<?>>();
+		second.add(ConstraintFactory.gte(x, new IntegerConstant(4)));
+		SolverResult result = SolverCache.getInstance().solve(solver, second);
+
+		assertEquals(1, solver.calls);
+		assertTrue(result.isSAT());
+		assertEquals(5L, result.getValue("x"));
+	}
+
+	@Test
+	public void testCacheIsBounded() {
+		Properties.DSE_SOLVER_CACHE_SIZE = 2;
+		CountingSolver solver = new CountingSolver(SolverResult.newUNSAT());
+		for (int i = 0; i < 5; i++) {
+			List<Constraint<?>> query = new LinkedList<Constraint<?>>();
+			query.add(ConstraintFactory.eq(var("x"), new IntegerConstant(i)));
+			SolverCache.getInstance().solve(solver, query);
+		}
+		assertEquals(2, SolverCache.getInstance().size());
+	}
+
+	@Test
+	public void testPersistence() throws IOException {
+		File file = File.createTempFile("solver_cache", ".bin");
+		file.deleteOnExit();
+		file.delete();
+		Properties.DSE_SOLVER_CACHE_FILE = file.getAbsolutePath();
+
+		CountingSolver solver = new CountingSolver(sat("x", 5L));
+		List<Constraint<?>> query = new LinkedList<Constraint<?>>();
+		query.add(ConstraintFactory.eq(var("x"), new IntegerConstant(5)));
+		SolverCache.getInstance().solve(solver, query);
+		SolverCache.getInstance().saveToFile();
+		assertTrue(file.exists());
+
+		SolverCache.getInstance().clear();
+		List<Constraint<?>> renamed = new LinkedList<Constraint<?>>();
+		renamed.add(ConstraintFactory.eq(var("w"), new IntegerConstant(5)));
+		SolverResult result = SolverCache.getInstance().solve(solver, renamed);
+
+		assertEquals(1, solver.calls);
+		assertEquals(5L, result.getValue("w"));
+	}
+}
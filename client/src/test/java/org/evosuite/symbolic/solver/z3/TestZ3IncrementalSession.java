@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver.z3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.solver.SmtSolverSession;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestZ3IncrementalSession extends TestZ3 {
+
+	private static final boolean DEFAULT_DSE_INCREMENTAL_SOLVER = Properties.DSE_INCREMENTAL_SOLVER;
+
+	@Before
+	public void enableIncrementalSolver() {
+		Properties.DSE_INCREMENTAL_SOLVER = true;
+	}
+
+	@After
+	public void restoreIncrementalSolver() {
+		Properties.DSE_INCREMENTAL_SOLVER = DEFAULT_DSE_INCREMENTAL_SOLVER;
+		SmtSolverSession.closeAll();
+	}
+
+	@Test
+	public void testSuccessiveNegations() throws Exception {
+		IntegerVariable x = new IntegerVariable("x", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+		IntegerVariable y = new IntegerVariable("y", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+
+		List<Constraint<?>> prefix = new ArrayList<Constraint<?>>();
+		prefix.add(ConstraintFactory.lt(new IntegerConstant(10L), x));
+		prefix.add(ConstraintFactory.lt(x, new IntegerConstant(20L)));
+
+		List<Constraint<?>> first = new ArrayList<Constraint<?>>(prefix);
+		first.add(ConstraintFactory.eq(x, new IntegerConstant(15L)));
+		SolverResult result = new Z3Solver().solve(first);
+		assertTrue(result.isSAT());
+		assertEquals(Long.valueOf(15L), result.getModel().get("x"));
+
+		List<Constraint<?>> second = new ArrayList<Constraint<?>>(prefix);
+		second.add(ConstraintFactory.eq(x, new IntegerConstant(25L)));
+		result = new Z3Solver().solve(second);
+		assertTrue(result.isUNSAT());
+
+		List<Constraint<?>> third = new ArrayList<Constraint<?>>(prefix);
+		third.add(ConstraintFactory.eq(y, x));
+		result = new Z3Solver().solve(third);
+		assertTrue(result.isSAT());
+		assertEquals(result.getModel().get("x"), result.getModel().get("y"));
+
+		String z3Cmd = Properties.Z3_PATH + " -smt2 -in ";
+		SmtSolverSession session = SmtSolverSession.getSession(z3Cmd);
+		assertEquals(3, session.getNumberOfQueries());
+		assertEquals(4, session.getNumberOfReusedAssertions());
+	}
+}
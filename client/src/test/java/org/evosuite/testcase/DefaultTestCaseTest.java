@@ -19,6 +19,10 @@
  */
 package org.evosuite.testcase;
 
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -31,4 +35,47 @@ public class DefaultTestCaseTest {
 		DefaultTestCase clone = (DefaultTestCase) tc.clone();
 		Assert.assertTrue(tc.statements != clone.statements);
 	}
+
+	@Test
+	public void testCloneOfLongTest() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference sb = builder.appendConstructor(StringBuilder.class.getConstructor());
+		for (int i = 0; i < 200; i++) {
+			VariableReference value = builder.appendIntPrimitive(i);
+			builder.appendMethod(sb, StringBuilder.class.getMethod("append", int.class), value);
+		}
+		DefaultTestCase tc = builder.getDefaultTestCase();
+
+		DefaultTestCase clone = tc.clone();
+		Assert.assertEquals(tc.size(), clone.size());
+		Assert.assertEquals(tc.toCode(), clone.toCode());
+		for (int i = 0; i < clone.size(); i++) {
+			Statement statement = clone.getStatement(i);
+			Assert.assertSame(clone, statement.getReturnValue().getTestCase());
+			Assert.assertEquals(i, statement.getReturnValue().getStPosition());
+			for (VariableReference var : statement.getVariableReferences()) {
+				Assert.assertSame(clone, var.getTestCase());
+			}
+		}
+	}
+
+	@Test
+	public void testVariablePositionsAfterChanges() {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference first = builder.appendIntPrimitive(0);
+		VariableReference second = builder.appendIntPrimitive(1);
+		DefaultTestCase tc = builder.getDefaultTestCase();
+		Assert.assertEquals(1, second.getStPosition());
+
+		tc.addStatement(new IntPrimitiveStatement(tc, 2), 0);
+		Assert.assertEquals(1, first.getStPosition());
+		Assert.assertEquals(2, second.getStPosition());
+
+		// Changing the return value of a statement does not change the list of statements
+		VariableReference third = tc.getStatement(0).getReturnValue();
+		tc.getStatement(0).setRetval(second);
+		tc.getStatement(2).setRetval(third);
+		Assert.assertEquals(0, second.getStPosition());
+		Assert.assertEquals(2, third.getStPosition());
+	}
 }
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutionTraceProxyTest {
+
+	private static ExecutionTraceImpl finishedTrace() {
+		ExecutionTraceImpl trace = new ExecutionTraceImpl();
+		trace.branchPassed(1, 10, 0.0, 1.0);
+		trace.finishCalls();
+		return trace;
+	}
+
+	@Test
+	public void testLazyCloneSharesTrace() {
+		ExecutionTraceImpl trace = finishedTrace();
+		ExecutionTraceProxy proxy = new ExecutionTraceProxy(trace);
+		ExecutionTrace copy = proxy.lazyClone();
+
+		Assert.assertEquals(2, trace.getProxyCount());
+		Assert.assertSame(trace.getTrueDistances(), copy.getTrueDistances());
+	}
+
+	@Test
+	public void testFinishCallsOnFinishedTraceDoesNotCopy() {
+		ExecutionTraceImpl trace = finishedTrace();
+		ExecutionTraceProxy proxy = new ExecutionTraceProxy(trace);
+		ExecutionTrace copy = proxy.lazyClone();
+
+		copy.finishCalls();
+		proxy.finishCalls();
+
+		Assert.assertEquals(2, trace.getProxyCount());
+		Assert.assertSame(trace.getTrueDistances(), copy.getTrueDistances());
+	}
+
+	@Test
+	public void testWriteDiverges() {
+		ExecutionTraceImpl trace = finishedTrace();
+		ExecutionTraceProxy proxy = new ExecutionTraceProxy(trace);
+		ExecutionTrace copy = proxy.lazyClone();
+
+		copy.branchPassed(2, 11, 0.0, 1.0);
+
+		Assert.assertEquals(1, trace.getProxyCount());
+		Assert.assertTrue(copy.getCoveredTrueBranches().contains(2));
+		Assert.assertFalse(proxy.getCoveredTrueBranches().contains(2));
+		Assert.assertTrue(copy.getCoveredTrueBranches().contains(1));
+
+		// the remaining proxy is the only owner now and writes in place
+		proxy.branchPassed(3, 12, 0.0, 1.0);
+		Assert.assertTrue(trace.getCoveredTrueBranches().contains(3));
+	}
+
+	@Test
+	public void testLazyCloneOfTraceImpl() {
+		ExecutionTraceImpl trace = finishedTrace();
+		ExecutionTrace copy = trace.lazyClone();
+
+		Assert.assertTrue(copy instanceof ExecutionTraceProxy);
+		Assert.assertEquals(2, trace.getProxyCount());
+		Assert.assertEquals(trace.getCoveredTrueBranches(), copy.getCoveredTrueBranches());
+	}
+}
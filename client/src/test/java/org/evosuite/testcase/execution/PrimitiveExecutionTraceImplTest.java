@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrimitiveExecutionTraceImplTest {
+
+	private static final double DELTA = 0.0;
+
+	private static void passBranches(ExecutionTrace trace) {
+		trace.branchPassed(1, 10, 0.0, 1.0);
+		trace.branchPassed(1, 10, 2.0, 0.0);
+		trace.branchPassed(3, 12, 5.0, 0.0);
+		trace.branchPassed(3, 12, 4.0, 0.0);
+		// beyond the initial capacity
+		trace.branchPassed(40, 20, 0.0, 3.0);
+	}
+
+	@Test
+	public void testSameMapsAsExecutionTraceImpl() {
+		ExecutionTraceImpl expected = new ExecutionTraceImpl();
+		PrimitiveExecutionTraceImpl actual = new PrimitiveExecutionTraceImpl(4);
+		passBranches(expected);
+		passBranches(actual);
+
+		Assert.assertEquals(expected.getPredicateExecutionCount(), actual.getPredicateExecutionCount());
+		Assert.assertEquals(expected.getTrueDistances(), actual.getTrueDistances());
+		Assert.assertEquals(expected.getFalseDistances(), actual.getFalseDistances());
+		Assert.assertEquals(expected.getTrueDistancesSum(), actual.getTrueDistancesSum());
+		Assert.assertEquals(expected.getFalseDistancesSum(), actual.getFalseDistancesSum());
+		Assert.assertEquals(expected.getCoveredTrueBranches(), actual.getCoveredTrueBranches());
+		Assert.assertEquals(expected.getCoveredFalseBranches(), actual.getCoveredFalseBranches());
+		Assert.assertEquals(expected.getCoveredPredicates(), actual.getCoveredPredicates());
+	}
+
+	@Test
+	public void testDistances() {
+		PrimitiveExecutionTraceImpl trace = new PrimitiveExecutionTraceImpl(4);
+		passBranches(trace);
+
+		Assert.assertEquals(0.0, trace.getTrueDistance(1), DELTA);
+		Assert.assertEquals(0.0, trace.getFalseDistance(1), DELTA);
+		Assert.assertEquals(4.0, trace.getTrueDistance(3), DELTA);
+		Assert.assertTrue(trace.hasTrueDistance(40));
+		Assert.assertFalse(trace.hasTrueDistance(2));
+		Assert.assertEquals(3, trace.getTrueDistances().size());
+	}
+
+	@Test
+	public void testDistanceOfUnpassedDenseBranch() {
+		PrimitiveExecutionTraceImpl trace = new PrimitiveExecutionTraceImpl(4);
+		passBranches(trace);
+
+		Assert.assertFalse(trace.hasTrueDistance(2));
+		try {
+			trace.getTrueDistance(2);
+			Assert.fail("Branch 2 was not passed, so it has no true distance");
+		} catch (NullPointerException e) {
+			//expected, same as ExecutionTraceImpl
+		}
+		try {
+			trace.getFalseDistance(2);
+			Assert.fail("Branch 2 was not passed, so it has no false distance");
+		} catch (NullPointerException e) {
+			//expected, same as ExecutionTraceImpl
+		}
+	}
+
+	@Test
+	public void testViewIsUpdatedAfterNewBranch() {
+		PrimitiveExecutionTraceImpl trace = new PrimitiveExecutionTraceImpl(4);
+		trace.branchPassed(1, 10, 1.0, 0.0);
+		Assert.assertEquals(1, trace.getTrueDistances().size());
+		trace.branchPassed(2, 11, 1.0, 0.0);
+		Assert.assertEquals(2, trace.getTrueDistances().size());
+	}
+
+	@Test
+	public void testCloneAndClear() {
+		PrimitiveExecutionTraceImpl trace = new PrimitiveExecutionTraceImpl(4);
+		passBranches(trace);
+
+		PrimitiveExecutionTraceImpl copy = trace.clone();
+		trace.clear();
+
+		Assert.assertTrue(trace.getTrueDistances().isEmpty());
+		Assert.assertTrue(trace.getPredicateExecutionCount().isEmpty());
+		Assert.assertEquals(3, copy.getTrueDistances().size());
+		Assert.assertEquals(2, (int) copy.getPredicateExecutionCount().get(3));
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution.reset;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.staticusage.StaticCounterWithInit;
+
+public class ClassReInitializerTest {
+
+	private static final String FIRST = "com.examples.First";
+	private static final String SECOND = "com.examples.Second";
+	private static final String THIRD = "com.examples.Third";
+
+	private ClassReInitializer reInitializer;
+
+	@Before
+	public void setUp() {
+		ClassReInitializer.resetSingleton();
+		reInitializer = ClassReInitializer.getInstance();
+		reInitializer.addInitializedClasses(Arrays.asList(FIRST, SECOND, THIRD));
+	}
+
+	@After
+	public void tearDown() {
+		ClassReInitializer.resetSingleton();
+		Properties.getInstance().resetToDefaults();
+		TestGenerationContext.getInstance().resetContext();
+	}
+
+	@Test
+	public void testCleanClassesAreSkipped() {
+		Assert.assertTrue(reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()).isEmpty());
+	}
+
+	@Test
+	public void testWrittenClassIsReset() {
+		ExecutionTracer.passedPutStatic(SECOND, "counter");
+
+		Assert.assertEquals(Arrays.asList(SECOND), reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()));
+
+		// once reset, the class is clean until its static state is accessed again
+		Assert.assertTrue(reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()).isEmpty());
+		ExecutionTracer.passedPutStatic(SECOND, "counter");
+		Assert.assertEquals(Arrays.asList(SECOND), reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()));
+	}
+
+	@Test
+	public void testClassInitializedDuringTestIsReset() {
+		ExecutionTracer.passedPutStatic(THIRD, "counter");
+
+		// in initialization order
+		Assert.assertEquals(Arrays.asList(FIRST, THIRD), reInitializer.resetDirtyClasses(Arrays.asList(FIRST), Collections.<String> emptySet()));
+	}
+
+	@Test
+	public void testMutableReadMakesClassDirty() {
+		ExecutionTracer.passedGetStatic(FIRST, "list");
+
+		Assert.assertEquals(Arrays.asList(FIRST), reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()));
+	}
+
+	@Test
+	public void testImmutableReadDoesNotMakeClassDirty() {
+		ExecutionTracer.passedImmutableGetStatic(FIRST, "logger");
+		ExecutionTracer.passedImmutableGetStatic(SECOND, "MAX_SIZE");
+
+		Assert.assertTrue(reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()).isEmpty());
+	}
+
+	@Test
+	public void testClassAccessedByTestIsReset() {
+		Assert.assertEquals(Arrays.asList(SECOND),
+				reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.singleton(SECOND)));
+	}
+
+	@Test
+	public void testStaticResetDoesNotMakeClassDirty() throws Exception {
+		Properties.RESET_STATIC_FIELDS = true;
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		TestGenerationContext.getInstance().resetContext();
+
+		String className = StaticCounterWithInit.class.getName();
+		Class<?> clazz = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(className);
+		Method increment = clazz.getMethod("increment");
+		Method getCounter = clazz.getMethod("getCounter");
+
+		ClassReInitializer.resetSingleton();
+		reInitializer = ClassReInitializer.getInstance();
+		reInitializer.addInitializedClasses(Arrays.asList(className));
+
+		increment.invoke(null);
+		Assert.assertEquals(1, getCounter.invoke(null));
+
+		Assert.assertEquals(Arrays.asList(className),
+				reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()));
+		Assert.assertEquals(0, getCounter.invoke(null));
+
+		// __STATIC_RESET() writes the counter in init(), which is not a reason to reset the class again
+		Assert.assertTrue(reInitializer
+				.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()).isEmpty());
+	}
+
+	@Test
+	public void testResetSingletonClearsDirtyClasses() {
+		ExecutionTracer.passedPutStatic(FIRST, "counter");
+		ClassReInitializer.resetSingleton();
+		reInitializer = ClassReInitializer.getInstance();
+		reInitializer.addInitializedClasses(Arrays.asList(FIRST));
+
+		Assert.assertTrue(reInitializer.resetDirtyClasses(Collections.<String> emptyList(), Collections.<String> emptySet()).isEmpty());
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.ExecutableChromosome;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSuiteAggregationTest {
+
+	/**
+	 * Sums up the lengths of the executed tests
+	 */
+	private static class LengthAggregation extends TestSuiteAggregation<Integer> {
+
+		private int totalLength = 0;
+
+		private int numAnalyzed = 0;
+
+		@Override
+		protected Integer analyze(ExecutableChromosome test, ExecutionResult result) {
+			numAnalyzed++;
+			return result.test.size();
+		}
+
+		@Override
+		protected void add(Integer contribution) {
+			totalLength += contribution;
+		}
+
+		@Override
+		protected void remove(Integer contribution) {
+			totalLength -= contribution;
+		}
+
+		@Override
+		protected TestSuiteAggregation<Integer> copyStatistics() {
+			LengthAggregation copy = new LengthAggregation();
+			copy.totalLength = totalLength;
+			return copy;
+		}
+	}
+
+	private static TestCase buildTest(int length) {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		for (int i = 0; i < length; i++) {
+			builder.appendIntPrimitive(i);
+		}
+		return builder.getDefaultTestCase();
+	}
+
+	private static void execute(TestChromosome test) {
+		ExecutionResult result = new ExecutionResult(test.getTestCase());
+		result.setTrace(new ExecutionTraceImpl());
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
+	}
+
+	private static TestSuiteChromosome buildSuite(int... lengths) {
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		for (int length : lengths) {
+			execute(suite.addTest(buildTest(length)));
+		}
+		return suite;
+	}
+
+	@Test
+	public void testOnlyNewResultsAreAnalyzed() {
+		TestSuiteChromosome suite = buildSuite(1, 2, 3);
+		LengthAggregation aggregation = new LengthAggregation();
+
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(6, aggregation.totalLength);
+		Assert.assertEquals(3, aggregation.numAnalyzed);
+
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(6, aggregation.totalLength);
+		Assert.assertEquals(3, aggregation.numAnalyzed);
+
+		TestChromosome changed = suite.getTestChromosome(0);
+		changed.setTestCase(buildTest(4));
+		execute(changed);
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(9, aggregation.totalLength);
+		Assert.assertEquals(4, aggregation.numAnalyzed);
+	}
+
+	@Test
+	public void testRemovedAndUnexecutedTests() {
+		TestSuiteChromosome suite = buildSuite(1, 2, 3);
+		LengthAggregation aggregation = new LengthAggregation();
+		aggregation.update(suite.getTestChromosomes());
+
+		suite.deleteTest(suite.getTestChromosome(1));
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(4, aggregation.totalLength);
+
+		suite.addTest(buildTest(5));
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(4, aggregation.totalLength);
+
+		suite.getTestChromosome(0).setChanged(true);
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(3, aggregation.totalLength);
+	}
+
+	@Test
+	public void testDuplicateTestsAreCountedPerOccurrence() {
+		TestSuiteChromosome suite = buildSuite(2);
+		suite.addTest(suite.getTestChromosome(0));
+		LengthAggregation aggregation = new LengthAggregation();
+
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(4, aggregation.totalLength);
+		Assert.assertEquals(1, aggregation.numAnalyzed);
+
+		suite.deleteTest(suite.getTestChromosome(0));
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(2, aggregation.totalLength);
+	}
+
+	@Test
+	public void testAggregationIsCopiedWithSuite() {
+		TestSuiteChromosome suite = buildSuite(1, 2, 3);
+		LengthAggregation aggregation = new LengthAggregation();
+		aggregation.update(suite.getTestChromosomes());
+		suite.setAggregation(this, aggregation);
+
+		TestSuiteChromosome copy = suite.clone();
+		LengthAggregation copiedAggregation = (LengthAggregation) copy.getAggregation(this);
+		Assert.assertNotNull(copiedAggregation);
+		Assert.assertNotSame(aggregation, copiedAggregation);
+
+		copiedAggregation.update(copy.getTestChromosomes());
+		Assert.assertEquals(6, copiedAggregation.totalLength);
+		Assert.assertEquals(0, copiedAggregation.numAnalyzed);
+
+		copy.deleteTest(copy.getTestChromosome(2));
+		copiedAggregation.update(copy.getTestChromosomes());
+		Assert.assertEquals(3, copiedAggregation.totalLength);
+
+		aggregation.update(suite.getTestChromosomes());
+		Assert.assertEquals(6, aggregation.totalLength);
+	}
+}
@@ -19,7 +19,13 @@
  */
 package org.evosuite.utils;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.After;
 import org.junit.Test;
 
 /**
@@ -40,4 +46,49 @@ public class RandomnessTest {
 					(Double.compare(r, min) >= 0) && (Double.compare(r, max) <= 0));
 		}
 	}
+
+	@After
+	public void tearDown() {
+		Randomness.unbindStream();
+		Randomness.setStreamsActive(false);
+	}
+
+	@Test
+	public void testNewStreamOnlyDependsOnSeedAndId() {
+		Randomness.setSeed(42);
+		long first = Randomness.newStream(3).nextLong();
+		Randomness.nextLong();
+		assertEquals(first, Randomness.newStream(3).nextLong());
+		assertNotEquals(first, Randomness.newStream(4).nextLong());
+
+		Randomness.setSeed(43);
+		assertNotEquals(first, Randomness.newStream(3).nextLong());
+	}
+
+	@Test
+	public void testSplitIsReproducible() {
+		Randomness.setSeed(42);
+		long first = Randomness.split().nextLong();
+		long second = Randomness.split().nextLong();
+		assertNotEquals(first, second);
+
+		Randomness.setSeed(42);
+		assertEquals(first, Randomness.split().nextLong());
+		assertEquals(second, Randomness.split().nextLong());
+	}
+
+	@Test
+	public void testBoundStreamDoesNotAdvanceGlobalStream() {
+		Randomness.setSeed(42);
+		long expected = Randomness.nextLong();
+
+		Randomness.setSeed(42);
+		Randomness.setStreamsActive(true);
+		Random stream = Randomness.newStream(0);
+		long expectedFromStream = Randomness.newStream(0).nextLong();
+		Randomness.bindStream(stream);
+		assertEquals(expectedFromStream, Randomness.nextLong());
+		Randomness.unbindStream();
+		assertEquals(expected, Randomness.nextLong());
+	}
 }
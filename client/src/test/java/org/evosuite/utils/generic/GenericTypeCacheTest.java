@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GenericTypeCacheTest {
+
+	public static class Box<T extends Number> {
+	}
+
+	public static class IntegerBox extends Box<Integer> {
+	}
+
+	@After
+	public void tearDown() {
+		GenericTypeCache.clear();
+	}
+
+	@Test
+	public void testAssignabilityOfEqualTypesIsShared() {
+		Type listOfString1 = new ParameterizedTypeImpl(List.class, new Type[] { String.class }, null);
+		Type listOfString2 = new ParameterizedTypeImpl(List.class, new Type[] { String.class }, null);
+		Type arrayListOfString = new ParameterizedTypeImpl(ArrayList.class, new Type[] { String.class }, null);
+		Type arrayListOfInteger = new ParameterizedTypeImpl(ArrayList.class, new Type[] { Integer.class }, null);
+
+		Assert.assertNull(GenericTypeCache.getAssignable(listOfString1, arrayListOfString));
+		Assert.assertTrue(GenericClass.isAssignable(listOfString1, arrayListOfString));
+		Assert.assertEquals(Boolean.TRUE, GenericTypeCache.getAssignable(listOfString2, arrayListOfString));
+
+		Assert.assertFalse(GenericClass.isAssignable(listOfString1, arrayListOfInteger));
+		Assert.assertEquals(Boolean.FALSE, GenericTypeCache.getAssignable(listOfString1, arrayListOfInteger));
+
+		GenericTypeCache.clear();
+		Assert.assertNull(GenericTypeCache.getAssignable(listOfString1, arrayListOfString));
+	}
+
+	@Test
+	public void testTypeVariableMapIsCopied() {
+		GenericClass first = new GenericClass(IntegerBox.class);
+		Map<TypeVariable<?>, Type> firstMap = first.getTypeVariableMap();
+		TypeVariable<?> variable = Box.class.getTypeParameters()[0];
+		Assert.assertEquals(Integer.class, firstMap.get(variable));
+
+		// Modifications by one user must not leak into other instances
+		firstMap.put(variable, Double.class);
+		GenericClass second = new GenericClass(IntegerBox.class);
+		Assert.assertEquals(Integer.class, second.getTypeVariableMap().get(variable));
+	}
+
+	@Test
+	public void testGenericTypeOfRawClassIsCached() {
+		Type type = GenericClass.addTypeParameters(Box.class);
+		Assert.assertSame(type, new GenericClass(Box.class).getType());
+		Assert.assertSame(String.class, GenericClass.addTypeParameters(String.class));
+	}
+}
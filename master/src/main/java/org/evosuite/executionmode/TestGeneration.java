@@ -37,6 +37,7 @@ import org.evosuite.rmi.service.ClientNodeRemote;
 import org.evosuite.runtime.util.JarPathing;
 import org.evosuite.runtime.util.JavaExecCmdUtil;
 import org.evosuite.statistics.SearchStatistics;
+import org.evosuite.utils.ClientProcessPool;
 import org.evosuite.utils.ExternalProcessHandler;
 import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
@@ -75,6 +76,18 @@ public class TestGeneration {
 		}
 
 
+		try {
+			results.addAll(generateTestsForTargets(strategy, line, options, javaOpts));
+		} finally {
+			ClientProcessPool.getInstance().shutdown();
+		}
+		return results;
+	}
+
+	private static List<List<TestGenerationResult>> generateTestsForTargets(Strategy strategy, CommandLine line,
+			Options options, List<String> javaOpts) {
+		List<List<TestGenerationResult>> results = new ArrayList<List<TestGenerationResult>>();
+
 		if (line.hasOption("class")) {
 			results.addAll(generateTests(strategy, line.getOptionValue("class"), javaOpts));
 		} else if (line.hasOption("prefix")){
@@ -225,6 +238,15 @@ public class TestGeneration {
 			                + " because it belongs to one of the packages EvoSuite cannot currently handle");
 		}
 
+		String clientKey = ClientProcessPool.getKey(strategy, args);
+		if (ClientProcessPool.isEnabled()) {
+			ClientProcessPool.Worker worker = ClientProcessPool.getInstance().acquire(clientKey, target);
+			if (worker != null) {
+				Properties.TARGET_CLASS = target;
+				return generateTestsOnClient(worker);
+			}
+		}
+
 		List<String> cmdLine = new ArrayList<>();
 		cmdLine.add(JavaExecCmdUtil.getJavaBinExecutablePath(true)/*EvoSuite.JAVA_CMD*/);
 
@@ -480,6 +502,13 @@ public class TestGeneration {
 				clients = MasterServices.getInstance().getMasterNode().getClientsOnceAllConnected(60000);
 			} catch (InterruptedException e) {
 			}
+			if (clients != null && ClientProcessPool.isEnabled()) {
+				/*
+				 * The client is kept alive after the search, so that it can be reused for the next class
+				 */
+				ClientNodeRemote client = clients.iterator().next();
+				return generateTestsOnClient(new ClientProcessPool.Worker(clientKey, handler, logUtils, client));
+			}
 			if (clients == null) {
 				logger.error("Not possible to access to clients. Clients' state: "+handler.getProcessState() + 
 						". Master registry port: "+MasterServices.getInstance().getRegistryPort());											
@@ -513,6 +542,58 @@ public class TestGeneration {
 			LoggingUtils.getEvoLogger().info("* Could not connect to client process");
 		}
 
+		List<List<TestGenerationResult>> results = collectResults();
+
+		handler.closeServer();
+
+		if (Properties.CLIENT_ON_THREAD) {
+			handler.stopAndWaitForClientOnThread(10000);
+		} else {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+			}
+			logUtils.closeLogServer();
+		}
+		
+		logger.debug("Master process has finished to wait for client");
+
+		return results;
+	}
+
+	/**
+	 * Run a search on a client that is kept alive afterwards, and return the
+	 * client to the pool once its results are collected
+	 */
+	private static List<List<TestGenerationResult>> generateTestsOnClient(ClientProcessPool.Worker worker) {
+		boolean done = false;
+		try {
+			worker.getClient().startNewSearch();
+			int time = TimeController.getInstance().calculateForHowLongClientWillRunInSeconds();
+			done = worker.getClient().waitUntilSearchDone(time * 1000);
+			if (!done) {
+				logger.error("Class " + Properties.TARGET_CLASS
+						+ ". Client has not finished yet, although a timeout occurred.\n"
+						+ MasterServices.getInstance().getMasterNode().getSummaryOfClientStatuses());
+			}
+		} catch (InterruptedException e) {
+		} catch (RemoteException e) {
+			logger.error("Class " + Properties.TARGET_CLASS + ". Lost connection with client.\n"
+					+ MasterServices.getInstance().getMasterNode().getSummaryOfClientStatuses(), e);
+		}
+		LoggingUtils.getEvoLogger().info("* Computation finished");
+
+		List<List<TestGenerationResult>> results = collectResults();
+
+		if (done) {
+			ClientProcessPool.getInstance().release(worker);
+		} else {
+			ClientProcessPool.getInstance().discard(worker);
+		}
+		return results;
+	}
+
+	private static List<List<TestGenerationResult>> collectResults() {
 		boolean hasFailed = false;
 		
 		if (Properties.NEW_STATISTICS) {
@@ -531,27 +612,13 @@ public class TestGeneration {
 		List<List<TestGenerationResult>> results = SearchStatistics.getInstance().getTestGenerationResults();
 		SearchStatistics.clearInstance();
 
-		handler.closeServer();
-
-		if (Properties.CLIENT_ON_THREAD) {
-			handler.stopAndWaitForClientOnThread(10000);
-		} else {
-			try {
-				Thread.sleep(100);
-			} catch (InterruptedException e) {
-			}
-			logUtils.closeLogServer();
-		}
-		
-		logger.debug("Master process has finished to wait for client");
-
 		//FIXME: tmp hack till understood what TestGenerationResult is...
 		if(hasFailed){
 			logger.error("failed to write statistics data");
 			//note: cannot throw exception because would require refactoring of many SystemTests
 			return new ArrayList<List<TestGenerationResult>>();
 		}
-		
+
 		return results;
 	}
 
@@ -172,6 +172,21 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 		SearchStatistics.getInstance().setOutputVariable(variable, value);
 	}
 
+	@Override
+	public void evosuite_collectStatistics(String clientRmiIdentifier, StatisticsBatch batch)
+	        throws RemoteException {
+		SearchStatistics statistics = SearchStatistics.getInstance();
+		for (int i = 0; i < batch.getNumberOfOutputVariables(); i++) {
+			if (i == batch.getIndividualPosition() && batch.getIndividual() != null) {
+				statistics.currentIndividual(clientRmiIdentifier, batch.getIndividual());
+			}
+			statistics.setOutputVariable(batch.getOutputVariable(i), batch.getOutputVariableValue(i));
+		}
+		if (batch.getIndividualPosition() == batch.getNumberOfOutputVariables() && batch.getIndividual() != null) {
+			statistics.currentIndividual(clientRmiIdentifier, batch.getIndividual());
+		}
+	}
+
 	@Override
 	public void evosuite_collectTestGenerationResult(
 			String clientRmiIdentifier, List<TestGenerationResult> results)
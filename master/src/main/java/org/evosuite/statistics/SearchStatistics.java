@@ -106,6 +106,9 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		case DEBUG:
 			backend = new DebugStatisticsBackend();
 			break;
+		case COLUMNAR:
+			backend = new ColumnarStatisticsBackend();
+			break;
 		case NONE:
 		default:
 			// If no backend is specified, there is no output
@@ -0,0 +1,345 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.OutputVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This statistics backend appends all output variables to a compressed,
+ * column oriented file, which unlike a CSV file does not need all the rows
+ * to have the same variables. The rows handed over by
+ * {@link #writeData(Chromosome, Map)} are written as a block at the end of the
+ * file before the call returns, so that the statistics of a class are not lost
+ * if the process is killed afterwards. Rows can also be buffered per
+ * configuration with {@link #buffer(File, Map, String)}, and are then written
+ * as one block once {@link #MAX_ROWS_PER_BLOCK} rows are buffered, or on
+ * {@link #flush()}. Rows that could not be written are kept, and written when
+ * the process shuts down. For each block an entry is added to an index file,
+ * so that results can be looked up by class and configuration without reading
+ * the whole data. Several processes can append to the same files at once.
+ * Use {@link ColumnarStatisticsReader} to read the data.
+ *
+ * <p>
+ * Each block in the data file consists of the {@link #BLOCK_MAGIC} number, the
+ * length of the block content and the deflated content: number of rows and of
+ * columns, and then for each column its name followed by the tagged values of
+ * all rows. The class of each row is stored in the {@link #CLASS_COLUMN}.
+ */
+public class ColumnarStatisticsBackend implements StatisticsBackend {
+
+	private static Logger logger = LoggerFactory.getLogger(ColumnarStatisticsBackend.class);
+
+	public static final String DATA_FILE = "statistics.columns";
+
+	public static final String INDEX_FILE = "statistics.columns.index";
+
+	/** Column holding the class a row was written for */
+	public static final String CLASS_COLUMN = "TARGET_CLASS";
+
+	/** Number of buffered rows of a configuration that are written at once */
+	static final int MAX_ROWS_PER_BLOCK = 256;
+
+	static final int BLOCK_MAGIC = 0xE7051CE5;
+
+	static final byte NULL = 0;
+	static final byte INT = 1;
+	static final byte LONG = 2;
+	static final byte DOUBLE = 3;
+	static final byte BOOLEAN = 4;
+	static final byte STRING = 5;
+
+	/**
+	 * Rows not written yet, by report folder and configuration. Shared by all
+	 * instances, as a new backend is created for each target class
+	 */
+	private static final Map<String, PendingBlock> pendingBlocks = new LinkedHashMap<>();
+
+	private static boolean shutdownHookAdded = false;
+
+	private static class PendingBlock {
+
+		private final File dir;
+
+		private final String configurationId;
+
+		private final List<Map<String, OutputVariable<?>>> rows = new ArrayList<>();
+
+		private PendingBlock(File dir, String configurationId) {
+			this.dir = dir;
+			this.configurationId = configurationId;
+		}
+	}
+
+	@Override
+	public void writeData(Chromosome result, Map<String, OutputVariable<?>> data) {
+		try {
+			File outputDir = CSVStatisticsBackend.getReportDir();
+			Map<String, OutputVariable<?>> row = new LinkedHashMap<>(data);
+			if (!row.containsKey(CLASS_COLUMN)) {
+				row.put(CLASS_COLUMN, new OutputVariable<Object>(CLASS_COLUMN, Properties.TARGET_CLASS));
+			}
+			buffer(outputDir, row, Properties.CONFIGURATION_ID);
+			flush(outputDir, Properties.CONFIGURATION_ID);
+		} catch (IOException e) {
+			logger.warn("Error while writing statistics: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Buffer a row, and write the buffered rows of its configuration as a
+	 * block if there are enough of them
+	 * 
+	 * @param dir
+	 * @param row
+	 * @param configurationId
+	 * @throws IOException
+	 */
+	static synchronized void buffer(File dir, Map<String, OutputVariable<?>> row, String configurationId)
+	        throws IOException {
+		if (!shutdownHookAdded) {
+			Runtime.getRuntime().addShutdownHook(new Thread(ColumnarStatisticsBackend::flush));
+			shutdownHookAdded = true;
+		}
+
+		String key = getKey(dir, configurationId);
+		PendingBlock block = pendingBlocks.get(key);
+		if (block == null) {
+			block = new PendingBlock(dir, configurationId);
+			pendingBlocks.put(key, block);
+		}
+		block.rows.add(row);
+		if (block.rows.size() >= MAX_ROWS_PER_BLOCK) {
+			pendingBlocks.remove(key);
+			append(block.dir, block.rows, block.configurationId);
+		}
+	}
+
+	private static String getKey(File dir, String configurationId) {
+		return dir.getAbsolutePath() + "\t" + configurationId;
+	}
+
+	/**
+	 * Write the buffered rows of a configuration in a folder. If they cannot
+	 * be written, they are kept and tried again on {@link #flush()}
+	 * 
+	 * @param dir
+	 * @param configurationId
+	 * @throws IOException
+	 */
+	static synchronized void flush(File dir, String configurationId) throws IOException {
+		String key = getKey(dir, configurationId);
+		PendingBlock block = pendingBlocks.get(key);
+		if (block == null) {
+			return;
+		}
+		append(block.dir, block.rows, block.configurationId);
+		pendingBlocks.remove(key);
+	}
+
+	/**
+	 * Write all buffered rows. Called automatically when the process shuts
+	 * down.
+	 */
+	public static synchronized void flush() {
+		for (PendingBlock block : pendingBlocks.values()) {
+			try {
+				append(block.dir, block.rows, block.configurationId);
+			} catch (IOException e) {
+				logger.warn("Error while writing statistics: " + e.getMessage());
+			}
+		}
+		pendingBlocks.clear();
+	}
+
+	/**
+	 * Append a block with the given rows to the data file in a folder, and
+	 * register it in the index together with the classes in the
+	 * {@link #CLASS_COLUMN} of the rows
+	 * 
+	 * @param dir
+	 * @param rows
+	 * @param configurationId
+	 * @throws IOException
+	 */
+	public static void append(File dir, List<Map<String, OutputVariable<?>>> rows, String configurationId)
+	        throws IOException {
+		if (rows.isEmpty()) {
+			return;
+		}
+		byte[] content = encode(rows);
+
+		ByteBuffer block = ByteBuffer.allocate(8 + content.length);
+		block.putInt(BLOCK_MAGIC);
+		block.putInt(content.length);
+		block.put(content);
+		block.flip();
+
+		Set<String> classNames = new LinkedHashSet<>();
+		for (Map<String, OutputVariable<?>> row : rows) {
+			OutputVariable<?> className = row.get(CLASS_COLUMN);
+			classNames.add(escape(className == null ? null : String.valueOf(className.getValue())));
+		}
+
+		File data = new File(dir, DATA_FILE);
+		File index = new File(dir, INDEX_FILE);
+
+		try (FileOutputStream out = new FileOutputStream(data, true);
+		        FileChannel channel = out.getChannel();
+		        FileLock lock = channel.lock()) {
+			long offset = channel.size();
+			while (block.hasRemaining()) {
+				channel.write(block);
+			}
+			channel.force(false);
+
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(index, true),
+			        StandardCharsets.UTF_8)) {
+				writer.write(offset + "\t" + (8 + content.length) + "\t" + rows.size() + "\t"
+				        + String.join(",", classNames) + "\t" + escape(configurationId) + "\n");
+			}
+		}
+	}
+
+	private static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		return value.replace('\t', ' ').replace('\n', ' ').replace(',', ' ');
+	}
+
+	static byte[] encode(List<Map<String, OutputVariable<?>>> rows) throws IOException {
+		Set<String> columns = new LinkedHashSet<>();
+		for (Map<String, OutputVariable<?>> row : rows) {
+			columns.addAll(row.keySet());
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+			out.writeInt(rows.size());
+			out.writeInt(columns.size());
+			for (String column : columns) {
+				out.writeUTF(column);
+				for (Map<String, OutputVariable<?>> row : rows) {
+					OutputVariable<?> variable = row.get(column);
+					writeValue(out, variable == null ? null : variable.getValue());
+				}
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		} else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			out.writeByte(INT);
+			out.writeInt(((Number) value).intValue());
+		} else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		} else if (value instanceof Double || value instanceof Float) {
+			out.writeByte(DOUBLE);
+			out.writeDouble(((Number) value).doubleValue());
+		} else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else {
+			out.writeByte(STRING);
+			writeString(out, value.toString());
+		}
+	}
+
+	/*
+	 * writeUTF is limited to 64KB, which might not be enough for long string values
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static Map<String, List<Object>> decode(DataInputStream in, Set<String> selectedColumns)
+	        throws IOException {
+		int numRows = in.readInt();
+		int numColumns = in.readInt();
+		Map<String, List<Object>> columns = new LinkedHashMap<>();
+		for (int i = 0; i < numColumns; i++) {
+			String column = in.readUTF();
+			boolean selected = selectedColumns == null || selectedColumns.contains(column);
+			List<Object> values = selected ? new ArrayList<>(numRows) : null;
+			for (int j = 0; j < numRows; j++) {
+				Object value = readValue(in);
+				if (selected) {
+					values.add(value);
+				}
+			}
+			if (selected) {
+				columns.put(column, values);
+			}
+		}
+		return columns;
+	}
+
+	private static Object readValue(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL:
+			return null;
+		case INT:
+			return in.readInt();
+		case LONG:
+			return in.readLong();
+		case DOUBLE:
+			return in.readDouble();
+		case BOOLEAN:
+			return in.readBoolean();
+		case STRING:
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		default:
+			throw new IOException("Unknown value type: " + type);
+		}
+	}
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads the files written by {@link ColumnarStatisticsBackend}. Blocks are
+ * read one at a time, so that results can be aggregated without loading the
+ * whole data in memory. A block may hold rows of several classes, the class of
+ * a row is in its {@link ColumnarStatisticsBackend#CLASS_COLUMN}.
+ */
+public class ColumnarStatisticsReader {
+
+	/**
+	 * An entry of the index, describing one block of the data file
+	 */
+	public static class Block {
+
+		private final long offset;
+
+		private final int length;
+
+		private final int numRows;
+
+		private final List<String> classNames;
+
+		private final String configurationId;
+
+		public Block(long offset, int length, int numRows, List<String> classNames, String configurationId) {
+			this.offset = offset;
+			this.length = length;
+			this.numRows = numRows;
+			this.classNames = classNames;
+			this.configurationId = configurationId;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+		public int getNumRows() {
+			return numRows;
+		}
+
+		/**
+		 * @return the classes of the rows in this block
+		 */
+		public List<String> getClassNames() {
+			return classNames;
+		}
+
+		public String getConfigurationId() {
+			return configurationId;
+		}
+	}
+
+	private final File data;
+
+	private final File index;
+
+	/**
+	 * @param dir folder containing the files written by {@link ColumnarStatisticsBackend}
+	 */
+	public ColumnarStatisticsReader(File dir) {
+		this.data = new File(dir, ColumnarStatisticsBackend.DATA_FILE);
+		this.index = new File(dir, ColumnarStatisticsBackend.INDEX_FILE);
+	}
+
+	/**
+	 * Return all the blocks in the index
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	public List<Block> getBlocks() throws IOException {
+		return getBlocks(null, null);
+	}
+
+	/**
+	 * Return the blocks that contain rows of a class and a configuration. The
+	 * blocks may contain rows of other classes as well, see
+	 * {@link #forEachRow(String, String, Consumer)}
+	 * 
+	 * @param className null to match any class
+	 * @param configurationId null to match any configuration
+	 * @return
+	 * @throws IOException
+	 */
+	public List<Block> getBlocks(String className, String configurationId) throws IOException {
+		if (!index.exists()) {
+			return Collections.emptyList();
+		}
+
+		List<Block> blocks = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(
+		        new InputStreamReader(new FileInputStream(index), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t", -1);
+				if (fields.length != 5) {
+					// likely a line that is still being written by another process
+					continue;
+				}
+				Block block = new Block(Long.parseLong(fields[0]), Integer.parseInt(fields[1]),
+				        Integer.parseInt(fields[2]), Arrays.asList(fields[3].split(",", -1)), fields[4]);
+				if ((className == null || block.getClassNames().contains(className))
+				        && (configurationId == null || configurationId.equals(block.getConfigurationId()))) {
+					blocks.add(block);
+				}
+			}
+		}
+		return blocks;
+	}
+
+	/**
+	 * Read the values of a block, indexed by column
+	 * 
+	 * @param block
+	 * @param columns the columns to return, or null for all columns
+	 * @return
+	 * @throws IOException
+	 */
+	public Map<String, List<Object>> readBlock(Block block, Collection<String> columns) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(data, "r")) {
+			return readBlock(file, block, columns);
+		}
+	}
+
+	private Map<String, List<Object>> readBlock(RandomAccessFile file, Block block, Collection<String> columns)
+	        throws IOException {
+		byte[] bytes = new byte[block.getLength()];
+		file.seek(block.getOffset());
+		file.readFully(bytes);
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			if (in.readInt() != ColumnarStatisticsBackend.BLOCK_MAGIC) {
+				throw new IOException("No statistics block at offset " + block.getOffset());
+			}
+			int length = in.readInt();
+			if (length != bytes.length - 8) {
+				throw new IOException("Corrupted statistics block at offset " + block.getOffset());
+			}
+			try (DataInputStream content = new DataInputStream(new InflaterInputStream(in))) {
+				return ColumnarStatisticsBackend.decode(content,
+				        columns == null ? null : new HashSet<>(columns));
+			}
+		}
+	}
+
+	/**
+	 * Pass each row of the given blocks to a consumer, reading one block at a time
+	 * 
+	 * @param blocks
+	 * @param consumer receives the values of a row, indexed by column
+	 * @throws IOException
+	 */
+	public void forEachRow(Collection<Block> blocks, Consumer<Map<String, Object>> consumer) throws IOException {
+		if (blocks.isEmpty()) {
+			return;
+		}
+		try (RandomAccessFile file = new RandomAccessFile(data, "r")) {
+			for (Block block : blocks) {
+				Map<String, List<Object>> columns = readBlock(file, block, null);
+				for (int i = 0; i < block.getNumRows(); i++) {
+					Map<String, Object> row = new LinkedHashMap<>();
+					for (Map.Entry<String, List<Object>> column : columns.entrySet()) {
+						row.put(column.getKey(), column.getValue().get(i));
+					}
+					consumer.accept(row);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Pass each row of a class and a configuration to a consumer, reading one
+	 * block at a time
+	 * 
+	 * @param className null to match any class
+	 * @param configurationId null to match any configuration
+	 * @param consumer receives the values of a row, indexed by column
+	 * @throws IOException
+	 */
+	public void forEachRow(String className, String configurationId, Consumer<Map<String, Object>> consumer)
+	        throws IOException {
+		forEachRow(getBlocks(className, configurationId), row -> {
+			if (className == null || className.equals(row.get(ColumnarStatisticsBackend.CLASS_COLUMN))) {
+				consumer.accept(row);
+			}
+		});
+	}
+
+	/**
+	 * Compute summary statistics of a numeric column for each class
+	 * 
+	 * @param column
+	 * @param configurationId null to consider all configurations
+	 * @return
+	 * @throws IOException
+	 */
+	public Map<String, DoubleSummaryStatistics> summarizeByClass(String column, String configurationId)
+	        throws IOException {
+		Map<String, DoubleSummaryStatistics> result = new LinkedHashMap<>();
+		if (!data.exists()) {
+			return result;
+		}
+		try (RandomAccessFile file = new RandomAccessFile(data, "r")) {
+			for (Block block : getBlocks(null, configurationId)) {
+				Map<String, List<Object>> columns = readColumns(file, block, column);
+				List<Object> values = columns.get(column);
+				List<Object> classes = columns.get(ColumnarStatisticsBackend.CLASS_COLUMN);
+				for (int i = 0; i < values.size(); i++) {
+					accept(result.computeIfAbsent(String.valueOf(classes.get(i)), k -> new DoubleSummaryStatistics()),
+					        values.get(i));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compute summary statistics of a numeric column for each configuration
+	 * 
+	 * @param column
+	 * @param className null to consider all classes
+	 * @return
+	 * @throws IOException
+	 */
+	public Map<String, DoubleSummaryStatistics> summarizeByConfiguration(String column, String className)
+	        throws IOException {
+		Map<String, DoubleSummaryStatistics> result = new LinkedHashMap<>();
+		if (!data.exists()) {
+			return result;
+		}
+		try (RandomAccessFile file = new RandomAccessFile(data, "r")) {
+			for (Block block : getBlocks(className, null)) {
+				Map<String, List<Object>> columns = readColumns(file, block, column);
+				List<Object> values = columns.get(column);
+				List<Object> classes = columns.get(ColumnarStatisticsBackend.CLASS_COLUMN);
+				DoubleSummaryStatistics statistics = null;
+				for (int i = 0; i < values.size(); i++) {
+					if (className != null && !className.equals(classes.get(i))) {
+						continue;
+					}
+					if (statistics == null) {
+						statistics = result.computeIfAbsent(block.getConfigurationId(),
+						        k -> new DoubleSummaryStatistics());
+					}
+					accept(statistics, values.get(i));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Read a column and the class column of a block. All values of a column
+	 * are null if the block does not have it.
+	 */
+	private Map<String, List<Object>> readColumns(RandomAccessFile file, Block block, String column)
+	        throws IOException {
+		List<String> selected = Arrays.asList(column, ColumnarStatisticsBackend.CLASS_COLUMN);
+		Map<String, List<Object>> columns = readBlock(file, block, selected);
+		for (String name : selected) {
+			if (!columns.containsKey(name)) {
+				columns.put(name, Collections.nCopies(block.getNumRows(), null));
+			}
+		}
+		return columns;
+	}
+
+	private static void accept(DoubleSummaryStatistics statistics, Object value) {
+		if (value instanceof Number) {
+			statistics.accept(((Number) value).doubleValue());
+		}
+	}
+}
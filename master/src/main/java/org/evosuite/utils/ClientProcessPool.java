@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.rmi.RemoteException;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.rmi.service.ClientNodeImpl;
+import org.evosuite.rmi.service.ClientNodeRemote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Keeps client processes alive between target classes, so that generating
+ * tests for many classes is not dominated by the start up of a JVM, the RMI
+ * handshake and the scanning of the class path for each of them.
+ * </p>
+ * 
+ * <p>
+ * A client is reused for up to {@link Properties#CLIENT_MAX_JOBS} classes, as
+ * long as it is started with the same arguments and still alive. Between two
+ * classes, the client resets its class loader and static pools, and asks to
+ * be replaced if it retains too much memory (see
+ * {@link Properties#CLIENT_MAX_RETAINED_MEMORY}). As the master generates
+ * tests for one class at a time, and clients register under the same RMI
+ * name, at most one idle client is kept.
+ * </p>
+ */
+public class ClientProcessPool {
+
+	private static final Logger logger = LoggerFactory.getLogger(ClientProcessPool.class);
+
+	private static ClientProcessPool instance = null;
+
+	/**
+	 * A client process together with the services of the master it is
+	 * connected to
+	 */
+	public static class Worker {
+
+		private final String key;
+
+		private final ExternalProcessHandler handler;
+
+		private final LoggingUtils logUtils;
+
+		private final ClientNodeRemote client;
+
+		private int numberOfJobs = 1;
+
+		public Worker(String key, ExternalProcessHandler handler, LoggingUtils logUtils,
+		        ClientNodeRemote client) {
+			this.key = key;
+			this.handler = handler;
+			this.logUtils = logUtils;
+			this.client = client;
+		}
+
+		public ClientNodeRemote getClient() {
+			return client;
+		}
+
+		public int getNumberOfJobs() {
+			return numberOfJobs;
+		}
+	}
+
+	private Worker idleWorker = null;
+
+	private ClientProcessPool() {
+	}
+
+	public static synchronized ClientProcessPool getInstance() {
+		if (instance == null)
+			instance = new ClientProcessPool();
+		return instance;
+	}
+
+	/**
+	 * Whether clients are reused for several target classes
+	 * 
+	 * @return a boolean.
+	 */
+	public static boolean isEnabled() {
+		return ClientNodeImpl.isReusedForSeveralSearches();
+	}
+
+	/**
+	 * Identifies the clients that can be reused for a search. Everything else
+	 * in the command line of a client is derived from the properties of the
+	 * master, which do not change between target classes.
+	 * 
+	 * @param strategy
+	 *            the strategy of the search
+	 * @param args
+	 *            the arguments passed on to the client
+	 * @return a {@link java.lang.String} object.
+	 */
+	public static String getKey(Properties.Strategy strategy, List<String> args) {
+		return strategy + " " + args;
+	}
+
+	/**
+	 * Get an idle client prepared for a search on the given class, if there is
+	 * one that was started with the same key
+	 * 
+	 * @param key
+	 *            see {@link #getKey(Properties.Strategy, List)}
+	 * @param targetClass
+	 *            the class to generate tests for
+	 * @return <code>null</code> if a new client process needs to be started
+	 */
+	public synchronized Worker acquire(String key, String targetClass) {
+		Worker worker = idleWorker;
+		idleWorker = null;
+		if (worker == null)
+			return null;
+
+		if (!worker.key.equals(key) || !worker.handler.isProcessRunning()) {
+			retire(worker);
+			return null;
+		}
+
+		try {
+			if (!worker.client.prepareNextSearch(targetClass, Properties.PROJECT_PREFIX)) {
+				LoggingUtils.getEvoLogger().info("* Replacing client process that retains too much memory");
+				retire(worker);
+				return null;
+			}
+		} catch (RemoteException | RuntimeException e) {
+			logger.warn("Failed to reuse client process: " + e.getMessage());
+			retire(worker);
+			return null;
+		}
+
+		worker.numberOfJobs++;
+		LoggingUtils.getEvoLogger().info("* Reusing client process for " + targetClass);
+		return worker;
+	}
+
+	/**
+	 * Return a client whose search is done. It is kept for the next class, or
+	 * terminated if it has reached the maximum number of jobs.
+	 * 
+	 * @param worker
+	 *            a {@link org.evosuite.utils.ClientProcessPool.Worker} object.
+	 */
+	public synchronized void release(Worker worker) {
+		if (idleWorker != null) {
+			retire(idleWorker);
+			idleWorker = null;
+		}
+		if (worker.numberOfJobs >= Properties.CLIENT_MAX_JOBS || !worker.handler.isProcessRunning()) {
+			retire(worker);
+		} else {
+			idleWorker = worker;
+		}
+	}
+
+	/**
+	 * Terminate a client, eg because its search did not finish in time
+	 * 
+	 * @param worker
+	 *            a {@link org.evosuite.utils.ClientProcessPool.Worker} object.
+	 */
+	public synchronized void discard(Worker worker) {
+		retire(worker);
+	}
+
+	/**
+	 * Terminate the idle client, if any
+	 */
+	public synchronized void shutdown() {
+		if (idleWorker != null) {
+			retire(idleWorker);
+			idleWorker = null;
+		}
+	}
+
+	private void retire(Worker worker) {
+		logger.debug("Terminating client process after " + worker.numberOfJobs + " jobs");
+		try {
+			worker.client.release();
+			worker.client.waitUntilFinished(5000);
+		} catch (RemoteException e) {
+			logger.debug("Client process already unreachable: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		worker.handler.killProcess();
+		worker.handler.closeServer();
+		if (worker.logUtils != null)
+			worker.logUtils.closeLogServer();
+	}
+}
@@ -201,6 +201,15 @@ public class ExternalProcessHandler {
 		}
 	}
 	
+	/**
+	 * Whether the external process has been started and has not terminated yet
+	 * 
+	 * @return a boolean.
+	 */
+	public boolean isProcessRunning() {
+		return process != null && process.isAlive();
+	}
+
 	/**
 	 * <p>
 	 * startProcess
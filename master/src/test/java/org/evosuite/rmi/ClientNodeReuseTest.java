@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi;
+
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.rmi.service.ClientNodeImpl;
+import org.evosuite.rmi.service.ClientState;
+import org.evosuite.statistics.OutputVariable;
+import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.statistics.SearchStatistics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClientNodeReuseTest {
+
+	private int currentPort;
+	private int currentMaxJobs;
+	private boolean currentOnThread;
+	private double currentMaxRetainedMemory;
+	private long currentFlushInterval;
+	private String currentTargetClass;
+	private String currentProjectPrefix;
+
+	private MasterServices master;
+	private ClientServices clients;
+	private ClientNodeImpl clientNode;
+
+	@Before
+	public void init() throws Exception {
+		currentPort = Properties.PROCESS_COMMUNICATION_PORT;
+		currentMaxJobs = Properties.CLIENT_MAX_JOBS;
+		currentOnThread = Properties.CLIENT_ON_THREAD;
+		currentMaxRetainedMemory = Properties.CLIENT_MAX_RETAINED_MEMORY;
+		currentFlushInterval = Properties.STATISTICS_FLUSH_INTERVAL;
+		currentTargetClass = Properties.TARGET_CLASS;
+		currentProjectPrefix = Properties.PROJECT_PREFIX;
+
+		Properties.CLIENT_MAX_JOBS = 2;
+		Properties.CLIENT_ON_THREAD = false;
+
+		master = new MasterServices();
+		master.startRegistry();
+		master.registerServices();
+		SearchStatistics.clearInstance();
+		SearchStatistics.getInstance();
+
+		Properties.PROCESS_COMMUNICATION_PORT = master.getRegistryPort();
+
+		clients = new ClientServices();
+		clients.registerServices();
+		clientNode = (ClientNodeImpl) clients.getClientNode();
+	}
+
+	@After
+	public void tearDown() {
+		clients.stopServices();
+		master.stopServices();
+		SearchStatistics.clearInstance();
+
+		Properties.PROCESS_COMMUNICATION_PORT = currentPort;
+		Properties.CLIENT_MAX_JOBS = currentMaxJobs;
+		Properties.CLIENT_ON_THREAD = currentOnThread;
+		Properties.CLIENT_MAX_RETAINED_MEMORY = currentMaxRetainedMemory;
+		Properties.STATISTICS_FLUSH_INTERVAL = currentFlushInterval;
+		Properties.TARGET_CLASS = currentTargetClass;
+		Properties.PROJECT_PREFIX = currentProjectPrefix;
+	}
+
+	@Test
+	public void testWaitUntilSearchDoneFlushesOutputVariables() throws Exception {
+		// long enough for the variables to still be buffered when the search is done
+		Properties.STATISTICS_FLUSH_INTERVAL = 2000;
+
+		clientNode.changeState(ClientState.STARTED);
+		clientNode.trackOutputVariable(RuntimeVariable.Size, 3);
+		clientNode.trackOutputVariable(RuntimeVariable.Length, 7);
+		clientNode.changeState(ClientState.DONE);
+
+		Assert.assertTrue(clientNode.waitUntilSearchDone(10000));
+
+		Map<String, OutputVariable<?>> variables = SearchStatistics.getInstance().getOutputVariables();
+		Assert.assertEquals(3, variables.get(RuntimeVariable.Size.name()).getValue());
+		Assert.assertEquals(7, variables.get(RuntimeVariable.Length.name()).getValue());
+	}
+
+	@Test
+	public void testWaitUntilSearchDoneTimesOut() throws Exception {
+		clientNode.changeState(ClientState.STARTED);
+
+		Assert.assertFalse(clientNode.waitUntilSearchDone(100));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPrepareNextSearchBeforeSearchIsDone() throws Exception {
+		clientNode.changeState(ClientState.STARTED);
+
+		clientNode.prepareNextSearch("com.examples.Foo", null);
+	}
+
+	@Test
+	public void testPrepareNextSearch() throws Exception {
+		Properties.CLIENT_MAX_RETAINED_MEMORY = 1.0;
+		clientNode.changeState(ClientState.DONE);
+		Assert.assertTrue(clientNode.waitUntilSearchDone(1000));
+
+		Assert.assertTrue(clientNode.prepareNextSearch("com.examples.Foo", "com.examples"));
+		Assert.assertEquals("com.examples.Foo", Properties.TARGET_CLASS);
+		Assert.assertEquals("com.examples", Properties.PROJECT_PREFIX);
+
+		// a new search can be waited for
+		Assert.assertFalse(clientNode.waitUntilSearchDone(100));
+		clientNode.changeState(ClientState.DONE);
+		Assert.assertTrue(clientNode.waitUntilSearchDone(1000));
+	}
+
+	@Test
+	public void testPrepareNextSearchWithMemoryOverThreshold() throws Exception {
+		// any retained memory is too much
+		Properties.CLIENT_MAX_RETAINED_MEMORY = 0.0;
+		clientNode.changeState(ClientState.DONE);
+
+		Assert.assertFalse(clientNode.prepareNextSearch("com.examples.Foo", null));
+		Assert.assertEquals("", Properties.PROJECT_PREFIX);
+	}
+}
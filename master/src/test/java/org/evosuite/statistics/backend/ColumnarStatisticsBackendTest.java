@@ -0,0 +1,198 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.statistics.OutputVariable;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnarStatisticsBackendTest {
+
+	private File dir;
+
+	@Before
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("columnar").toFile();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		ColumnarStatisticsBackend.flush();
+		FileUtils.deleteDirectory(dir);
+	}
+
+	private static Map<String, OutputVariable<?>> row(Object... nameValues) {
+		Map<String, OutputVariable<?>> row = new LinkedHashMap<>();
+		for (int i = 0; i < nameValues.length; i += 2) {
+			String name = (String) nameValues[i];
+			row.put(name, new OutputVariable<Object>(name, nameValues[i + 1]));
+		}
+		return row;
+	}
+
+	@Test
+	public void testRowsWithDifferentColumns() throws IOException {
+		ColumnarStatisticsBackend.append(dir, Collections.singletonList(row("TARGET_CLASS", "Foo", "Coverage", 0.5, "Size", 3)), "a");
+		ColumnarStatisticsBackend.append(dir, Collections.singletonList(row("TARGET_CLASS", "Bar", "Coverage", 1.0, "Criterion", "BRANCH")), "a");
+		ColumnarStatisticsBackend.append(dir, Collections.singletonList(row("TARGET_CLASS", "Foo", "Coverage", 0.25, "Total_Time", 10L)), "b");
+
+		ColumnarStatisticsReader reader = new ColumnarStatisticsReader(dir);
+		Assert.assertEquals(3, reader.getBlocks().size());
+		Assert.assertEquals(2, reader.getBlocks("Foo", null).size());
+		Assert.assertEquals(1, reader.getBlocks("Foo", "b").size());
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+		reader.forEachRow(reader.getBlocks(), rows::add);
+		Assert.assertEquals(3, rows.size());
+		Assert.assertEquals(3, rows.get(0).get("Size"));
+		Assert.assertEquals("BRANCH", rows.get(1).get("Criterion"));
+		Assert.assertEquals(10L, rows.get(2).get("Total_Time"));
+		Assert.assertFalse(rows.get(2).containsKey("Size"));
+
+		Map<String, DoubleSummaryStatistics> byClass = reader.summarizeByClass("Coverage", null);
+		Assert.assertEquals(0.375, byClass.get("Foo").getAverage(), 0.0);
+		Assert.assertEquals(1.0, byClass.get("Bar").getAverage(), 0.0);
+
+		Map<String, DoubleSummaryStatistics> byConfiguration = reader.summarizeByConfiguration("Coverage", "Foo");
+		Assert.assertEquals(0.5, byConfiguration.get("a").getMax(), 0.0);
+		Assert.assertEquals(1, byConfiguration.get("b").getCount());
+	}
+
+	@Test
+	public void testSeveralRowsInOneBlock() throws IOException {
+		List<Map<String, OutputVariable<?>>> rows = new ArrayList<>();
+		rows.add(row("TARGET_CLASS", "Foo", "Coverage", 0.5));
+		rows.add(row("TARGET_CLASS", "Foo", "Size", 2));
+		ColumnarStatisticsBackend.append(dir, rows, null);
+
+		ColumnarStatisticsReader reader = new ColumnarStatisticsReader(dir);
+		ColumnarStatisticsReader.Block block = reader.getBlocks().get(0);
+		Assert.assertEquals(2, block.getNumRows());
+		Assert.assertEquals(Collections.singletonList("Foo"), block.getClassNames());
+		Assert.assertEquals("", block.getConfigurationId());
+
+		Map<String, List<Object>> columns = reader.readBlock(block, null);
+		Assert.assertEquals(0.5, columns.get("Coverage").get(0));
+		Assert.assertNull(columns.get("Coverage").get(1));
+		Assert.assertNull(columns.get("Size").get(0));
+		Assert.assertEquals(2, columns.get("Size").get(1));
+	}
+
+	@Test
+	public void testBufferedRowsAreWrittenAsOneBlockPerConfiguration() throws IOException {
+		ColumnarStatisticsBackend.buffer(dir, row("TARGET_CLASS", "Foo", "Coverage", 0.5), "a");
+		ColumnarStatisticsBackend.buffer(dir, row("TARGET_CLASS", "Bar", "Coverage", 1.0), "a");
+		ColumnarStatisticsBackend.buffer(dir, row("TARGET_CLASS", "Foo", "Coverage", 0.0), "b");
+
+		ColumnarStatisticsReader reader = new ColumnarStatisticsReader(dir);
+		Assert.assertTrue(reader.getBlocks().isEmpty());
+
+		ColumnarStatisticsBackend.flush();
+		List<ColumnarStatisticsReader.Block> blocks = reader.getBlocks();
+		Assert.assertEquals(2, blocks.size());
+		Assert.assertEquals(2, blocks.get(0).getNumRows());
+		Assert.assertEquals(Arrays.asList("Foo", "Bar"), blocks.get(0).getClassNames());
+
+		Assert.assertEquals(2, reader.getBlocks("Foo", null).size());
+		Assert.assertEquals(1, reader.getBlocks("Bar", null).size());
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+		reader.forEachRow("Foo", "a", rows::add);
+		Assert.assertEquals(1, rows.size());
+		Assert.assertEquals(0.5, rows.get(0).get("Coverage"));
+
+		Map<String, DoubleSummaryStatistics> byClass = reader.summarizeByClass("Coverage", "a");
+		Assert.assertEquals(0.5, byClass.get("Foo").getAverage(), 0.0);
+		Assert.assertEquals(1.0, byClass.get("Bar").getAverage(), 0.0);
+
+		Map<String, DoubleSummaryStatistics> byConfiguration = reader.summarizeByConfiguration("Coverage", "Foo");
+		Assert.assertEquals(1, byConfiguration.get("a").getCount());
+		Assert.assertEquals(0.0, byConfiguration.get("b").getMax(), 0.0);
+	}
+
+	@Test
+	public void testWriteDataIsWrittenImmediately() throws IOException {
+		String reportDir = Properties.REPORT_DIR;
+		String targetClass = Properties.TARGET_CLASS;
+		String configurationId = Properties.CONFIGURATION_ID;
+		try {
+			Properties.REPORT_DIR = dir.getAbsolutePath();
+			Properties.CONFIGURATION_ID = "a";
+			ColumnarStatisticsBackend.buffer(dir, row("TARGET_CLASS", "Bar", "Coverage", 0.5), "b");
+
+			ColumnarStatisticsBackend backend = new ColumnarStatisticsBackend();
+			Properties.TARGET_CLASS = "Foo";
+			backend.writeData(null, row("Coverage", 1.0));
+
+			ColumnarStatisticsReader reader = new ColumnarStatisticsReader(dir);
+			Assert.assertEquals(1, reader.getBlocks().size());
+			Assert.assertEquals(1, reader.getBlocks("Foo", "a").size());
+
+			Properties.TARGET_CLASS = "Bar";
+			backend.writeData(null, row("Coverage", 0.0));
+			Assert.assertEquals(2, reader.getBlocks().size());
+			Assert.assertEquals(1, reader.getBlocks("Bar", "a").size());
+
+			//rows buffered for other configurations are left alone
+			Assert.assertTrue(reader.getBlocks("Bar", "b").isEmpty());
+		} finally {
+			Properties.REPORT_DIR = reportDir;
+			Properties.TARGET_CLASS = targetClass;
+			Properties.CONFIGURATION_ID = configurationId;
+		}
+	}
+
+	@Test
+	public void testFullBlockIsWrittenWithoutFlush() throws IOException {
+		for (int i = 0; i < ColumnarStatisticsBackend.MAX_ROWS_PER_BLOCK; i++) {
+			ColumnarStatisticsBackend.buffer(dir, row("TARGET_CLASS", "Foo" + i, "Size", i), "a");
+		}
+
+		ColumnarStatisticsReader reader = new ColumnarStatisticsReader(dir);
+		List<ColumnarStatisticsReader.Block> blocks = reader.getBlocks();
+		Assert.assertEquals(1, blocks.size());
+		Assert.assertEquals(ColumnarStatisticsBackend.MAX_ROWS_PER_BLOCK, blocks.get(0).getNumRows());
+
+		ColumnarStatisticsBackend.flush();
+		Assert.assertEquals(1, reader.getBlocks().size());
+	}
+
+	@Test
+	public void testNoData() throws IOException {
+		ColumnarStatisticsReader reader = new ColumnarStatisticsReader(dir);
+		Assert.assertTrue(reader.getBlocks().isEmpty());
+		Assert.assertTrue(reader.summarizeByClass("Coverage", null).isEmpty());
+	}
+}
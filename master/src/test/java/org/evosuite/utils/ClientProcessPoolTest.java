@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.rmi.service.ClientNodeRemote;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClientProcessPoolTest {
+
+	private static final String KEY = ClientProcessPool.getKey(Properties.Strategy.EVOSUITE,
+			Arrays.asList("-Dsearch_budget=60"));
+
+	private int currentMaxJobs;
+
+	@Before
+	public void setUp() {
+		currentMaxJobs = Properties.CLIENT_MAX_JOBS;
+		Properties.CLIENT_MAX_JOBS = 3;
+	}
+
+	@After
+	public void tearDown() {
+		ClientProcessPool.getInstance().shutdown();
+		Properties.CLIENT_MAX_JOBS = currentMaxJobs;
+	}
+
+	@Test
+	public void testReuseOfIdleClient() {
+		FakeProcessHandler handler = new FakeProcessHandler();
+		FakeClientNode client = new FakeClientNode();
+		ClientProcessPool.Worker worker = new ClientProcessPool.Worker(KEY, handler, null, client);
+
+		ClientProcessPool.getInstance().release(worker);
+		ClientProcessPool.Worker reused = ClientProcessPool.getInstance().acquire(KEY, "com.examples.Bar");
+
+		Assert.assertSame(worker, reused);
+		Assert.assertEquals(2, reused.getNumberOfJobs());
+		Assert.assertEquals(Arrays.asList("com.examples.Bar"), client.preparedClasses);
+		Assert.assertFalse(handler.killed);
+	}
+
+	@Test
+	public void testNoIdleClient() {
+		Assert.assertNull(ClientProcessPool.getInstance().acquire(KEY, "com.examples.Bar"));
+	}
+
+	@Test
+	public void testKeyMismatch() {
+		FakeProcessHandler handler = new FakeProcessHandler();
+		FakeClientNode client = new FakeClientNode();
+		ClientProcessPool.getInstance().release(new ClientProcessPool.Worker(KEY, handler, null, client));
+
+		String otherKey = ClientProcessPool.getKey(Properties.Strategy.MOSUITE, Arrays.asList("-Dsearch_budget=60"));
+		Assert.assertNull(ClientProcessPool.getInstance().acquire(otherKey, "com.examples.Bar"));
+
+		Assert.assertTrue(client.preparedClasses.isEmpty());
+		Assert.assertTrue(client.released);
+		Assert.assertTrue(handler.killed);
+		// the retired client is not kept either
+		Assert.assertNull(ClientProcessPool.getInstance().acquire(KEY, "com.examples.Bar"));
+	}
+
+	@Test
+	public void testDeadProcess() {
+		FakeProcessHandler handler = new FakeProcessHandler();
+		FakeClientNode client = new FakeClientNode();
+		ClientProcessPool.getInstance().release(new ClientProcessPool.Worker(KEY, handler, null, client));
+
+		handler.running = false;
+		Assert.assertNull(ClientProcessPool.getInstance().acquire(KEY, "com.examples.Bar"));
+
+		Assert.assertTrue(client.preparedClasses.isEmpty());
+		Assert.assertTrue(handler.killed);
+	}
+
+	@Test
+	public void testDeadProcessIsNotKept() {
+		FakeProcessHandler handler = new FakeProcessHandler();
+		handler.running = false;
+		ClientProcessPool.getInstance().release(new ClientProcessPool.Worker(KEY, handler, null, new FakeClientNode()));
+
+		Assert.assertTrue(handler.killed);
+	}
+
+	@Test
+	public void testMemoryOverThreshold() {
+		FakeProcessHandler handler = new FakeProcessHandler();
+		FakeClientNode client = new FakeClientNode();
+		client.reusable = false;
+		ClientProcessPool.getInstance().release(new ClientProcessPool.Worker(KEY, handler, null, client));
+
+		Assert.assertNull(ClientProcessPool.getInstance().acquire(KEY, "com.examples.Bar"));
+
+		Assert.assertEquals(Arrays.asList("com.examples.Bar"), client.preparedClasses);
+		Assert.assertTrue(client.released);
+		Assert.assertTrue(handler.killed);
+	}
+
+	@Test
+	public void testUnreachableClient() {
+		FakeProcessHandler handler = new FakeProcessHandler();
+		FakeClientNode client = new FakeClientNode();
+		client.reachable = false;
+		ClientProcessPool.getInstance().release(new ClientProcessPool.Worker(KEY, handler, null, client));
+
+		Assert.assertNull(ClientProcessPool.getInstance().acquire(KEY, "com.examples.Bar"));
+		Assert.assertTrue(handler.killed);
+	}
+
+	@Test
+	public void testMaxJobs() {
+		Properties.CLIENT_MAX_JOBS = 2;
+		FakeProcessHandler handler = new FakeProcessHandler();
+		ClientProcessPool.Worker worker = new ClientProcessPool.Worker(KEY, handler, null, new FakeClientNode());
+
+		ClientProcessPool.getInstance().release(worker);
+		Assert.assertSame(worker, ClientProcessPool.getInstance().acquire(KEY, "com.examples.Bar"));
+		Assert.assertEquals(2, worker.getNumberOfJobs());
+
+		ClientProcessPool.getInstance().release(worker);
+		Assert.assertTrue(handler.killed);
+		Assert.assertNull(ClientProcessPool.getInstance().acquire(KEY, "com.examples.Baz"));
+	}
+
+	@Test
+	public void testOnlyOneIdleClientIsKept() {
+		FakeProcessHandler first = new FakeProcessHandler();
+		FakeProcessHandler second = new FakeProcessHandler();
+		ClientProcessPool.getInstance().release(new ClientProcessPool.Worker(KEY, first, null, new FakeClientNode()));
+		ClientProcessPool.Worker worker = new ClientProcessPool.Worker(KEY, second, null, new FakeClientNode());
+		ClientProcessPool.getInstance().release(worker);
+
+		Assert.assertTrue(first.killed);
+		Assert.assertFalse(second.killed);
+		Assert.assertSame(worker, ClientProcessPool.getInstance().acquire(KEY, "com.examples.Bar"));
+	}
+
+	private static class FakeProcessHandler extends ExternalProcessHandler {
+
+		private boolean running = true;
+
+		private boolean killed = false;
+
+		@Override
+		public boolean isProcessRunning() {
+			return running && !killed;
+		}
+
+		@Override
+		public void killProcess() {
+			killed = true;
+		}
+
+		@Override
+		public void closeServer() {
+		}
+	}
+
+	private static class FakeClientNode implements ClientNodeRemote {
+
+		private final List<String> preparedClasses = new LinkedList<String>();
+
+		private boolean reusable = true;
+
+		private boolean reachable = true;
+
+		private boolean released = false;
+
+		@Override
+		public void startNewSearch() throws RemoteException {
+		}
+
+		@Override
+		public void cancelCurrentSearch() throws RemoteException {
+		}
+
+		@Override
+		public boolean waitUntilFinished(long timeoutInMs) throws RemoteException, InterruptedException {
+			return released;
+		}
+
+		@Override
+		public boolean waitUntilSearchDone(long timeoutInMs) throws RemoteException, InterruptedException {
+			return true;
+		}
+
+		@Override
+		public boolean prepareNextSearch(String targetClass, String projectPrefix) throws RemoteException {
+			if (!reachable)
+				throw new RemoteException("Client process is gone");
+			preparedClasses.add(targetClass);
+			return reusable;
+		}
+
+		@Override
+		public void release() throws RemoteException {
+			released = true;
+		}
+
+		@Override
+		public void doCoverageAnalysis() throws RemoteException {
+		}
+
+		@Override
+		public void doDependencyAnalysis(String fileName) throws RemoteException {
+		}
+
+		@Override
+		public void printClassStatistics() throws RemoteException {
+		}
+	}
+}
@@ -88,8 +88,7 @@ public class Runtime {
 		}
 
 		if (RuntimeSettings.useVFS) {
-			VirtualFileSystem.getInstance().resetSingleton();
-			VirtualFileSystem.getInstance().init();
+			VirtualFileSystem.getInstance().resetToInitialState();
 		}
 
         if(RuntimeSettings.useVNET){
@@ -21,7 +21,8 @@ package org.evosuite.runtime.classhandling;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
@@ -56,7 +57,11 @@ public class ClassResetter {
 
 	private ClassLoader loader;
 	
-	private final Map<ClassLoader, Map<String, Method>> resetMethodCache;
+	/**
+	 * For each class loader, the handles of the reset methods of the classes. A {@code null}
+	 * value means the class has no reset method, so there is no need to look for it again
+	 */
+	private final Map<ClassLoader, Map<String, MethodHandle>> resetMethodCache;
 
 	private ClassResetter(){
 		resetMethodCache = new HashMap<>();
@@ -93,21 +98,20 @@ public class ClassResetter {
             resetMethodCache.put(loader, new HashMap<>());
         }
 
-		Map<String, Method> methodMap = resetMethodCache.get(loader);
+		Map<String, MethodHandle> methodMap = resetMethodCache.get(loader);
         if (methodMap.containsKey(classNameWithDots)) {
 			return;
 		}
 
+		MethodHandle handle = null;
         try {
             Class<?> clazz = loader.loadClass(classNameWithDots);
 
-			if(clazz.isInterface() || clazz.isAnonymousClass()) {
-				return;
+			if(!clazz.isInterface() && !clazz.isAnonymousClass()) {
+				Method m = clazz.getDeclaredMethod(STATIC_RESET, (Class<?>[]) null);
+				m.setAccessible(true);
+				handle = MethodHandles.lookup().unreflect(m);
 			}
-            
-            Method m = clazz.getDeclaredMethod(STATIC_RESET, (Class<?>[]) null);
-            m.setAccessible(true);
-            methodMap.put(classNameWithDots, m);
 
         } catch (NoSuchMethodException e) {
 			//this can happen if class was not instrumented with a static reset
@@ -115,9 +119,16 @@ public class ClassResetter {
 		} catch (Exception | Error e) {
 			logWarn(classNameWithDots, e.getClass() + " thrown while loading method  __STATIC_RESET() for class " + classNameWithDots);
 		}
+		methodMap.put(classNameWithDots, handle);
 	}
 	
-	public Method getResetMethod(String classNameWithDots) {
+	/**
+	 * Return a handle to the {@code __STATIC_RESET()} method of the given class
+	 * 
+	 * @param classNameWithDots
+	 * @return {@code null} if the class has no such method
+	 */
+	public MethodHandle getResetMethodHandle(String classNameWithDots) {
 		cacheResetMethod(classNameWithDots);
 		return resetMethodCache.get(loader).get(classNameWithDots);
 	}
@@ -136,7 +147,7 @@ public class ClassResetter {
 			throw new IllegalStateException("No specified loader");
 		}
 		
-		Method m = getResetMethod(classNameWithDots);
+		MethodHandle m = getResetMethodHandle(classNameWithDots);
 		if(m == null) {
             return;
         }
@@ -154,21 +165,16 @@ public class ClassResetter {
 				Sandbox.goingToExecuteUnsafeCodeOnSameThread();
 			}
 			LoopCounter.getInstance().setActive(false);
-			m.invoke(null, (Object[]) null);
-		} catch (IllegalAccessException | IllegalArgumentException e) {
-            logger.error(""+e,e);
-        } catch (NoClassDefFoundError e){
+			m.invokeExact();
+		} catch (NoClassDefFoundError e){
 			AtMostOnceLogger.error(logger,e.toString());
-        } catch(InvocationTargetException e){
-
-			Throwable cause = e.getCause();
-			if(cause instanceof TooManyResourcesException || cause instanceof NoClassDefFoundError){
-				logWarn(classNameWithDots, e.toString() + ", caused by: "+cause.toString());
+		} catch(Throwable cause){
+			if(cause instanceof TooManyResourcesException){
+				logWarn(classNameWithDots, "Reset of class " + classNameWithDots + " failed, caused by: "+cause.toString());
 			} else {
 				StringWriter errors = new StringWriter();
 				cause.printStackTrace(new PrintWriter(errors));
-				logWarn(classNameWithDots, e.toString() + ", caused by: "+cause.toString()+"\n"+errors.toString());
-				// we are only interested in the stack trace of the cause
+				logWarn(classNameWithDots, "Reset of class " + classNameWithDots + " failed, caused by: "+cause.toString()+"\n"+errors.toString());
 			}
         } finally {
 			if(!safe){
@@ -29,6 +29,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -59,6 +60,12 @@ public class DBManager {
 
     private boolean wasAccessed;
 
+    /**
+     * Whether HSQLDB table statistics can be used to find which tables contain data.
+     * If not, all tables are cleared
+     */
+    private boolean useTableStatistics = true;
+
     /**
      * The SUT classloader used when the database was initialized
      */
@@ -111,17 +118,15 @@ public class DBManager {
 
             Connection c = ((SessionImpl) em.getDelegate()).connection();
             Statement s = c.createStatement();
-            s.execute("SET DATABASE REFERENTIAL INTEGRITY FALSE");
-            Set<String> tables = new LinkedHashSet<>();
-            ResultSet rs = s.executeQuery("select table_name " +
-                    "from INFORMATION_SCHEMA.system_tables " +
-                    "where table_type='TABLE' and table_schem='PUBLIC'");
-            while (rs.next()) {
-                if (!rs.getString(1).startsWith("DUAL_")) {
-                    tables.add(rs.getString(1));
-                }
+
+            Set<String> tables = getTablesToClear(s);
+            if(tables.isEmpty()){
+                //the test did not write anything into the database
+                s.close();
+                return true;
             }
-            rs.close();
+
+            s.execute("SET DATABASE REFERENTIAL INTEGRITY FALSE");
             for (String table : tables) {
                 String delete = "DELETE FROM " + table;
                 s.executeUpdate(delete);
@@ -136,6 +141,50 @@ public class DBManager {
         }
     }
 
+    /**
+     * Only the tables that actually contain data need to be cleared. HSQLDB keeps track of
+     * the number of rows of each table, so we can get the dirty ones with a single query.
+     * If such statistics are not available, all the tables are returned
+     */
+    private Set<String> getTablesToClear(Statement s) throws SQLException {
+        if(useTableStatistics) {
+            try {
+                //in system_tablestats, table_type is the storage type (eg MEMORY), not TABLE/VIEW
+                return getTableNames(s, "select st.table_name " +
+                        "from INFORMATION_SCHEMA.system_tablestats st " +
+                        "join INFORMATION_SCHEMA.system_tables t " +
+                        "on st.table_schema = t.table_schem and st.table_name = t.table_name " +
+                        "where t.table_type='TABLE' and st.table_schema='PUBLIC' and st.cardinality > 0");
+            } catch (SQLException e) {
+                logger.debug("Cannot use table statistics to find modified tables: "+e);
+                useTableStatistics = false;
+            }
+        }
+
+        return getTableNames(s, "select table_name " +
+                "from INFORMATION_SCHEMA.system_tables " +
+                "where table_type='TABLE' and table_schem='PUBLIC'");
+    }
+
+    /**
+     * @return whether the modified tables are found with HSQLDB table statistics, rather than clearing all tables
+     */
+    boolean isUsingTableStatistics() {
+        return useTableStatistics;
+    }
+
+    private Set<String> getTableNames(Statement s, String query) throws SQLException {
+        Set<String> tables = new LinkedHashSet<>();
+        ResultSet rs = s.executeQuery(query);
+        while (rs.next()) {
+            if (!rs.getString(1).startsWith("DUAL_")) {
+                tables.add(rs.getString(1));
+            }
+        }
+        rs.close();
+        return tables;
+    }
+
     /**
      * Be sure the database is ready to use.
      * This means for example rolling back any activate transaction and delete all tables
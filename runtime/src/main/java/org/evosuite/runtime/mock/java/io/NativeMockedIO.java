@@ -60,6 +60,26 @@ public class NativeMockedIO {
 		return b; 
 	}
 
+	/**
+	 * Read up to {@code len} bytes in a single operation, and advance the position accordingly
+	 * 
+	 * @return the number of read bytes, or -1 if the end of the file was already reached
+	 */
+	public static int read(String path, AtomicInteger position, byte b[], int off, int len) throws IOException{
+		VFile vf = NativeMockedIO.getFileForReading(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+
+		int read = vf.read(position.get(), b, off, len);
+		if(read > 0){
+			position.addAndGet(read);
+		}
+		return read;
+	}
+
 	
 	public static VFile getFileForWriting(String path){
 		FSObject target = VirtualFileSystem.getInstance().findFSObject(path);
@@ -39,8 +39,10 @@ import java.sql.SQLPermission;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.PropertyPermission;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.logging.FileHandler;
 import java.util.logging.LoggingPermission;
@@ -185,6 +187,21 @@ public class MSecurityManager extends SecurityManager {
 	 */
 	private final Set<Permission>  unrecognizedPermissions;
 
+	/**
+	 * Upper bound on the number of cached permission decisions, in case the SUT
+	 * keeps asking for permissions with always different names
+	 */
+	private static final int MAX_CACHED_DECISIONS = 10_000;
+
+	/**
+	 * Decisions on permissions asked by non-privileged (ie SUT) threads.
+	 * The SUT can ask for the same permissions (eg, reflection and property access)
+	 * millions of times, so we do not want to go through all the checks each time.
+	 * Only permissions whose decision depends on nothing but their type, name and actions
+	 * are cached (see {@link #isDecisionCacheable(Permission)})
+	 */
+	private final Map<PermissionKey, Boolean> cachedDecisions;
+
 	/**
 	 * Create a custom security manager for the SUT. The thread that create this
 	 * instance is automatically added as "privileged"
@@ -196,6 +213,7 @@ public class MSecurityManager extends SecurityManager {
 		executingTestCase = false;
 		privilegedThreadToIgnore = null;
 		unrecognizedPermissions = new CopyOnWriteArraySet<>();
+		cachedDecisions = new ConcurrentHashMap<>();
 
 		filesToDelete = new CopyOnWriteArraySet<>();
 	}
@@ -430,15 +448,14 @@ public class MSecurityManager extends SecurityManager {
 	public void checkPermission(Permission perm) throws SecurityException {
 		// check access
 		if (!allowPermission(perm)) {
-			String stack = "\n";
-			for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-				if (e.toString().contains(
-						//FIXME use ObjectFields.class, but without adding Maven dependency (which would create a cycle)
-						PackageInfo.getEvoSuitePackage()+".regression.ObjectFields")) {
+			//FIXME use ObjectFields.class, but without adding Maven dependency (which would create a cycle)
+			final String objectFields = PackageInfo.getEvoSuitePackage()+".regression.ObjectFields";
+			StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+			for (StackTraceElement e : stack) {
+				if (e.getClassName().startsWith(objectFields)) {
 					statistics.permissionAllowed(perm);
 					return;
 				}
-				stack += e + "\n";
 			}
 			if (executingTestCase) {
 				/*
@@ -447,9 +464,13 @@ public class MSecurityManager extends SecurityManager {
 				 */
 				statistics.permissionDenied(perm);
 			}
-			logger.debug("Security manager blocks permission " + perm + stack);
 
-			throw new SecurityException("Security manager blocks " + perm + stack);
+			BlockedPermissionException exception = new BlockedPermissionException(perm, stack);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Security manager blocks permission " + perm + BlockedPermissionException.toString(stack));
+			}
+
+			throw exception;
 		} else {
 			if (executingTestCase) {
 				statistics.permissionAllowed(perm);
@@ -563,6 +584,52 @@ public class MSecurityManager extends SecurityManager {
 		// TODO: This makes JVM8 on MacOS crash
 		//PermissionStatistics.getInstance().countThreads(Thread.currentThread().getThreadGroup().activeCount());
 
+		if (!isDecisionCacheable(perm)) {
+			return checkPermissionByType(perm);
+		}
+
+		PermissionKey key = new PermissionKey(perm);
+		Boolean decision = cachedDecisions.get(key);
+		if (decision == null) {
+			decision = checkPermissionByType(perm);
+			if (cachedDecisions.size() < MAX_CACHED_DECISIONS) {
+				cachedDecisions.put(key, decision);
+			}
+		}
+		return decision;
+	}
+
+	/**
+	 * Check whether the decision on the given permission for a non-privileged thread only
+	 * depends on its type, name and actions. This is not the case when the stack trace
+	 * is inspected (eg files and AWT), when the decision depends on the state of the
+	 * test execution (eg properties), or for permissions defined by the SUT.
+	 * 
+	 * @param perm
+	 * @return
+	 */
+	private static boolean isDecisionCacheable(Permission perm) {
+		if (perm instanceof FilePermission || perm instanceof PropertyPermission) {
+			return false;
+		}
+
+		if (perm instanceof RuntimePermission) {
+			// depends on AWT threads and on mockJVMNonDeterminism
+			return !"shutdownHooks".equals(perm.getName().trim());
+		}
+
+		String className = perm.getClass().getName();
+		return className.startsWith("java.") || className.startsWith("javax.");
+	}
+
+	/**
+	 * Check the given permission, asked by a non-privileged thread, based on its type
+	 * 
+	 * @param perm
+	 * @return false if access is forbidden, true otherwise
+	 */
+	private boolean checkPermissionByType(Permission perm) {
+
 		if (perm instanceof FilePermission) {
 			return checkFilePermission((FilePermission) perm);
 		}
@@ -1351,4 +1418,79 @@ public class MSecurityManager extends SecurityManager {
 
 		return false;
 	}
+
+	/**
+	 * Key for cached permission decisions
+	 */
+	private static final class PermissionKey {
+
+		private final Class<?> type;
+		private final String name;
+		private final String actions;
+		private final int hash;
+
+		PermissionKey(Permission perm) {
+			type = perm.getClass();
+			name = perm.getName();
+			actions = perm.getActions();
+			int h = type.hashCode();
+			h = 31 * h + (name == null ? 0 : name.hashCode());
+			h = 31 * h + (actions == null ? 0 : actions.hashCode());
+			hash = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PermissionKey)) {
+				return false;
+			}
+			PermissionKey other = (PermissionKey) obj;
+			return type == other.type && hash == other.hash
+					&& (name == null ? other.name == null : name.equals(other.name))
+					&& (actions == null ? other.actions == null : actions.equals(other.actions));
+		}
+	}
+
+	/**
+	 * Exception thrown when a permission is blocked. The stack trace at the time of
+	 * the check is only turned into a string if the message is actually needed
+	 */
+	private static final class BlockedPermissionException extends SecurityException {
+
+		private static final long serialVersionUID = -5383785358493540413L;
+
+		private final String permission;
+		private final StackTraceElement[] checkStack;
+		private volatile String message;
+
+		BlockedPermissionException(Permission perm, StackTraceElement[] stack) {
+			super();
+			permission = String.valueOf(perm);
+			checkStack = stack;
+		}
+
+		@Override
+		public String getMessage() {
+			if (message == null) {
+				message = "Security manager blocks " + permission + toString(checkStack);
+			}
+			return message;
+		}
+
+		static String toString(StackTraceElement[] stack) {
+			StringBuilder sb = new StringBuilder("\n");
+			for (StackTraceElement e : stack) {
+				sb.append(e).append("\n");
+			}
+			return sb.toString();
+		}
+	}
 }
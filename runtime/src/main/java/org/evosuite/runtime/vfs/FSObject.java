@@ -92,6 +92,7 @@ public abstract class FSObject {
 		}
 
 		path = newPath;
+		markModified();
 
 		return true; 
 	}
@@ -99,9 +100,17 @@ public abstract class FSObject {
 	public boolean delete(){
 		parent.removeChild(getName());
 		deleted = true;
+		markModified();
 		return deleted;
 	}
 
+	/**
+	 * Signal the VFS that its content is no longer the one it was initialized with
+	 */
+	protected void markModified(){
+		VirtualFileSystem.getInstance().markModified();
+	}
+
 	public boolean isFolder(){
 		return this instanceof VFolder;
 	}
@@ -132,6 +141,7 @@ public abstract class FSObject {
 
 	public void setReadPermission(boolean readPermission) {
 		this.readPermission = readPermission;
+		markModified();
 	}
 
 
@@ -142,6 +152,7 @@ public abstract class FSObject {
 
 	public void setWritePermission(boolean writePermission) {
 		this.writePermission = writePermission;
+		markModified();
 	}
 
 
@@ -152,6 +163,7 @@ public abstract class FSObject {
 
 	public void setExecutePermission(boolean executePermission) {
 		this.executePermission = executePermission;
+		markModified();
 	}
 
 	public String getPath() {
@@ -184,6 +196,7 @@ public abstract class FSObject {
 			return false;
 		}
 		this.lastModified = lastModified;
+		markModified();
 		return true;
 	}
 
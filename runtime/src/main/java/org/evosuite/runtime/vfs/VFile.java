@@ -19,57 +19,78 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Representation of a virtual file
  * 
+ * <p>
+ * The content is stored in fixed size chunks of bytes, which are allocated
+ * on demand. Bytes beyond the current size of the file are always 0, so
+ * growing the file does not need to explicitly pad it.
+ * 
  * @author arcuri
  *
  */
 public class VFile extends FSObject{
 
 	/**
-	 * the actual data contained in file as a list of bytes
+	 * Size in bytes of each chunk of data
+	 */
+	private static final int CHUNK_SIZE = 4096;
+
+	private static final byte[][] NO_CHUNKS = new byte[0][];
+
+	/**
+	 * the actual data contained in file, split in chunks of {@link #CHUNK_SIZE} bytes.
+	 * Only the chunks up to the current size of the file are allocated
 	 */
-	private final List<Byte> data;
+	private byte[][] chunks;
+
+	/**
+	 * number of bytes in the file
+	 */
+	private int size;
 
 	public VFile(String path, VFolder parent) {
 		super(path, parent);
-
-		//TODO might need a better type of data structure supporting multi-threading
-		data = new ArrayList<Byte>(1024);
+		chunks = NO_CHUNKS;
+		size = 0;
 	}
 
-	public void eraseData(){
-		data.clear();
+	public synchronized void eraseData(){
+		chunks = NO_CHUNKS;
+		size = 0;
+		markModified();
 	}
 
 	public synchronized int getDataSize(){
-		return data.size();
+		return size;
 	}
 
 
 	public synchronized void setLength(int newLength){
 
-		/*
-		 * Note: this implementation is not particularly efficient...
-		 * but setLength is rarely called
-		 */
-
-		while(newLength > data.size()){
-			data.add((byte)0);
-		}
-
 		if(newLength==0){
-			data.clear();
+			eraseData();
 			return;
 		}
-		
-		while(data.size() > newLength){
-			data.remove(data.size()-1);
+
+		if(newLength > size){
+			ensureCapacity(newLength);
+		} else if(newLength < size){
+			//keep the invariant that bytes beyond the size are 0
+			int lastChunk = (newLength - 1) / CHUNK_SIZE;
+			int from = newLength - (lastChunk * CHUNK_SIZE);
+			int to = Math.min(CHUNK_SIZE, size - (lastChunk * CHUNK_SIZE));
+			Arrays.fill(chunks[lastChunk], from, to, (byte)0);
+			for(int i=lastChunk+1; i<chunks.length && chunks[i]!=null; i++){
+				chunks[i] = null;
+			}
 		}
+
+		size = newLength;
+		markModified();
 	}
 
     /**
@@ -82,15 +103,48 @@ public class VFile extends FSObject{
 			throw new IllegalArgumentException("Position in the file cannot be negative");
 		}
 
-		if(position >= data.size()){
+		if(position >= size){
 			return -1; //this represent the end of the stream
 		}
 
-		return data.get(position) & 0xFF;
+		return chunks[position / CHUNK_SIZE][position % CHUNK_SIZE] & 0xFF;
+	}
+
+	/**
+	 * Copy up to {@code len} bytes starting from {@code position} into {@code b}
+	 * 
+	 * @return the number of copied bytes, or -1 if {@code position} is at (or after) the end of the file
+	 */
+	public synchronized int read(int position, byte b[], int off, int len) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+		if(off<0 || len<0 || len > b.length - off){
+			throw new IndexOutOfBoundsException();
+		}
+
+		if(len == 0){
+			return 0;
+		}
+
+		if(position >= size){
+			return -1; //this represent the end of the stream
+		}
+
+		int toRead = Math.min(len, size - position);
+		int done = 0;
+		while(done < toRead){
+			int chunkOffset = (position + done) % CHUNK_SIZE;
+			int n = Math.min(CHUNK_SIZE - chunkOffset, toRead - done);
+			System.arraycopy(chunks[(position + done) / CHUNK_SIZE], chunkOffset, b, off + done, n);
+			done += n;
+		}
+
+		return toRead;
 	}
 
 	public synchronized int writeBytes(byte b[], int off, int len){
-		return writeBytes(data.size(),b,off,len);
+		return writeBytes(size,b,off,len);
 	}
 
 	
@@ -104,24 +158,45 @@ public class VFile extends FSObject{
 			return 0;
 		}
 
-		if(position >= data.size()){
-			setLength(position);
+		int toWrite = Math.max(0, Math.min(len, b.length - off));
+		if((long) position + toWrite > Integer.MAX_VALUE){
+			throw new IllegalArgumentException("Virtual file system does not handle files larger than "+Integer.MAX_VALUE+" bytes");
 		}
 
-		int written = 0;
-		for(int i=off; i<b.length & (i-off)<len; i++){
-			if(position < data.size()){
-				data.set(position,(b[i]));
-			} else {
-				data.add(b[i]);
-			}
-			position++;
-			written++;
+		int end = position + toWrite;
+		ensureCapacity(end);
+
+		int done = 0;
+		while(done < toWrite){
+			int chunkOffset = (position + done) % CHUNK_SIZE;
+			int n = Math.min(CHUNK_SIZE - chunkOffset, toWrite - done);
+			System.arraycopy(b, off + done, chunks[(position + done) / CHUNK_SIZE], chunkOffset, n);
+			done += n;
+		}
+
+		if(end > size){
+			size = end;
 		}
 
 		setLastModified(getCurrentTimeMillis());
 
-		return written;
+		return toWrite;
+	}
+
+	/**
+	 * Make sure all the chunks needed to store {@code length} bytes are allocated
+	 */
+	private void ensureCapacity(int length){
+		int needed = (int) (((long) length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+		if(needed > chunks.length){
+			chunks = Arrays.copyOf(chunks, Math.max(needed, chunks.length * 2));
+		}
+		//chunks before the one containing the current end of file are already allocated
+		for(int i=size / CHUNK_SIZE; i<needed; i++){
+			if(chunks[i] == null){
+				chunks[i] = new byte[CHUNK_SIZE];
+			}
+		}
 	}
 
 
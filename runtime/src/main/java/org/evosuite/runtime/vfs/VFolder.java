@@ -55,6 +55,7 @@ public class VFolder extends FSObject{
 	
 	public void addChild(FSObject child){
 		children.add(child);
+		markModified();
 	}
 	
 	public boolean removeChild(String name) throws IllegalArgumentException{
@@ -65,6 +66,7 @@ public class VFolder extends FSObject{
 		
 		for(FSObject element : children){
 			if(name.equals(element.getName())){
+				markModified();
 				return children.remove(element);				 
 			}
 		}
@@ -100,6 +100,18 @@ public final class VirtualFileSystem {
 	 * 
 	 */
 	private final Set<LeakingResource> leakingResources;
+
+	/**
+	 * Whether the file tree was changed since it was built by {@link #init()}.
+	 * If not, it can be reused as it is by the next test execution
+	 */
+	private volatile boolean modified;
+
+	/**
+	 * The working and tmp folders the current file tree was built for
+	 */
+	private String initializedWorkingDir;
+	private String initializedTmpDir;
 	
 	//--------------------------------------------------------------------------
 
@@ -127,6 +139,37 @@ public final class VirtualFileSystem {
 	 */
 	public void resetSingleton() {
 		root = null;
+		initializedWorkingDir = null;
+		initializedTmpDir = null;
+		resetExecutionState();
+	}
+
+	/**
+	 * Bring the VFS back to the state it had right after {@link #init()}.
+	 * 
+	 * <p>
+	 * If no test execution changed the file tree since it was initialized,
+	 * the tree is reused as it is, without rebuilding it. Otherwise, the old
+	 * tree is simply discarded and a new one is built.
+	 */
+	public void resetToInitialState() {
+		resetExecutionState();
+
+		if (root == null || modified
+				|| !getWorkingDirPath().equals(initializedWorkingDir)
+				|| !getTmpFolderPath().equals(initializedTmpDir)) {
+			init();
+		}
+	}
+
+	/**
+	 * Mark the file tree as changed since its initialization
+	 */
+	void markModified() {
+		modified = true;
+	}
+
+	private void resetExecutionState() {
 		tmpFileCounter.set(0);
 		accessedFiles.clear();
 		shouldAllThrowIOException = false;
@@ -210,11 +253,16 @@ public final class VirtualFileSystem {
 		root = new VFolder(null, null);
 
 		String workingDir = getWorkingDirPath();
+		String tmpDir = getTmpFolderPath();
 		createFolder(workingDir);
-		createFolder(getTmpFolderPath());
+		createFolder(tmpDir);
 
 		//important to clear, as above code would modify this field
 		accessedFiles.clear();
+
+		initializedWorkingDir = workingDir;
+		initializedTmpDir = tmpDir;
+		modified = false;
 	}
 
 	public static String getWorkingDirPath(){
@@ -406,6 +454,7 @@ public final class VirtualFileSystem {
 					path = name;
 				}
 				folder = new VFolder(path, parent);
+				parent.addChild(folder);
 			} else {
 				FSObject child = parent.getChild(name);
 				if (!child.isFolder()) {
@@ -414,7 +463,6 @@ public final class VirtualFileSystem {
 				folder = (VFolder) child;
 			}
 
-			parent.addChild(folder);
 			parent = folder;
 		}
 
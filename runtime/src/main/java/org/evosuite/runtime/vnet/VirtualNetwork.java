@@ -154,6 +154,18 @@ public class VirtualNetwork {
 
 	private DNS dns;
 
+	/**
+	 * Whether the state of the network was changed since the last {@link #reset()}.
+	 * If not, there is nothing to clear
+	 */
+	private volatile boolean modified;
+
+	/**
+	 * The network interfaces of the initial environment. As they are immutable,
+	 * they are created only once, and then shared by all test executions
+	 */
+	private volatile List<NetworkInterfaceState> initialNetworkInterfaces;
+
 	/**
 	 * private, singleton constructor
 	 */
@@ -188,12 +200,18 @@ public class VirtualNetwork {
     }
 
 	public void reset() {
+		networkInterfaces.clear();
+
+		if(!modified) {
+			//nothing was done on the network since last reset, so no need to clear it
+			return;
+		}
+
 		dns = new DNS();
 
 		incomingConnections.clear();
 		remotePortIndex.set(START_OF_REMOTE_EPHEMERAL_PORTS);
 		remoteCurrentServers.clear();
-		networkInterfaces.clear();
         remoteFiles.clear();
         udpPacketsToSUT.clear();
         sentUdpPackets.clear();
@@ -201,6 +219,12 @@ public class VirtualNetwork {
 		openedTcpConnections.clear();
 		remoteContactedPorts.clear();
         remoteAccessedFiles.clear();
+
+        modified = false;
+	}
+
+	private void markModified() {
+		modified = true;
 	}
 
     // -------  observers ----------------------
@@ -268,6 +292,7 @@ public class VirtualNetwork {
             return false;
         }
 
+        markModified();
         RemoteFile rf = new RemoteFile(key,content);
         remoteFiles.put(key,rf);
 
@@ -284,6 +309,7 @@ public class VirtualNetwork {
         int port = packet.getPort();
         EndPointInfo info = new EndPointInfo(addr.getHostAddress(),port,ConnectionType.UDP);
 
+        markModified();
         remoteContactedPorts.add(info);
         synchronized(sentUdpPackets) {
             AtomicInteger counter = sentUdpPackets.get(info);
@@ -308,6 +334,7 @@ public class VirtualNetwork {
             return null;
         }
 
+        markModified();
         DatagramPacket p = queue.poll();
         return p;
     }
@@ -316,6 +343,7 @@ public class VirtualNetwork {
         DatagramPacket packet = new DatagramPacket(data.clone(),data.length,remoteAddress, remotePort);
         EndPointInfo sut = new EndPointInfo(sutAddress,sutPort,ConnectionType.UDP);
 
+        markModified();
         synchronized(udpPacketsToSUT) {
             Queue<DatagramPacket> queue = udpPacketsToSUT.get(sut);
             if(queue == null) {
@@ -334,6 +362,7 @@ public class VirtualNetwork {
      */
     public RemoteFile getFile(URL url) {
         String s = url.toString();
+        markModified();
         if(!remoteAccessedFiles.contains(s)) {
             remoteAccessedFiles.add(s);
         }
@@ -346,6 +375,7 @@ public class VirtualNetwork {
 	 * @return a integer representing a port number on remote host
 	 */
 	public int getNewRemoteEphemeralPort() {
+		markModified();
 		return remotePortIndex.getAndIncrement();
 	}
 
@@ -355,6 +385,7 @@ public class VirtualNetwork {
      * @return a integer representing a port number on local host
      */
     public int getNewLocalEphemeralPort() {
+        markModified();
         return remotePortIndex.getAndIncrement(); //Note: could use a new variable, but doesn't really matter
     }
 
@@ -378,6 +409,7 @@ public class VirtualNetwork {
 	 * @return 
 	 */
 	public String dnsResolve(String host) {
+		markModified();
 		return dns.resolve(host);
 	}
 
@@ -394,6 +426,7 @@ public class VirtualNetwork {
 			String originAddr, int originPort,
 			String destAddr, int destPort) {
 
+		markModified();
 		EndPointInfo origin = new EndPointInfo(originAddr,originPort,ConnectionType.TCP);
 		EndPointInfo dest = new EndPointInfo(destAddr,destPort,ConnectionType.TCP);
 
@@ -423,6 +456,7 @@ public class VirtualNetwork {
 			return null;
 		}
 
+		markModified();
 		NativeTcp connection = queue.poll();
 		openedTcpConnections.add(connection);
 
@@ -469,6 +503,7 @@ public class VirtualNetwork {
             return false;
         }
 
+        markModified();
         localListeningPorts.add(info);
 
         return true;
@@ -481,6 +516,7 @@ public class VirtualNetwork {
 	 */
 	public synchronized void addRemoteTcpServer(RemoteTcpServer server) {
 
+		markModified();
 		Queue<RemoteTcpServer> queue = remoteCurrentServers.get(server.getAddress());
 		if(queue==null) {
 			queue = new ConcurrentLinkedQueue<>();
@@ -515,6 +551,7 @@ public class VirtualNetwork {
 			throw new IllegalArgumentException("Invalid local address: "+localOrigin);
 		}
 
+		markModified();
 		remoteContactedPorts.add(remoteTarget);
 
 		Queue<RemoteTcpServer> queue = remoteCurrentServers.get(remoteTarget);
@@ -535,20 +572,31 @@ public class VirtualNetwork {
 	}
 
 	private void initNetworkInterfaces() {
+		if(initialNetworkInterfaces == null) {
+			initialNetworkInterfaces = createNetworkInterfaces();
+		}
+		networkInterfaces.addAll(initialNetworkInterfaces);
+	}
+
+	private List<NetworkInterfaceState> createNetworkInterfaces() {
+
+		List<NetworkInterfaceState> interfaces = new ArrayList<>();
 
 		try{
 			NetworkInterfaceState loopback = new NetworkInterfaceState(
 					"Evo_lo0", 1, null, 16384, true, MockInetAddress.getByName("127.0.0.1"));
-			networkInterfaces.add(loopback);
+			interfaces.add(loopback);
 
 			NetworkInterfaceState wifi = new NetworkInterfaceState(
 					"Evo_en0", 5, new byte[]{0, 42, 0, 42, 0, 42}, 
 					1500, false, MockInetAddress.getByName("192.168.1.42"));
-			networkInterfaces.add(wifi);
+			interfaces.add(wifi);
 		} catch(Exception e) {
 			//this should never happen
 			throw new RuntimeException("EvoSuite error: "+e.getMessage());
 		}
+
+		return Collections.unmodifiableList(interfaces);
 	}
 
 	//------------------------------------------
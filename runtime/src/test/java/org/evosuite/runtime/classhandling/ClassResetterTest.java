@@ -20,12 +20,15 @@
 package org.evosuite.runtime.classhandling;
 
 import com.examples.with.different.packagename.classhandling.MutableEnum;
+import com.examples.with.different.packagename.classhandling.StaticConstantInterface;
+import com.examples.with.different.packagename.classhandling.StaticCounter;
 import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.instrumentation.EvoClassLoader;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 
 
@@ -85,4 +88,63 @@ public class ClassResetterTest {
         Assert.assertEquals("a", getter.invoke(enums[0]));
         Assert.assertEquals("b", getter.invoke(enums[1]));
     }
+
+    @Test
+    public void testResetOfWrittenStaticField() throws Exception{
+
+        ClassLoader loader = new EvoClassLoader();
+        RuntimeSettings.resetStaticState = true;
+        ClassResetter.getInstance().setClassLoader(loader);
+
+        String cut = StaticCounter.class.getCanonicalName();
+
+        Class<?> klass = loader.loadClass(cut);
+        Method increment = klass.getDeclaredMethod("increment");
+        Method getter = klass.getDeclaredMethod("getCounter");
+
+        increment.invoke(null);
+        increment.invoke(null);
+        Assert.assertEquals(2, getter.invoke(null));
+
+        ClassResetter.getInstance().reset(cut);
+
+        Assert.assertEquals(0, getter.invoke(null));
+    }
+
+    @Test
+    public void testResetMethodHandleIsCached() throws Exception{
+
+        ClassLoader loader = new EvoClassLoader();
+        RuntimeSettings.resetStaticState = true;
+        ClassResetter.getInstance().setClassLoader(loader);
+
+        String cut = StaticCounter.class.getCanonicalName();
+
+        MethodHandle first = ClassResetter.getInstance().getResetMethodHandle(cut);
+        Assert.assertNotNull(first);
+        Assert.assertSame(first, ClassResetter.getInstance().getResetMethodHandle(cut));
+
+        //a new class loader has its own classes, and so its own handles
+        ClassResetter.getInstance().setClassLoader(new EvoClassLoader());
+        MethodHandle other = ClassResetter.getInstance().getResetMethodHandle(cut);
+        Assert.assertNotNull(other);
+        Assert.assertNotSame(first, other);
+    }
+
+    @Test
+    public void testNoResetMethodIsCached() throws Exception{
+
+        ClassLoader loader = new EvoClassLoader();
+        RuntimeSettings.resetStaticState = true;
+        ClassResetter.getInstance().setClassLoader(loader);
+
+        //interfaces do not get a __STATIC_RESET()
+        String cut = StaticConstantInterface.class.getCanonicalName();
+
+        Assert.assertNull(ClassResetter.getInstance().getResetMethodHandle(cut));
+        Assert.assertNull(ClassResetter.getInstance().getResetMethodHandle(cut));
+
+        //nothing to invoke, so this must not fail
+        ClassResetter.getInstance().reset(cut);
+    }
 }
@@ -121,6 +121,32 @@ public class DBManagerIntTest {
     }
 
 
+    @Test
+    public void testClearOnlyModifiedTables() throws SQLException {
+
+        //nothing to clear
+        Assert.assertTrue(DBManager.getInstance().clearDatabase());
+
+        Connection c = ((SessionImpl) DBManager.getInstance().getCurrentEntityManager().getDelegate()).connection();
+        Statement s = c.createStatement();
+        s.executeUpdate("INSERT INTO KVPair_table VALUES 'a', 'b'");
+        s.close();
+
+        Assert.assertTrue(DBManager.getInstance().clearDatabase());
+
+        s = c.createStatement();
+        ResultSet rs = s.executeQuery("SELECT * from KVPair_table");
+        Assert.assertFalse(rs.next()); // no data
+        rs.close();
+        s.close();
+
+        //already clean
+        Assert.assertTrue(DBManager.getInstance().clearDatabase());
+
+        //the modified tables were found without falling back to clearing all of them
+        Assert.assertTrue(DBManager.getInstance().isUsingTableStatistics());
+    }
+
     @Test
     public void testClearDatabase() throws Exception {
 
@@ -27,6 +27,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.lang.reflect.ReflectPermission;
 import java.net.InetAddress;
 import java.net.URL;
 import java.net.URLConnection;
@@ -350,6 +351,26 @@ public class MSecurityManagerTest {
 		});	
 		future.get(1000, TimeUnit.MILLISECONDS);
 	}
-	
-	
+
+	@Test
+	public void testRepeatedPermissionChecksGiveSameDecision() throws InterruptedException, ExecutionException, TimeoutException{
+
+		Future<?> future = executor.submit(new Runnable(){
+			@Override
+			public void run() {
+				for(int i=0; i<3; i++) {
+					securityManager.checkPermission(new ReflectPermission("suppressAccessChecks"));
+
+					try {
+						securityManager.checkPermission(new RuntimePermission("queuePrintJob"));
+						Assert.fail();
+					} catch(SecurityException e) {
+						Assert.assertTrue(e.getMessage().contains("queuePrintJob"));
+					}
+				}
+			}
+		});
+		future.get(1000, TimeUnit.MILLISECONDS);
+	}
+
 }
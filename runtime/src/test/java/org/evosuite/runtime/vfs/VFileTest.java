@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VFileTest {
+
+	private static byte[] sequence(int length){
+		byte[] data = new byte[length];
+		for(int i=0; i<length; i++){
+			data[i] = (byte) i;
+		}
+		return data;
+	}
+
+	@Test
+	public void testWriteAndReadAcrossChunks(){
+		VFile file = new VFile("/foo", null);
+		byte[] data = sequence(10_000);
+
+		Assert.assertEquals(data.length, file.writeBytes(data, 0, data.length));
+		Assert.assertEquals(data.length, file.getDataSize());
+
+		byte[] read = new byte[data.length];
+		Assert.assertEquals(data.length, file.read(0, read, 0, read.length));
+		Assert.assertArrayEquals(data, read);
+		Assert.assertEquals(data[5000] & 0xFF, file.read(5000));
+		Assert.assertEquals(-1, file.read(data.length));
+		Assert.assertEquals(-1, file.read(data.length, read, 0, 1));
+	}
+
+	@Test
+	public void testPartialRead(){
+		VFile file = new VFile("/foo", null);
+		file.writeBytes(sequence(10), 0, 10);
+
+		byte[] read = new byte[20];
+		Assert.assertEquals(4, file.read(6, read, 2, 18));
+		Assert.assertEquals(6, read[2]);
+		Assert.assertEquals(9, read[5]);
+		Assert.assertEquals(0, file.read(0, read, 0, 0));
+	}
+
+	@Test
+	public void testWriteAfterEndPadsWithZeros(){
+		VFile file = new VFile("/foo", null);
+		file.writeBytes(5000, new byte[]{42}, 0, 1);
+
+		Assert.assertEquals(5001, file.getDataSize());
+		Assert.assertEquals(0, file.read(0));
+		Assert.assertEquals(0, file.read(4999));
+		Assert.assertEquals(42, file.read(5000));
+	}
+
+	@Test
+	public void testShrinkAndGrow(){
+		VFile file = new VFile("/foo", null);
+		file.writeBytes(sequence(9000), 0, 9000);
+
+		file.setLength(10);
+		Assert.assertEquals(10, file.getDataSize());
+		Assert.assertEquals(9, file.read(9));
+		Assert.assertEquals(-1, file.read(10));
+
+		//data removed by the truncation must not come back
+		file.setLength(9000);
+		Assert.assertEquals(9000, file.getDataSize());
+		Assert.assertEquals(9, file.read(9));
+		Assert.assertEquals(0, file.read(10));
+		Assert.assertEquals(0, file.read(8999));
+
+		file.setLength(0);
+		Assert.assertEquals(0, file.getDataSize());
+	}
+
+	@Test
+	public void testNoWritePermission(){
+		VFile file = new VFile("/foo", null);
+		file.setWritePermission(false);
+		Assert.assertEquals(0, file.writeBytes(sequence(10), 0, 10));
+		Assert.assertEquals(0, file.getDataSize());
+	}
+}
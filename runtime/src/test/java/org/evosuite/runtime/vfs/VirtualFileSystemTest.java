@@ -254,4 +254,32 @@ public class VirtualFileSystemTest {
 		Assert.assertFalse(folder.exists());		
 	}
 
+	@Test
+	public void testResetToInitialStateDiscardsChanges() throws IOException{
+		MockFile file = new MockFile("foo_reset");
+		Assert.assertTrue(file.createNewFile());
+		Assert.assertTrue(file.exists());
+
+		VirtualFileSystem.getInstance().resetToInitialState();
+
+		//checking files below does access them again
+		Assert.assertEquals(0, VirtualFileSystem.getInstance().getAccessedFiles().size());
+		Assert.assertFalse(file.exists());
+		Assert.assertTrue(new MockFile(VirtualFileSystem.getWorkingDirPath()).exists());
+	}
+
+	@Test
+	public void testResetToInitialStateWithoutChanges() throws IOException{
+		MockFile workingDir = new MockFile(VirtualFileSystem.getWorkingDirPath());
+		Assert.assertTrue(workingDir.exists());
+
+		VirtualFileSystem.getInstance().resetToInitialState();
+
+		Assert.assertEquals(0, VirtualFileSystem.getInstance().getAccessedFiles().size());
+		Assert.assertTrue(workingDir.exists());
+
+		File file = MockFile.createTempFile("foo", ".tmp");
+		Assert.assertTrue(file.exists());
+	}
+
 }